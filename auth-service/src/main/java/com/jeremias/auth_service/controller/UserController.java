@@ -23,7 +23,8 @@ public class UserController {
 
   @PostMapping
   public ResponseEntity<User> createUser(@RequestBody User user) {
-    log.info("POST /api/v1/users - Creating user: {}", user.getUsername());
+    log.atInfo().addKeyValue("username", user.getUsername())
+        .log("POST /api/v1/users - Creating user");
     try {
       User created = userService.createUser(user);
       return ResponseEntity.status(HttpStatus.CREATED).body(created);
@@ -35,7 +36,7 @@ public class UserController {
 
   @GetMapping("/{id}")
   public ResponseEntity<User> getUserById(@PathVariable Long id) {
-    log.info("GET /api/v1/users/{} - Fetching user", id);
+    log.atInfo().addKeyValue("id", id).log("GET /api/v1/users/{id} - Fetching user");
     return userService.getUserById(id)
         .map(ResponseEntity::ok)
         .orElse(ResponseEntity.notFound().build());
@@ -43,7 +44,8 @@ public class UserController {
 
   @GetMapping("/username/{username}")
   public ResponseEntity<User> getUserByUsername(@PathVariable String username) {
-    log.info("GET /api/v1/users/username/{} - Fetching user by username", username);
+    log.atInfo().addKeyValue("username", username)
+        .log("GET /api/v1/users/username/{username} - Fetching user by username");
     return userService.getUserByUsername(username)
         .map(ResponseEntity::ok)
         .orElse(ResponseEntity.notFound().build());
@@ -52,7 +54,7 @@ public class UserController {
   @GetMapping
   public ResponseEntity<List<User>> getAllUsers(
       @RequestParam(required = false) String role) {
-    log.info("GET /api/v1/users - Fetching all users, role filter: {}", role);
+    log.atInfo().addKeyValue("role", role).log("GET /api/v1/users - Fetching all users");
     if (role != null && !role.isBlank()) {
       return ResponseEntity.ok(userService.getUsersByRole(role));
     }
@@ -61,7 +63,7 @@ public class UserController {
 
   @PutMapping("/{id}")
   public ResponseEntity<User> updateUser(@PathVariable Long id, @RequestBody User user) {
-    log.info("PUT /api/v1/users/{} - Updating user", id);
+    log.atInfo().addKeyValue("id", id).log("PUT /api/v1/users/{id} - Updating user");
     try {
       User updated = userService.updateUser(id, user);
       return ResponseEntity.ok(updated);
@@ -73,7 +75,7 @@ public class UserController {
 
   @DeleteMapping("/{id}")
   public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
-    log.info("DELETE /api/v1/users/{} - Deleting user", id);
+    log.atInfo().addKeyValue("id", id).log("DELETE /api/v1/users/{id} - Deleting user");
     boolean deleted = userService.deleteUser(id);
     return deleted
         ? ResponseEntity.noContent().build()
@@ -82,7 +84,8 @@ public class UserController {
 
   @GetMapping("/exists/username/{username}")
   public ResponseEntity<Boolean> existsByUsername(@PathVariable String username) {
-    log.info("GET /api/v1/users/exists/username/{} - Checking existence", username);
+    log.atInfo().addKeyValue("username", username)
+        .log("GET /api/v1/users/exists/username/{username} - Checking existence");
     return ResponseEntity.ok(userService.existsByUsername(username));
   }
 
@@ -90,7 +93,8 @@ public class UserController {
   public ResponseEntity<Boolean> validateCredentials(
       @RequestParam String username,
       @RequestParam String password) {
-    log.info("POST /api/v1/users/validate - Validating credentials for: {}", username);
+    log.atInfo().addKeyValue("username", username)
+        .log("POST /api/v1/users/validate - Validating credentials");
     boolean valid = userService.validateUserCredentials(username, password);
     return ResponseEntity.ok(valid);
   }
@@ -43,28 +43,28 @@ public class UserServiceImpl implements IUserService {
   @Override
   @Transactional(readOnly = true)
   public Optional<User> getUserById(Long id) {
-    log.info("Fetching user by id: {}", id);
+    log.debug("Fetching user by id: {}", id);
     return userRepository.findById(id);
   }
 
   @Override
   @Transactional(readOnly = true)
   public Optional<User> getUserByUsername(String username) {
-    log.info("Fetching user by username: {}", username);
+    log.debug("Fetching user by username: {}", username);
     return userRepository.findByUsername(username);
   }
 
   @Override
   @Transactional(readOnly = true)
   public List<User> getAllUsers() {
-    log.info("Fetching all users");
+    log.debug("Fetching all users");
     return userRepository.findAll();
   }
 
   @Override
   @Transactional(readOnly = true)
   public List<User> getUsersByRole(String role) {
-    log.info("Fetching users by role: {}", role);
+    log.debug("Fetching users by role: {}", role);
     return userRepository.findByRole(role);
   }
 
@@ -113,7 +113,7 @@ public class UserServiceImpl implements IUserService {
   @Override
   @Transactional(readOnly = true)
   public boolean validateUserCredentials(String username, String rawPassword) {
-    log.info("Validating credentials for username: {}", username);
+    log.debug("Validating credentials for username: {}", username);
     Optional<User> userOpt = userRepository.findByUsername(username);
 
     if (userOpt.isEmpty()) {
@@ -0,0 +1,48 @@
+package com.sharp.booking_service.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.sharp.booking_service.BookingServiceApplication;
+
+/**
+ * Contexto completo de booking-service sobre H2 embebido (modo MySQL).
+ *
+ * Las propiedades van como argumentos de linea de comandos: como defaults
+ * quedarian por debajo del perfil dev de application.yml, que apunta a MySQL.
+ */
+public final class BenchmarkContext {
+
+  private BenchmarkContext() {
+  }
+
+  public static ConfigurableApplicationContext start(String database, String... properties) {
+    List<String> args = new ArrayList<>(List.of(
+        "--spring.datasource.url=jdbc:h2:mem:" + database + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "--spring.datasource.username=sa",
+        "--spring.datasource.password=",
+        "--spring.jpa.hibernate.ddl-auto=create-drop",
+        "--spring.jpa.show-sql=false",
+        "--spring.jpa.open-in-view=false",
+        "--spring.main.banner-mode=off",
+        "--server.port=0",
+        "--logging.level.root=WARN",
+        "--logging.level.com.sharp=WARN",
+        "--logging.level.org.springframework.security=WARN",
+        "--booking.pnr.key=5150",
+        // sin trabajos en segundo plano que compitan con lo que se mide
+        "--booking.projection.drain-ms=3600000",
+        "--booking.projection.reconcile-ms=3600000",
+        "--booking.outbox.poll-ms=3600000",
+        // el alta escribe su evento como en produccion; el relay no llega a correr
+        "--booking.outbox.sink=file",
+        "--booking.audit.enabled=false"));
+    for (String property : properties) {
+      args.add("--" + property);
+    }
+    return new SpringApplicationBuilder(BookingServiceApplication.class).run(args.toArray(String[]::new));
+  }
+}
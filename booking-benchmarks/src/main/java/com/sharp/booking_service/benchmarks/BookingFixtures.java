@@ -0,0 +1,71 @@
+package com.sharp.booking_service.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.sharp.booking_service.models.Booking;
+import com.sharp.booking_service.models.BookingStatus;
+import com.sharp.booking_service.models.Passenger;
+
+/**
+ * Datos de prueba comunes a los benchmarks.
+ */
+public final class BookingFixtures {
+
+  private BookingFixtures() {
+  }
+
+  public static Booking booking(long bookingId, int passengers) {
+    LocalDateTime now = LocalDateTime.of(2026, 1, 15, 10, 30);
+    Booking booking = Booking.builder()
+        .bookingId(bookingId)
+        .pnr(String.format("B%05d", bookingId % 100_000))
+        .flightInstanceId(1 + bookingId % 20)
+        .status(BookingStatus.HELD)
+        .passengerCount(passengers)
+        .createdByUserId(42L)
+        .holdExpiresAt(now.plusMinutes(15))
+        .createdAt(now)
+        .passengers(new ArrayList<>(passengers))
+        .build();
+    for (int i = 0; i < passengers; i++) {
+      booking.addPassenger(passenger(bookingId, i));
+    }
+    return booking;
+  }
+
+  public static List<Booking> bookings(int count, int passengersEach) {
+    List<Booking> bookings = new ArrayList<>(count);
+    for (int i = 1; i <= count; i++) {
+      bookings.add(booking(i, passengersEach));
+    }
+    return bookings;
+  }
+
+  /**
+   * Booking sin id, listo para persistir.
+   */
+  public static Booking newBooking(int index, int passengers) {
+    Booking booking = Booking.builder()
+        .pnr(String.format("J%05d", index))
+        .flightInstanceId(1L + index % 20)
+        .passengerCount(passengers)
+        .createdByUserId(42L)
+        .holdExpiresAt(LocalDateTime.now().plusHours(1))
+        .build();
+    for (int i = 0; i < passengers; i++) {
+      booking.addPassenger(passenger(index, i));
+    }
+    return booking;
+  }
+
+  private static Passenger passenger(long bookingId, int index) {
+    return Passenger.builder()
+        .firstName("Passenger" + index)
+        .lastName("Booking" + bookingId)
+        .docType("PASSPORT")
+        .docNumber("X" + bookingId + "-" + index)
+        .build();
+  }
+}
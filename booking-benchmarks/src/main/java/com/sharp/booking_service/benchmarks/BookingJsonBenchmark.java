@@ -0,0 +1,84 @@
+package com.sharp.booking_service.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sharp.booking_service.dto.BookingResponseDto;
+import com.sharp.booking_service.dto.PassengerDto;
+import com.sharp.booking_service.models.Booking;
+
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Serializacion con Jackson de listas de {@link BookingResponseDto}, del tamaño
+ * de una respuesta simple hasta una pagina completa de los endpoints de listado.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingJsonBenchmark {
+
+  @Param({"1", "50", "200"})
+  public int bookings;
+
+  @Param({"2"})
+  public int passengersEach;
+
+  private ObjectMapper objectMapper;
+  private List<BookingResponseDto> dtos;
+
+  @Setup
+  public void setUp() {
+    objectMapper = JsonMapper.builder().build();
+    dtos = BookingFixtures.bookings(bookings, passengersEach).stream()
+        .map(BookingJsonBenchmark::toDto)
+        .toList();
+  }
+
+  @Benchmark
+  public byte[] writeValueAsBytes() {
+    return objectMapper.writeValueAsBytes(dtos);
+  }
+
+  @Benchmark
+  public String writeValueAsString() {
+    return objectMapper.writeValueAsString(dtos);
+  }
+
+  private static BookingResponseDto toDto(Booking booking) {
+    return BookingResponseDto.builder()
+        .bookingId(booking.getBookingId())
+        .pnr(booking.getPnr())
+        .flightInstanceId(booking.getFlightInstanceId())
+        .status(booking.getStatus())
+        .holdExpiresAt(booking.getHoldExpiresAt())
+        .passengerCount(booking.getPassengerCount())
+        .createdByUserId(booking.getCreatedByUserId())
+        .createdAt(booking.getCreatedAt())
+        .passengers(booking.getPassengers().stream()
+            .map(p -> PassengerDto.builder()
+                .firstName(p.getFirstName())
+                .lastName(p.getLastName())
+                .docType(p.getDocType())
+                .docNumber(p.getDocNumber())
+                .build())
+            .toList())
+        .build();
+  }
+}
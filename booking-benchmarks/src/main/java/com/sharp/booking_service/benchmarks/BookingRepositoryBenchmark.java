@@ -0,0 +1,147 @@
+package com.sharp.booking_service.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sharp.booking_service.component.PnrAllocator;
+import com.sharp.booking_service.models.Booking;
+import com.sharp.booking_service.models.BookingStatus;
+import com.sharp.booking_service.repository.IBookingRepository;
+
+/**
+ * Consultas de {@link IBookingRepository} contra H2 embebido (modo MySQL), con
+ * el contexto completo de booking-service y {@code bookings} reservas de 2
+ * pasajeros ya cargadas.
+ *
+ * Mide el costo de JPA/Hibernate y de cada plan de consulta, no el de la red
+ * ni el del motor real: sirve para comparar versiones entre si, no para
+ * estimar latencias de produccion. {@code insertChunk} y {@code allocatePnr}
+ * son el camino de persistencia del alta masiva (un chunk de 200) y del
+ * PnrAllocator.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingRepositoryBenchmark {
+
+  private static final int PAGE_SIZE = 50;
+  private static final int CHUNK_SIZE = 200;
+
+  @Param({"10000"})
+  public int bookings;
+
+  private ConfigurableApplicationContext context;
+  private IBookingRepository bookingRepository;
+  private PnrAllocator pnrAllocator;
+  private TransactionTemplate readTransaction;
+  private TransactionTemplate writeTransaction;
+  private List<String> pnrs;
+  private List<Long> ids;
+  private int inserted;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context = BenchmarkContext.start("booking_bench");
+    bookingRepository = context.getBean(IBookingRepository.class);
+    pnrAllocator = context.getBean(PnrAllocator.class);
+    PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+    readTransaction = new TransactionTemplate(transactionManager);
+    readTransaction.setReadOnly(true);
+    writeTransaction = new TransactionTemplate(transactionManager);
+
+    pnrs = new ArrayList<>(bookings);
+    ids = new ArrayList<>(bookings);
+    for (int from = 0; from < bookings; from += CHUNK_SIZE) {
+      for (Booking saved : insert(Math.min(CHUNK_SIZE, bookings - from))) {
+        pnrs.add(saved.getPnr());
+        ids.add(saved.getBookingId());
+      }
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public Optional<Booking> findByPnrWithPassengers() {
+    return readTransaction.execute(status -> bookingRepository.findByPnrWithPassengers(randomPnr()));
+  }
+
+  @Benchmark
+  public Optional<Booking> findWithPassengersByBookingId() {
+    return readTransaction.execute(status -> bookingRepository.findWithPassengersByBookingId(randomId()));
+  }
+
+  @Benchmark
+  public boolean existsByPnr() {
+    return bookingRepository.existsByPnr(randomPnr());
+  }
+
+  // pagina de GET /api/v1/bookings: ids por keyset y luego bookings + pasajeros
+  @Benchmark
+  public List<Booking> keysetPageWithPassengers() {
+    long after = ids.get(ThreadLocalRandom.current().nextInt(ids.size() - PAGE_SIZE)) - 1;
+    return readTransaction.execute(status -> bookingRepository.findAllWithPassengersByIdIn(
+        bookingRepository.findIdsAfter(after, Limit.of(PAGE_SIZE))));
+  }
+
+  @Benchmark
+  public List<Long> idsByStatusPage() {
+    return bookingRepository.findIdsByStatusAfter(BookingStatus.HELD, 0, Limit.of(PAGE_SIZE));
+  }
+
+  @Benchmark
+  public String allocatePnr() {
+    return pnrAllocator.next();
+  }
+
+  @Benchmark
+  public List<Booking> insertChunk() {
+    return insert(CHUNK_SIZE);
+  }
+
+  private List<Booking> insert(int count) {
+    List<String> allocated = pnrAllocator.next(count);
+    List<Booking> chunk = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      Booking booking = BookingFixtures.newBooking(inserted++, 2);
+      booking.setPnr(allocated.get(i));
+      chunk.add(booking);
+    }
+    return writeTransaction.execute(status -> bookingRepository.saveAll(chunk));
+  }
+
+  private String randomPnr() {
+    return pnrs.get(ThreadLocalRandom.current().nextInt(pnrs.size()));
+  }
+
+  private Long randomId() {
+    return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+  }
+}
@@ -0,0 +1,150 @@
+package com.sharp.booking_service.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.sharp.booking_service.dto.BookingRequestDto;
+import com.sharp.booking_service.dto.BulkBookingResponseDto;
+import com.sharp.booking_service.dto.PassengerDto;
+import com.sharp.booking_service.models.Booking;
+import com.sharp.booking_service.service.IBookingService;
+import com.sharp.booking_service.service.IBulkBookingService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Alta de {@value #ITEMS} reservas de 2 pasajeros: una por una por
+ * {@link IBookingService} (lo que hace un cliente llamando a POST /bookings en
+ * bucle) contra un solo {@link IBulkBookingService#createBookings} (chunks de
+ * 200 con INSERT por lotes). El tiempo es por reserva.
+ *
+ * Los contadores {@code statements} y {@code bookings} dan las sentencias JDBC
+ * por reserva. Los vuelos ya tienen su fila de asientos, asi que no se llama a
+ * flight-service.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(3)
+@State(Scope.Benchmark)
+public class BulkBookingBenchmark {
+
+  private static final int ITEMS = 200;
+  private static final int PASSENGERS = 2;
+  private static final int FLIGHTS = 20;
+
+  private ConfigurableApplicationContext context;
+  private IBookingService bookingService;
+  private IBulkBookingService bulkBookingService;
+  private Statistics statistics;
+  private List<BookingRequestDto> requests;
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class RoundTrips {
+    public long statements;
+    public long bookings;
+
+    private Statistics statistics;
+    private long start;
+
+    @Setup(Level.Iteration)
+    public void reset(BulkBookingBenchmark benchmark) {
+      statistics = benchmark.statistics;
+      start = statistics.getPrepareStatementCount();
+      statements = 0;
+      bookings = 0;
+    }
+
+    void count(int created) {
+      statements = statistics.getPrepareStatementCount() - start;
+      bookings += created;
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context = BenchmarkContext.start("booking_bulk_bench",
+        "spring.jpa.properties.hibernate.generate_statistics=true");
+    bookingService = context.getBean(IBookingService.class);
+    bulkBookingService = context.getBean(IBulkBookingService.class);
+    statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+    JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+    for (long flight = 1; flight <= FLIGHTS; flight++) {
+      jdbcTemplate.update("INSERT INTO booking_flight_seats (flight_instance_id, capacity, held, confirmed)"
+          + " VALUES (?, ?, 0, 0)", flight, Integer.MAX_VALUE);
+    }
+
+    requests = new ArrayList<>(ITEMS);
+    for (int i = 0; i < ITEMS; i++) {
+      List<PassengerDto> passengers = new ArrayList<>(PASSENGERS);
+      for (int p = 0; p < PASSENGERS; p++) {
+        passengers.add(PassengerDto.builder()
+            .firstName("Passenger" + p)
+            .lastName("Bulk" + i)
+            .docType("PASSPORT")
+            .docNumber("B" + i + "-" + p)
+            .build());
+      }
+      requests.add(BookingRequestDto.builder()
+          .flightInstanceId(1L + i % FLIGHTS)
+          .passengerCount(PASSENGERS)
+          .createdByUserId(42L)
+          .holdExpiresAt(LocalDateTime.now().plusDays(1))
+          .passengers(passengers)
+          .build());
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ITEMS)
+  public int single(RoundTrips roundTrips) {
+    for (BookingRequestDto request : requests) {
+      Booking booking = Booking.builder()
+          .flightInstanceId(request.getFlightInstanceId())
+          .passengerCount(request.getPassengerCount())
+          .createdByUserId(request.getCreatedByUserId())
+          .holdExpiresAt(request.getHoldExpiresAt())
+          .build();
+      bookingService.createBookingWithPassengers(booking, request.getPassengers());
+    }
+    roundTrips.count(ITEMS);
+    return ITEMS;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ITEMS)
+  public int bulk(RoundTrips roundTrips) {
+    BulkBookingResponseDto response = bulkBookingService.createBookings(requests);
+    roundTrips.count(response.getCreated());
+    return response.getCreated();
+  }
+}
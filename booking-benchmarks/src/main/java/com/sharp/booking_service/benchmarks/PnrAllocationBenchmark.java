@@ -0,0 +1,143 @@
+package com.sharp.booking_service.benchmarks;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sharp.booking_service.component.PnrAllocator;
+import com.sharp.booking_service.component.PnrCodec;
+import com.sharp.booking_service.models.Booking;
+import com.sharp.booking_service.repository.IBookingRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Idas a la base por PNR: el bucle original de createBooking (SecureRandom y
+ * existsByPnr hasta dar con uno libre) contra {@link PnrAllocator}, con
+ * {@code bookings} reservas ya cargadas en H2 embebido.
+ *
+ * Ademas del tiempo por PNR, cada benchmark suma {@code statements} (sentencias
+ * JDBC preparadas, segun las estadisticas de Hibernate) y {@code pnrs}; el
+ * cociente es lo que cuesta cada PNR en idas a la base. En H2 una ida no cruza
+ * la red, asi que el tiempo subestima la diferencia contra MySQL.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PnrAllocationBenchmark {
+
+  private static final SecureRandom RANDOM = new SecureRandom();
+  private static final int CHUNK_SIZE = 200;
+
+  @Param({"10000"})
+  public int bookings;
+
+  private ConfigurableApplicationContext context;
+  private IBookingRepository bookingRepository;
+  private PnrAllocator pnrAllocator;
+  private Statistics statistics;
+
+  /**
+   * Sentencias de toda la iteracion, contando las que el allocator hace en su
+   * propio hilo al reservar el bloque siguiente.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class RoundTrips {
+    public long statements;
+    public long pnrs;
+
+    private Statistics statistics;
+    private long start;
+
+    @Setup(Level.Iteration)
+    public void reset(PnrAllocationBenchmark benchmark) {
+      statistics = benchmark.statistics;
+      start = statistics.getPrepareStatementCount();
+      statements = 0;
+      pnrs = 0;
+    }
+
+    void count() {
+      statements = statistics.getPrepareStatementCount() - start;
+      pnrs++;
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context = BenchmarkContext.start("booking_pnr_bench",
+        "spring.jpa.properties.hibernate.generate_statistics=true");
+    bookingRepository = context.getBean(IBookingRepository.class);
+    pnrAllocator = context.getBean(PnrAllocator.class);
+    statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    TransactionTemplate writeTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+    for (int from = 0; from < bookings; from += CHUNK_SIZE) {
+      int count = Math.min(CHUNK_SIZE, bookings - from);
+      List<String> pnrs = pnrAllocator.next(count);
+      List<Booking> chunk = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        Booking booking = BookingFixtures.newBooking(from + i, 1);
+        booking.setPnr(pnrs.get(i));
+        chunk.add(booking);
+      }
+      writeTransaction.executeWithoutResult(status -> bookingRepository.saveAll(chunk));
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  // bucle de BookingServiceImpl.createBooking antes del PnrAllocator
+  @Benchmark
+  public String legacyExistsByPnrLoop(RoundTrips roundTrips) {
+    String pnr = legacyPnr();
+    while (bookingRepository.existsByPnr(pnr)) {
+      pnr = legacyPnr();
+    }
+    roundTrips.count();
+    return pnr;
+  }
+
+  @Benchmark
+  public String allocator(RoundTrips roundTrips) {
+    String pnr = pnrAllocator.next();
+    roundTrips.count();
+    return pnr;
+  }
+
+  private static String legacyPnr() {
+    StringBuilder pnr = new StringBuilder(PnrCodec.LENGTH);
+    for (int i = 0; i < PnrCodec.LENGTH; i++) {
+      pnr.append(PnrCodec.ALPHABET.charAt(RANDOM.nextInt(PnrCodec.ALPHABET.length())));
+    }
+    return pnr.toString();
+  }
+}
@@ -0,0 +1,86 @@
+package com.sharp.booking_service.benchmarks;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sharp.booking_service.component.PnrCodec;
+import com.sharp.booking_service.component.PnrFilter;
+
+/**
+ * Costo de generar un PNR: el {@code generatePNR} original (SecureRandom
+ * compartido, caracter por caracter) contra {@link PnrCodec}, que es lo que usa
+ * hoy PnrAllocator por cada valor de la secuencia, mas la consulta al filtro de
+ * codigos importados.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PnrBenchmark {
+
+  private static final String CHARACTERS = PnrCodec.ALPHABET;
+  private static final SecureRandom RANDOM = new SecureRandom();
+
+  private PnrCodec codec;
+  private PnrFilter filter;
+
+  @State(Scope.Thread)
+  public static class Sequence {
+    long next;
+  }
+
+  @Setup
+  public void setUp() {
+    codec = new PnrCodec(0x5EEDL);
+    filter = new PnrFilter(1_000_000, 0.001);
+    for (int i = 0; i < 100_000; i++) {
+      filter.add(codec.encode(PnrCodec.DOMAIN - 1 - i));
+    }
+  }
+
+  // copia de BookingServiceImpl.generatePNR antes del PnrAllocator
+  @Benchmark
+  public String legacySecureRandom() {
+    StringBuilder pnr = new StringBuilder(PnrCodec.LENGTH);
+    for (int i = 0; i < PnrCodec.LENGTH; i++) {
+      pnr.append(CHARACTERS.charAt(RANDOM.nextInt(CHARACTERS.length())));
+    }
+    return pnr.toString();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public String legacySecureRandomContended() {
+    return legacySecureRandom();
+  }
+
+  @Benchmark
+  public String codecEncode(Sequence sequence) {
+    return codec.encode(sequence.next++ & (PnrCodec.DOMAIN - 1));
+  }
+
+  @Benchmark
+  @Threads(4)
+  public String codecEncodeContended(Sequence sequence) {
+    return codec.encode(sequence.next++ & (PnrCodec.DOMAIN - 1));
+  }
+
+  @Benchmark
+  public boolean encodeAndCheckImported(Sequence sequence) {
+    return filter.mightContain(codec.encode(sequence.next++ & (PnrCodec.DOMAIN - 1)));
+  }
+}
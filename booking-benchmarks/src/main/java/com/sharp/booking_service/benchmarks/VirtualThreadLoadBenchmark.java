@@ -0,0 +1,121 @@
+package com.sharp.booking_service.benchmarks;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+/**
+ * Carga HTTP sobre booking-service levantado en un puerto local, con
+ * {@code spring.threads.virtual.enabled} en false y en true: {@value #CLIENTS}
+ * clientes concurrentes (mas que los 200 hilos de Tomcat) pidiendo
+ * GET /availability/flight/{id}, que lee la fila de asientos con el pool de
+ * Hikari por defecto (10 conexiones).
+ *
+ * Throughput da requests/ms; SampleTime da la distribucion de latencias (p99).
+ * H2 en memoria no espera I/O como MySQL: el resultado compara el modelo de
+ * hilos bajo contencion por conexiones, no latencias de produccion.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(VirtualThreadLoadBenchmark.CLIENTS)
+@State(Scope.Benchmark)
+public class VirtualThreadLoadBenchmark {
+
+  static final int CLIENTS = 256;
+  private static final int FLIGHTS = 20;
+  // security.jwt.secret del perfil dev
+  private static final String JWT_SECRET = "NDI0MjQyNDI0MjQyNDI0MjQyNDI0MjQyNDI0MjQyNDI0MjQyNDI0MjQyNDI0Mg==";
+
+  @Param({"false", "true"})
+  public boolean virtualThreads;
+
+  private ConfigurableApplicationContext context;
+  private HttpClient client;
+  private String baseUrl;
+  private String authorization;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context = BenchmarkContext.start("booking_load_bench",
+        "spring.threads.virtual.enabled=" + virtualThreads);
+    JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+    for (long flight = 1; flight <= FLIGHTS; flight++) {
+      jdbcTemplate.update("INSERT INTO booking_flight_seats (flight_instance_id, capacity, held, confirmed)"
+          + " VALUES (?, 180, 0, 0)", flight);
+    }
+
+    baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+        + "/api/v1/bookings/availability/flight/";
+    authorization = "Bearer " + token();
+    client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    client.close();
+    context.close();
+  }
+
+  @Benchmark
+  public int availability() throws IOException, InterruptedException {
+    long flight = 1 + ThreadLocalRandom.current().nextInt(FLIGHTS);
+    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + flight))
+        .header("Authorization", authorization)
+        .GET()
+        .build();
+    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+    if (response.statusCode() != 200) {
+      throw new IllegalStateException("Unexpected status " + response.statusCode());
+    }
+    return response.statusCode();
+  }
+
+  private static String token() {
+    SecretKeySpec key = new SecretKeySpec(Base64.getDecoder().decode(JWT_SECRET), "HmacSHA256");
+    Instant now = Instant.now();
+    JwtClaimsSet claims = JwtClaimsSet.builder()
+        .subject("load-test")
+        .issuedAt(now)
+        .expiresAt(now.plus(1, ChronoUnit.HOURS))
+        .claim("roles", List.of("USER"))
+        .build();
+    return NimbusJwtEncoder.withSecretKey(key).build()
+        .encode(JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS256).build(), claims))
+        .getTokenValue();
+  }
+}
@@ -0,0 +1,130 @@
+package com.sharp.booking_service.config;
+
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+
+/**
+ * Throughput de un log de request como los de los controllers, con 4 hilos:
+ *
+ * <ul>
+ * <li>{@code formatted}: {@code log.info} con placeholders, como antes.</li>
+ * <li>{@code structured}: {@link RequestLog} con campos, sin muestreo.</li>
+ * <li>{@code structuredSampled}: {@link RequestLog} registrando 1 de cada 50.</li>
+ * </ul>
+ *
+ * contra un appender sincronico o detras de un {@code AsyncAppender} (que aca
+ * bloquea con la cola llena, para medir throughput sostenido y no descartes).
+ * La salida se formatea completa y se tira a un stream nulo: el costo de la
+ * terminal o del disco no entra.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class RequestLogBenchmark {
+
+  private static final String PATTERN = "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p %pid --- [%t] %-40.40logger{39} : %m %kvp%n";
+
+  @Param({"sync", "async"})
+  public String appender;
+
+  private Logger logger;
+  private Appender<ILoggingEvent> attached;
+
+  @Setup
+  public void setUp() {
+    LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+
+    PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+    encoder.setContext(context);
+    encoder.setPattern(PATTERN);
+    encoder.start();
+
+    OutputStreamAppender<ILoggingEvent> output = new OutputStreamAppender<>();
+    output.setContext(context);
+    output.setEncoder(encoder);
+    output.setOutputStream(OutputStream.nullOutputStream());
+    output.start();
+
+    if (appender.equals("async")) {
+      AsyncAppender async = new AsyncAppender();
+      async.setContext(context);
+      async.setQueueSize(8192);
+      async.setDiscardingThreshold(0);
+      async.setNeverBlock(false);
+      async.addAppender(output);
+      async.start();
+      attached = async;
+    } else {
+      attached = output;
+    }
+
+    logger = context.getLogger("com.sharp.booking_service.controllers.BookingController");
+    logger.detachAndStopAllAppenders();
+    logger.setAdditive(false);
+    logger.setLevel(Level.INFO);
+    logger.addAppender(attached);
+
+    RequestLog.configure(1, Map.of("bench.sampled", 50));
+  }
+
+  @TearDown
+  public void tearDown() {
+    logger.detachAndStopAllAppenders();
+  }
+
+  @State(Scope.Thread)
+  public static class Request {
+    long id;
+    String pnr = "K7M3QX";
+  }
+
+  @Benchmark
+  public void formatted(Request request) {
+    logger.info("GET /api/v1/bookings/{} - Fetching booking by PNR {}", ++request.id, request.pnr);
+  }
+
+  @Benchmark
+  public void structured(Request request) {
+    RequestLog.info(logger, "bench.structured")
+        .addKeyValue("id", ++request.id)
+        .addKeyValue("pnr", request.pnr)
+        .log("GET /api/v1/bookings/{id} - Fetching booking by PNR");
+  }
+
+  @Benchmark
+  public void structuredSampled(Request request) {
+    RequestLog.info(logger, "bench.sampled")
+        .addKeyValue("id", ++request.id)
+        .addKeyValue("pnr", request.pnr)
+        .log("GET /api/v1/bookings/{id} - Fetching booking by PNR");
+  }
+}
@@ -0,0 +1,64 @@
+package com.sharp.booking_service.controllers;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sharp.booking_service.benchmarks.BookingFixtures;
+import com.sharp.booking_service.dto.BookingResponseDto;
+import com.sharp.booking_service.models.Booking;
+import com.sharp.booking_service.service.impl.BookingServiceImpl;
+
+/**
+ * {@link BookingController#toResponseDto} para 1, 10 y 100 pasajeros, y una
+ * pagina completa (200 bookings) con {@code toResponseDtos}.
+ *
+ * Esta en el paquete del controller porque el mapeo es package-private.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingMappingBenchmark {
+
+  private static final int PAGE_SIZE = 200;
+
+  @Param({"1", "10", "100"})
+  public int passengers;
+
+  private BookingController controller;
+  private Booking booking;
+  private List<Booking> page;
+
+  @Setup
+  public void setUp() {
+    // el mapeo solo usa createPassengerDto, que no toca ninguna dependencia del servicio
+    BookingServiceImpl bookingService = new BookingServiceImpl(null, null, null, null, null, null, null, null);
+    controller = new BookingController(bookingService, null, null, null);
+    booking = BookingFixtures.booking(1, passengers);
+    page = BookingFixtures.bookings(PAGE_SIZE, passengers);
+  }
+
+  @Benchmark
+  public BookingResponseDto toResponseDto() {
+    return controller.toResponseDto(booking);
+  }
+
+  @Benchmark
+  public List<BookingResponseDto> toResponseDtosPage() {
+    return controller.toResponseDtos(page);
+  }
+}
@@ -0,0 +1,61 @@
+package com.sharp.booking_service.client;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.sharp.booking_service.dto.ApiResponse;
+import com.sharp.booking_service.dto.FlightDto;
+import com.sharp.booking_service.dto.FlightInstanceDto;
+
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * {@link FlightClient} con cache de lectura delante. Los datos de vuelos cambian
+ * muy poco comparado con lo que se leen, asi que la mayoria de las validaciones
+ * del flujo de booking no llegan a flight-service. Un 404 se cachea como
+ * Optional.empty durante un TTL corto. flight-service no avisa cambios: uno
+ * nuevo (capacidad, horario) se ve cuando vence el TTL.
+ */
+@Component
+public class CachingFlightClient {
+
+  private final FlightClient flightClient;
+  private final ReadThroughCache<Long, FlightDto> flights;
+  private final ReadThroughCache<Long, FlightInstanceDto> flightInstances;
+
+  public CachingFlightClient(FlightClient flightClient,
+      MeterRegistry meterRegistry,
+      @Value("${booking.flight-cache.max-entries:10000}") int maxEntries,
+      @Value("${booking.flight-cache.ttl-seconds:300}") long ttlSeconds,
+      @Value("${booking.flight-cache.negative-ttl-seconds:30}") long negativeTtlSeconds) {
+    this.flightClient = flightClient;
+    Duration ttl = Duration.ofSeconds(ttlSeconds);
+    Duration negativeTtl = Duration.ofSeconds(negativeTtlSeconds);
+    this.flights = new ReadThroughCache<>("flight", maxEntries, ttl, negativeTtl, meterRegistry);
+    this.flightInstances = new ReadThroughCache<>("flight-instance", maxEntries, ttl, negativeTtl, meterRegistry);
+  }
+
+  public Optional<FlightDto> getFlight(Long id) {
+    return flights.get(id, key -> notFoundAsEmpty(() -> {
+      ApiResponse<FlightDto> response = flightClient.getFlight(key);
+      return response == null ? null : response.getData();
+    }));
+  }
+
+  public Optional<FlightInstanceDto> getFlightInstance(Long id) {
+    return flightInstances.get(id, key -> notFoundAsEmpty(() -> flightClient.getFlightInstance(key)));
+  }
+
+  private static <T> Optional<T> notFoundAsEmpty(Supplier<T> call) {
+    try {
+      return Optional.ofNullable(call.get());
+    } catch (FeignException.NotFound e) {
+      return Optional.empty();
+    }
+  }
+}
@@ -2,6 +2,7 @@ package com.sharp.booking_service.client;
 
 import com.sharp.booking_service.dto.ApiResponse;
 import com.sharp.booking_service.dto.FlightDto;
+import com.sharp.booking_service.dto.FlightInstanceDto;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -11,4 +12,7 @@ public interface FlightClient {
 
   @GetMapping("/api/flights/{id}")
   ApiResponse<FlightDto> getFlight(@PathVariable("id") Long id);
+
+  @GetMapping("/api/v1/flight-instances/{id}")
+  FlightInstanceDto getFlightInstance(@PathVariable("id") Long id);
 }
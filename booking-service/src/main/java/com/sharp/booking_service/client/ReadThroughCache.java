@@ -0,0 +1,54 @@
+package com.sharp.booking_service.client;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import com.sharp.booking_service.component.CoalescingCache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+
+/**
+ * Cache local de lectura: LRU acotada por tamaño, con TTL y cache negativa
+ * (Optional.empty con TTL propio, mas corto). Los misses concurrentes de la
+ * misma key esperan a una sola carga.
+ */
+final class ReadThroughCache<K, V> {
+
+  private final CoalescingCache<K, Optional<V>> cache;
+  private final Counter hits;
+  private final Counter negativeHits;
+  private final Counter misses;
+  private final Counter coalesced;
+
+  ReadThroughCache(String name, int maxEntries, Duration ttl, Duration negativeTtl, MeterRegistry meterRegistry) {
+    this.cache = new CoalescingCache<>(maxEntries, value -> value.isPresent() ? ttl : negativeTtl);
+    this.hits = counter(meterRegistry, name, "hit");
+    this.negativeHits = counter(meterRegistry, name, "negative_hit");
+    this.misses = counter(meterRegistry, name, "miss");
+    this.coalesced = counter(meterRegistry, name, "coalesced");
+    meterRegistry.gauge("booking.flight.cache.size", List.of(Tag.of("cache", name)), cache, CoalescingCache::size);
+  }
+
+  // los errores (timeouts, 5xx) no se cachean; los que esperaban reciben el mismo error
+  Optional<V> get(K key, Function<K, Optional<V>> loader) {
+    CoalescingCache.Hit<Optional<V>> hit = cache.get(key, loader);
+    switch (hit.source()) {
+      case CACHED -> (hit.value().isPresent() ? hits : negativeHits).increment();
+      case COALESCED -> coalesced.increment();
+      case LOADED -> misses.increment();
+    }
+    return hit.value();
+  }
+
+  private static Counter counter(MeterRegistry meterRegistry, String name, String result) {
+    return Counter.builder("booking.flight.cache.requests")
+        .description("Lookups served by the flight-service read-through cache")
+        .tag("cache", name)
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+}
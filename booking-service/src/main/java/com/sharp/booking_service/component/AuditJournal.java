@@ -0,0 +1,264 @@
+package com.sharp.booking_service.component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.sharp.booking_service.models.BookingEventType;
+import com.sharp.booking_service.models.BookingStatus;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Journal de auditoria append-only de los cambios de booking (quien, estado
+ * anterior, estado nuevo).
+ *
+ * {@link #record} solo arma el registro y, al commit, lo deja en un
+ * {@link AuditRingBuffer}: nada de I/O en el request. Un unico hilo escritor
+ * lo vacia sobre segmentos de tamaño fijo mapeados en memoria
+ * ({@code audit-<primera secuencia>.journal}, formato en {@link AuditRecord}) y
+ * hace {@code force()} cada {@code flush-ms} y al rotar.
+ *
+ * Si el ring se llena el registro se descarta y se cuenta en
+ * {@code booking.audit.dropped}; el request nunca espera al disco. Para leerlo:
+ * {@link AuditJournalReader}.
+ */
+@Slf4j
+@Component
+public class AuditJournal {
+
+  static final String SEGMENT_PREFIX = "audit-";
+  static final String SEGMENT_SUFFIX = ".journal";
+
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final boolean enabled;
+  private final Path directory;
+  private final int segmentBytes;
+  private final long flushNanos;
+  private final AuditRingBuffer<AuditRecord> ring;
+  private final Counter written;
+  private final Counter dropped;
+  private final Counter failures;
+
+  private volatile boolean running;
+  private Thread writer;
+
+  // solo los toca el hilo escritor (y start/stop antes y despues de el)
+  private FileChannel channel;
+  private MappedByteBuffer segment;
+  private long nextSequence = 1;
+
+  public AuditJournal(MeterRegistry meterRegistry,
+      @Value("${booking.audit.enabled:true}") boolean enabled,
+      @Value("${booking.audit.dir:audit}") String directory,
+      @Value("${booking.audit.segment-mb:64}") int segmentMb,
+      @Value("${booking.audit.ring-capacity:65536}") int ringCapacity,
+      @Value("${booking.audit.flush-ms:1000}") long flushMs) {
+    this.enabled = enabled;
+    this.directory = Path.of(directory);
+    this.segmentBytes = segmentMb * 1024 * 1024;
+    this.flushNanos = TimeUnit.MILLISECONDS.toNanos(flushMs);
+    this.ring = new AuditRingBuffer<>(ringCapacity);
+    this.written = Counter.builder("booking.audit.written").register(meterRegistry);
+    this.dropped = Counter.builder("booking.audit.dropped")
+        .description("Audit records lost because the ring buffer was full")
+        .register(meterRegistry);
+    this.failures = Counter.builder("booking.audit.failures").register(meterRegistry);
+    meterRegistry.gauge("booking.audit.backlog", ring, AuditRingBuffer::size);
+  }
+
+  /**
+   * Registra un cambio; se encola solo si la transaccion actual hace commit.
+   */
+  public void record(BookingEventType type, Long bookingId, String pnr, BookingStatus oldStatus,
+      BookingStatus newStatus) {
+    if (!enabled) {
+      return;
+    }
+    AuditRecord record = new AuditRecord(0, Instant.now(), type, bookingId, pnr, oldStatus, newStatus, currentActor());
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      enqueue(record);
+      return;
+    }
+    pendingForTransaction().add(record);
+  }
+
+  @PostConstruct
+  void start() throws IOException {
+    if (!enabled) {
+      return;
+    }
+    Files.createDirectories(directory);
+    openLastSegment();
+    running = true;
+    writer = Thread.ofPlatform().name("audit-journal-writer").daemon().start(this::run);
+    log.info("Audit journal writing to {} from sequence {}", directory.toAbsolutePath(), nextSequence);
+  }
+
+  @PreDestroy
+  void stop() throws InterruptedException {
+    if (writer == null) {
+      return;
+    }
+    running = false;
+    writer.join(TimeUnit.SECONDS.toMillis(10));
+  }
+
+  private void run() {
+    long lastForce = System.nanoTime();
+    boolean dirty = false;
+    while (running || ring.size() > 0) {
+      AuditRecord record = ring.poll();
+      if (record != null) {
+        try {
+          append(record);
+          written.increment();
+          dirty = true;
+        } catch (IOException | RuntimeException e) {
+          failures.increment();
+          log.error("Could not write audit record for booking {}: {}", record.bookingId(), e.getMessage());
+        }
+      }
+      if (dirty && System.nanoTime() - lastForce >= flushNanos) {
+        segment.force();
+        dirty = false;
+        lastForce = System.nanoTime();
+      }
+      if (record == null) {
+        LockSupport.parkNanos(IDLE_PARK_NANOS);
+      }
+    }
+    closeSegment();
+  }
+
+  private void append(AuditRecord record) throws IOException {
+    AuditRecord sequenced = record.withSequence(nextSequence);
+    // deja siempre sitio para el largo 0 que marca el fin de los datos
+    if (segment.remaining() < sequenced.encodedLength() + Integer.BYTES) {
+      closeSegment();
+      openSegment(nextSequence);
+    }
+    sequenced.encode(segment);
+    nextSequence++;
+  }
+
+  private void openLastSegment() throws IOException {
+    List<Path> segments = segments(directory);
+    if (segments.isEmpty()) {
+      openSegment(1);
+      return;
+    }
+
+    Path last = segments.get(segments.size() - 1);
+    channel = FileChannel.open(last, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), segmentBytes));
+
+    // recupera la posicion de escritura: hasta el primer registro vacio o cortado
+    nextSequence = firstSequence(last);
+    int position = 0;
+    AuditRecord record;
+    while ((record = AuditRecord.decode(segment, position)) != null) {
+      nextSequence = record.sequence() + 1;
+      position += segment.getInt(position);
+    }
+    for (int i = position; i < Math.min(segment.limit(), position + AuditRecord.MAX_BYTES); i++) {
+      segment.put(i, (byte) 0);
+    }
+    segment.position(position);
+  }
+
+  private void openSegment(long firstSequence) throws IOException {
+    Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+    channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+    log.info("Opened audit segment {}", path.getFileName());
+  }
+
+  private void closeSegment() {
+    if (segment == null) {
+      return;
+    }
+    segment.force();
+    try {
+      channel.close();
+    } catch (IOException e) {
+      log.warn("Could not close audit segment: {}", e.getMessage());
+    }
+  }
+
+  private void enqueue(AuditRecord record) {
+    if (!ring.offer(record)) {
+      dropped.increment();
+    }
+  }
+
+  // un solo callback por transaccion aunque se registren muchos cambios (bulk, expiracion por lotes)
+  @SuppressWarnings("unchecked")
+  private List<AuditRecord> pendingForTransaction() {
+    List<AuditRecord> pending = (List<AuditRecord>) TransactionSynchronizationManager.getResource(this);
+    if (pending != null) {
+      return pending;
+    }
+    List<AuditRecord> records = new ArrayList<>();
+    TransactionSynchronizationManager.bindResource(this, records);
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        records.forEach(AuditJournal.this::enqueue);
+      }
+
+      @Override
+      public void afterCompletion(int status) {
+        TransactionSynchronizationManager.unbindResourceIfPossible(AuditJournal.this);
+      }
+    });
+    return records;
+  }
+
+  private static String currentActor() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication == null || !authentication.isAuthenticated()) {
+      return "system";
+    }
+    return authentication.getName();
+  }
+
+  static List<Path> segments(Path directory) throws IOException {
+    if (!Files.isDirectory(directory)) {
+      return List.of();
+    }
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX))
+          .filter(p -> p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+          .sorted()
+          .toList();
+    }
+  }
+
+  static long firstSequence(Path segment) {
+    String name = segment.getFileName().toString();
+    return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+  }
+}
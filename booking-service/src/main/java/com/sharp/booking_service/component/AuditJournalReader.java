@@ -0,0 +1,86 @@
+package com.sharp.booking_service.component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Lee los segmentos del {@link AuditJournal} en orden y los imprime, una linea
+ * por registro. Se puede usar con la app corriendo: se detiene en el primer
+ * registro incompleto del segmento activo.
+ *
+ * <pre>
+ * AuditJournalReader &lt;dir&gt; [--pnr PNR] [--booking ID] [--from-seq N]
+ * </pre>
+ */
+public final class AuditJournalReader {
+
+  private AuditJournalReader() {
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length == 0 || args.length % 2 == 0) {
+      System.err.println("usage: AuditJournalReader <dir> [--pnr PNR] [--booking ID] [--from-seq N]");
+      System.exit(2);
+    }
+
+    Predicate<AuditRecord> filter = r -> true;
+    for (int i = 1; i < args.length; i += 2) {
+      String value = args[i + 1];
+      switch (args[i]) {
+        case "--pnr" -> filter = filter.and(r -> value.equalsIgnoreCase(r.pnr()));
+        case "--booking" -> {
+          Long bookingId = Long.valueOf(value);
+          filter = filter.and(r -> bookingId.equals(r.bookingId()));
+        }
+        case "--from-seq" -> {
+          long from = Long.parseLong(value);
+          filter = filter.and(r -> r.sequence() >= from);
+        }
+        default -> {
+          System.err.println("unknown option " + args[i]);
+          System.exit(2);
+        }
+      }
+    }
+
+    long matched = read(Path.of(args[0]), filter, r -> System.out.println(format(r)));
+    System.err.println(matched + " records");
+  }
+
+  /**
+   * Recorre todos los segmentos de {@code directory}; devuelve cuantos registros
+   * pasaron el filtro.
+   */
+  public static long read(Path directory, Predicate<AuditRecord> filter, Consumer<AuditRecord> consumer)
+      throws IOException {
+    List<Path> segments = AuditJournal.segments(directory);
+    long matched = 0;
+    for (Path segment : segments) {
+      try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        int position = 0;
+        AuditRecord record;
+        while ((record = AuditRecord.decode(buffer, position)) != null) {
+          if (filter.test(record)) {
+            consumer.accept(record);
+            matched++;
+          }
+          position += buffer.getInt(position);
+        }
+      }
+    }
+    return matched;
+  }
+
+  static String format(AuditRecord record) {
+    return String.format("%d %s %-9s booking=%s pnr=%s %s -> %s actor=%s",
+        record.sequence(), record.at(), record.type(), record.bookingId(), record.pnr(),
+        record.oldStatus(), record.newStatus(), record.actor());
+  }
+}
@@ -0,0 +1,124 @@
+package com.sharp.booking_service.component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+import com.sharp.booking_service.models.BookingEventType;
+import com.sharp.booking_service.models.BookingStatus;
+
+/**
+ * Registro del journal de auditoria y su formato binario.
+ *
+ * <pre>
+ * int   largo total del registro (0 = fin de los datos del segmento)
+ * int   CRC32C de todo lo que sigue
+ * long  secuencia
+ * long  epoch millis
+ * long  bookingId (-1 si no hay)
+ * byte  tipo, estado anterior, estado nuevo (ordinal; -1 = ninguno)
+ * byte  largo del PNR + PNR en ASCII
+ * short largo del actor + actor en UTF-8
+ * </pre>
+ *
+ * Los ordinales se guardan en disco: no reordenar {@link BookingEventType} ni
+ * {@link BookingStatus}, solo agregar al final.
+ */
+public record AuditRecord(long sequence, Instant at, BookingEventType type, Long bookingId, String pnr,
+    BookingStatus oldStatus, BookingStatus newStatus, String actor) {
+
+  static final int HEADER_BYTES = 8;
+  static final int MIN_BYTES = HEADER_BYTES + 8 + 8 + 8 + 3 + 1 + 2;
+  static final int MAX_ACTOR_BYTES = 255;
+  static final int MAX_BYTES = MIN_BYTES + 255 + MAX_ACTOR_BYTES;
+
+  /**
+   * Codifica en {@code buffer} desde su posicion actual y la deja al final del registro.
+   */
+  void encode(ByteBuffer buffer) {
+    byte[] pnrBytes = pnr == null ? new byte[0] : pnr.getBytes(StandardCharsets.US_ASCII);
+    byte[] actorBytes = actorBytes(actor);
+    int length = MIN_BYTES + pnrBytes.length + actorBytes.length;
+
+    int start = buffer.position();
+    buffer.putInt(length);
+    buffer.putInt(0);
+    buffer.putLong(sequence);
+    buffer.putLong(at.toEpochMilli());
+    buffer.putLong(bookingId == null ? -1 : bookingId);
+    buffer.put((byte) type.ordinal());
+    buffer.put(ordinal(oldStatus));
+    buffer.put(ordinal(newStatus));
+    buffer.put((byte) pnrBytes.length);
+    buffer.put(pnrBytes);
+    buffer.putShort((short) actorBytes.length);
+    buffer.put(actorBytes);
+
+    buffer.putInt(start + 4, crc(buffer, start + HEADER_BYTES, start + length));
+  }
+
+  /**
+   * Decodifica el registro en {@code position}; null si ahi no hay un registro
+   * completo y valido (fin de datos o escritura cortada).
+   */
+  static AuditRecord decode(ByteBuffer buffer, int position) {
+    if (buffer.limit() - position < HEADER_BYTES) {
+      return null;
+    }
+    int length = buffer.getInt(position);
+    if (length < MIN_BYTES || length > MAX_BYTES || position + length > buffer.limit()) {
+      return null;
+    }
+    if (buffer.getInt(position + 4) != crc(buffer, position + HEADER_BYTES, position + length)) {
+      return null;
+    }
+
+    ByteBuffer in = buffer.duplicate().limit(position + length).position(position + HEADER_BYTES);
+    long sequence = in.getLong();
+    Instant at = Instant.ofEpochMilli(in.getLong());
+    long bookingId = in.getLong();
+    BookingEventType type = BookingEventType.values()[in.get()];
+    BookingStatus oldStatus = status(in.get());
+    BookingStatus newStatus = status(in.get());
+    byte[] pnrBytes = new byte[in.get()];
+    in.get(pnrBytes);
+    byte[] actorBytes = new byte[in.getShort()];
+    in.get(actorBytes);
+
+    return new AuditRecord(sequence, at, type, bookingId < 0 ? null : bookingId,
+        pnrBytes.length == 0 ? null : new String(pnrBytes, StandardCharsets.US_ASCII),
+        oldStatus, newStatus, new String(actorBytes, StandardCharsets.UTF_8));
+  }
+
+  int encodedLength() {
+    return MIN_BYTES + (pnr == null ? 0 : pnr.length()) + actorBytes(actor).length;
+  }
+
+  AuditRecord withSequence(long sequence) {
+    return new AuditRecord(sequence, at, type, bookingId, pnr, oldStatus, newStatus, actor);
+  }
+
+  private static byte[] actorBytes(String actor) {
+    byte[] bytes = (actor == null ? "" : actor).getBytes(StandardCharsets.UTF_8);
+    if (bytes.length <= MAX_ACTOR_BYTES) {
+      return bytes;
+    }
+    return Arrays.copyOf(bytes, MAX_ACTOR_BYTES);
+  }
+
+  private static byte ordinal(BookingStatus status) {
+    return status == null ? -1 : (byte) status.ordinal();
+  }
+
+  private static BookingStatus status(byte ordinal) {
+    return ordinal < 0 ? null : BookingStatus.values()[ordinal];
+  }
+
+  private static int crc(ByteBuffer buffer, int from, int to) {
+    CRC32C crc = new CRC32C();
+    crc.update(buffer.duplicate().limit(to).position(from));
+    return (int) crc.getValue();
+  }
+}
@@ -0,0 +1,56 @@
+package com.sharp.booking_service.component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Ring buffer acotado de muchos productores y un solo consumidor.
+ *
+ * Los productores reservan un slot con CAS sobre {@code tail} y publican el
+ * elemento con una escritura ordenada; nunca bloquean: si esta lleno,
+ * {@link #offer} devuelve false. Solo el hilo escritor llama a {@link #poll}.
+ */
+final class AuditRingBuffer<E> {
+
+  private final AtomicReferenceArray<E> slots;
+  private final int mask;
+  private final AtomicLong tail = new AtomicLong();
+  private final AtomicLong head = new AtomicLong();
+
+  AuditRingBuffer(int capacity) {
+    if (Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Ring buffer capacity must be a power of two: " + capacity);
+    }
+    this.slots = new AtomicReferenceArray<>(capacity);
+    this.mask = capacity - 1;
+  }
+
+  boolean offer(E element) {
+    long t;
+    do {
+      t = tail.get();
+      if (t - head.get() >= slots.length()) {
+        return false;
+      }
+    } while (!tail.compareAndSet(t, t + 1));
+    slots.lazySet((int) (t & mask), element);
+    return true;
+  }
+
+  // null si esta vacio o si el productor del siguiente slot todavia no lo publico
+  E poll() {
+    long h = head.get();
+    int index = (int) (h & mask);
+    E element = slots.get(index);
+    if (element == null) {
+      return null;
+    }
+    slots.lazySet(index, null);
+    head.lazySet(h + 1);
+    return element;
+  }
+
+  long size() {
+    return Math.max(0, tail.get() - head.get());
+  }
+}
@@ -0,0 +1,298 @@
+package com.sharp.booking_service.component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sharp.booking_service.client.CachingFlightClient;
+import com.sharp.booking_service.dto.FlightInstanceDto;
+import com.sharp.booking_service.models.BookingStatus;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Agregados por vuelo para revenue management, mantenidos por deltas.
+ *
+ * {@link BookingProjector} pasa, para cada booking que reproyecta, como estaba
+ * en {@code booking_summary} y como queda. Con eso se suma/resta en
+ * {@code booking_flight_hourly} (vuelo, hora de creacion, estado actual) y en
+ * {@code booking_flight_load} (totales por vuelo), dentro de la misma
+ * transaccion que la vista: si la proyeccion se reintenta, los deltas tambien.
+ * Nunca se recalcula con GROUP BY sobre booking, salvo {@link #rebuild()} que
+ * es explicito. Deltas y rebuild cuentan cada booking en la hora en que se
+ * creo; un cambio de estado lo mueve dentro de esa hora.
+ *
+ * La fila de {@code booking_flight_load} de cada vuelo es su lock: se escribe
+ * antes que sus filas por hora y los vuelos van en orden de id, asi que dos
+ * lotes que comparten vuelos no se bloquean en cruz y los que no comparten no
+ * se esperan.
+ */
+@Slf4j
+@Component
+public class BookingAnalytics {
+
+  private static final String UPSERT_HOURLY = "INSERT INTO booking_flight_hourly"
+      + " (flight_instance_id, bucket_start, status, bookings, seats) VALUES (?, ?, ?, ?, ?)"
+      + " ON DUPLICATE KEY UPDATE bookings = bookings + VALUES(bookings), seats = seats + VALUES(seats)";
+  private static final String UPSERT_LOAD = "INSERT INTO booking_flight_load"
+      + " (flight_instance_id, held_bookings, confirmed_bookings, cancelled_bookings, expired_bookings,"
+      + " held_seats, confirmed_seats, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)"
+      + " ON DUPLICATE KEY UPDATE held_bookings = held_bookings + VALUES(held_bookings),"
+      + " confirmed_bookings = confirmed_bookings + VALUES(confirmed_bookings),"
+      + " cancelled_bookings = cancelled_bookings + VALUES(cancelled_bookings),"
+      + " expired_bookings = expired_bookings + VALUES(expired_bookings),"
+      + " held_seats = held_seats + VALUES(held_seats),"
+      + " confirmed_seats = confirmed_seats + VALUES(confirmed_seats),"
+      + " updated_at = VALUES(updated_at)";
+  private static final String UPDATE_LOAD_FACTOR = "UPDATE booking_flight_load"
+      + " SET load_factor = confirmed_seats * 1.0 / capacity WHERE flight_instance_id = ? AND capacity > 0";
+  private static final String SET_CAPACITY = "UPDATE booking_flight_load"
+      + " SET capacity = ?, load_factor = confirmed_seats * 1.0 / ? WHERE flight_instance_id = ?";
+  private static final String RESET_LOAD = "UPDATE booking_flight_load SET held_bookings = 0,"
+      + " confirmed_bookings = 0, cancelled_bookings = 0, expired_bookings = 0, held_seats = 0, confirmed_seats = 0"
+      + " WHERE flight_instance_id = ?";
+  private static final String FLIGHT_ROWS = "SELECT status, passenger_count, created_at FROM booking_summary"
+      + " WHERE flight_instance_id = ?";
+  private static final String FLIGHTS = "SELECT flight_instance_id FROM booking_summary"
+      + " UNION SELECT flight_instance_id FROM booking_flight_load";
+  private static final String MISSING_CAPACITY = "SELECT flight_instance_id FROM booking_flight_load"
+      + " WHERE capacity IS NULL AND flight_instance_id IN (:ids)";
+
+  private static final Comparator<HourKey> HOUR_ORDER = Comparator.comparing(HourKey::flightInstanceId)
+      .thenComparing(HourKey::bucketStart)
+      .thenComparing(HourKey::status);
+
+  private final JdbcTemplate jdbcTemplate;
+  private final NamedParameterJdbcTemplate namedJdbcTemplate;
+  private final CachingFlightClient flightClient;
+  private final TransactionTemplate transactionTemplate;
+
+  public BookingAnalytics(JdbcTemplate jdbcTemplate,
+      NamedParameterJdbcTemplate namedJdbcTemplate,
+      CachingFlightClient flightClient,
+      PlatformTransactionManager transactionManager) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.namedJdbcTemplate = namedJdbcTemplate;
+    this.flightClient = flightClient;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    // el lock del vuelo se toma antes de leer booking_summary: hay que ver lo commiteado hasta ese momento
+    this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+  }
+
+  /**
+   * Estado de un booking que cuenta para los agregados. {@code null} como
+   * "antes" es un booking nuevo; como "despues", uno borrado.
+   */
+  public record Snapshot(Long flightInstanceId, BookingStatus status, int seats) {
+  }
+
+  public record Change(Snapshot before, Snapshot after, LocalDateTime createdAt) {
+  }
+
+  /**
+   * Aplica los cambios en la transaccion actual (la de la proyeccion).
+   */
+  public void record(List<Change> changes) {
+    Deltas deltas = new Deltas();
+    changes.forEach(deltas::add);
+    deltas.removeZeros();
+    if (deltas.isEmpty()) {
+      return;
+    }
+    write(deltas);
+    Set<Long> flights = Set.copyOf(deltas.load.keySet());
+    afterCommit(() -> fillCapacity(flights));
+  }
+
+  /**
+   * Recalcula todo desde {@code booking_summary}, un vuelo por transaccion. Es
+   * la unica operacion que recorre las reservas; pensada para la carga inicial
+   * o para fuera de pico. Se puede correr con la proyeccion activa: mientras se
+   * recalcula un vuelo, sus deltas esperan y despues se suman encima.
+   */
+  public long rebuild() {
+    log.info("Rebuilding booking analytics from booking_summary");
+    Set<Long> flights = new TreeSet<>(jdbcTemplate.queryForList(FLIGHTS, Long.class));
+    long total = 0;
+    for (Long flightInstanceId : flights) {
+      total += transactionTemplate.execute(status -> rebuild(flightInstanceId));
+    }
+    fillCapacity(flights);
+    log.info("Rebuilt booking analytics: {} bookings over {} flights", total, flights.size());
+    return total;
+  }
+
+  private long rebuild(Long flightInstanceId) {
+    // toma (o crea) la fila del vuelo, con eso el lock, antes de leer los resumenes
+    jdbcTemplate.update(UPSERT_LOAD, flightInstanceId, 0, 0, 0, 0, 0, 0, Timestamp.valueOf(LocalDateTime.now()));
+    jdbcTemplate.update(RESET_LOAD, flightInstanceId);
+    jdbcTemplate.update("DELETE FROM booking_flight_hourly WHERE flight_instance_id = ?", flightInstanceId);
+
+    Deltas deltas = new Deltas();
+    jdbcTemplate.query(FLIGHT_ROWS, rs -> {
+      deltas.add(new Change(null,
+          new Snapshot(flightInstanceId, BookingStatus.valueOf(rs.getString(1)), rs.getInt(2)),
+          rs.getTimestamp(3).toLocalDateTime()));
+    }, flightInstanceId);
+    deltas.removeZeros();
+    if (deltas.isEmpty()) {
+      jdbcTemplate.update("DELETE FROM booking_flight_load WHERE flight_instance_id = ?", flightInstanceId);
+      return 0;
+    }
+    write(deltas);
+    return deltas.load.get(flightInstanceId).bookings();
+  }
+
+  private void write(Deltas deltas) {
+    LocalDateTime now = LocalDateTime.now();
+
+    List<Object[]> hourly = new ArrayList<>(deltas.hourly.size());
+    deltas.hourly.forEach((key, delta) -> hourly.add(new Object[] {
+        key.flightInstanceId(), Timestamp.valueOf(key.bucketStart()), key.status().name(), delta[0], delta[1]}));
+
+    List<Object[]> load = new ArrayList<>(deltas.load.size());
+    List<Object[]> flights = new ArrayList<>(deltas.load.size());
+    deltas.load.forEach((flightInstanceId, delta) -> {
+      load.add(new Object[] {flightInstanceId, delta.heldBookings, delta.confirmedBookings, delta.cancelledBookings,
+          delta.expiredBookings, delta.heldSeats, delta.confirmedSeats, Timestamp.valueOf(now)});
+      flights.add(new Object[] {flightInstanceId});
+    });
+    // primero las filas por vuelo (los locks, en orden de id), despues las horas de esos vuelos
+    jdbcTemplate.batchUpdate(UPSERT_LOAD, load);
+    jdbcTemplate.batchUpdate(UPSERT_HOURLY, hourly);
+    jdbcTemplate.batchUpdate(UPDATE_LOAD_FACTOR, flights);
+  }
+
+  // la capacidad viene de flight-service; fuera de la transaccion y con su cache
+  private void fillCapacity(Set<Long> flights) {
+    if (flights.isEmpty()) {
+      return;
+    }
+    List<Long> missing = namedJdbcTemplate.queryForList(MISSING_CAPACITY, Map.of("ids", flights), Long.class);
+    for (Long flightInstanceId : missing) {
+      try {
+        flightClient.getFlightInstance(flightInstanceId)
+            .map(FlightInstanceDto::getCapacity)
+            .filter(capacity -> capacity > 0)
+            .ifPresent(capacity -> jdbcTemplate.update(SET_CAPACITY, capacity, capacity, flightInstanceId));
+      } catch (RuntimeException e) {
+        // se reintenta con el proximo cambio del vuelo
+        log.warn("Could not load capacity for flight instance {}: {}", flightInstanceId, e.getMessage());
+      }
+    }
+  }
+
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+
+  private record HourKey(Long flightInstanceId, LocalDateTime bucketStart, BookingStatus status) {
+  }
+
+  /**
+   * Deltas acumulados de un lote, ordenados para que dos lotes concurrentes
+   * tomen los locks de fila en el mismo orden.
+   */
+  private static final class Deltas {
+
+    // [bookings, seats]
+    private final Map<HourKey, long[]> hourly = new TreeMap<>(HOUR_ORDER);
+    private final Map<Long, Load> load = new TreeMap<>();
+
+    void add(Change change) {
+      if (Objects.equals(change.before(), change.after())) {
+        return;
+      }
+      LocalDateTime bucket = change.createdAt().truncatedTo(ChronoUnit.HOURS);
+      if (change.before() != null) {
+        add(change.before(), bucket, -1);
+      }
+      if (change.after() != null) {
+        add(change.after(), bucket, 1);
+      }
+    }
+
+    private void add(Snapshot snapshot, LocalDateTime bucket, int sign) {
+      long[] hour = hourly.computeIfAbsent(new HourKey(snapshot.flightInstanceId(), bucket, snapshot.status()),
+          k -> new long[2]);
+      hour[0] += sign;
+      hour[1] += (long) sign * snapshot.seats();
+
+      load.computeIfAbsent(snapshot.flightInstanceId(), k -> new Load())
+          .add(snapshot.status(), sign, (long) sign * snapshot.seats());
+    }
+
+    // un booking que va y vuelve dentro del lote no deja nada que escribir
+    void removeZeros() {
+      hourly.values().removeIf(delta -> delta[0] == 0 && delta[1] == 0);
+      load.values().removeIf(Load::isZero);
+      // las horas de un vuelo se escriben con su fila tomada, aunque los totales no cambien
+      hourly.keySet().forEach(key -> load.computeIfAbsent(key.flightInstanceId(), k -> new Load()));
+    }
+
+    boolean isEmpty() {
+      return hourly.isEmpty() && load.isEmpty();
+    }
+  }
+
+  // una columna de booking_flight_load por campo
+  private static final class Load {
+
+    private long heldBookings;
+    private long confirmedBookings;
+    private long cancelledBookings;
+    private long expiredBookings;
+    private long heldSeats;
+    private long confirmedSeats;
+
+    void add(BookingStatus status, long bookings, long seats) {
+      switch (status) {
+        case HELD -> {
+          heldBookings += bookings;
+          heldSeats += seats;
+        }
+        case CONFIRMED -> {
+          confirmedBookings += bookings;
+          confirmedSeats += seats;
+        }
+        case CANCELLED -> cancelledBookings += bookings;
+        case EXPIRED -> expiredBookings += bookings;
+      }
+    }
+
+    long bookings() {
+      return heldBookings + confirmedBookings + cancelledBookings + expiredBookings;
+    }
+
+    boolean isZero() {
+      return heldBookings == 0 && confirmedBookings == 0 && cancelledBookings == 0 && expiredBookings == 0
+          && heldSeats == 0 && confirmedSeats == 0;
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package com.sharp.booking_service.component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Token de continuacion opaco para la paginacion por keyset sobre bookingId.
+ */
+public final class BookingCursor {
+
+  private static final String PREFIX = "b:";
+
+  private BookingCursor() {
+  }
+
+  public static String encode(Long lastBookingId) {
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString((PREFIX + lastBookingId).getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * bookingId a partir del cual seguir, o 0 si no hay cursor.
+   */
+  public static long decode(String cursor) {
+    if (cursor == null || cursor.isBlank()) {
+      return 0L;
+    }
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      if (!raw.startsWith(PREFIX)) {
+        throw new IllegalArgumentException("Invalid cursor");
+      }
+      return Long.parseLong(raw.substring(PREFIX.length()));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid cursor: " + cursor);
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package com.sharp.booking_service.component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.sharp.booking_service.models.Booking;
+import com.sharp.booking_service.models.BookingEventType;
+import com.sharp.booking_service.models.BookingStatus;
+import com.sharp.booking_service.models.OutboxEvent;
+import com.sharp.booking_service.repository.IOutboxEventRepository;
+
+/**
+ * Escribe eventos de ciclo de vida en {@code booking_outbox}. Debe llamarse
+ * dentro de la transaccion del cambio: el evento existe si y solo si el cambio
+ * se commitea.
+ *
+ * Con {@code booking.outbox.sink=none} no escribe nada: sin nadie que los
+ * consuma, los eventos solo harian crecer la tabla.
+ */
+@Component
+public class BookingOutbox {
+
+  private final IOutboxEventRepository outboxRepository;
+  private final boolean enabled;
+
+  public BookingOutbox(IOutboxEventRepository outboxRepository,
+      @Value("${booking.outbox.sink}") String sinkName) {
+    this.outboxRepository = outboxRepository;
+    this.enabled = !"none".equals(sinkName);
+  }
+
+  public void append(Booking booking, BookingEventType type) {
+    if (!enabled) {
+      return;
+    }
+    outboxRepository.save(toEvent(booking, type, LocalDateTime.now()));
+  }
+
+  public void append(Collection<Booking> bookings, BookingEventType type) {
+    if (!enabled) {
+      return;
+    }
+    LocalDateTime now = LocalDateTime.now();
+    List<OutboxEvent> events = bookings.stream()
+        .map(booking -> toEvent(booking, type, now))
+        .toList();
+    outboxRepository.saveAll(events);
+  }
+
+  /**
+   * Para cambios hechos con UPDATE masivo, donde no hay entidad cargada.
+   */
+  public void append(BookingEventType type, Long bookingId, String pnr, Long flightInstanceId,
+      BookingStatus status, int passengerCount, long bookingVersion) {
+    if (!enabled) {
+      return;
+    }
+    outboxRepository.save(OutboxEvent.builder()
+        .eventType(type)
+        .bookingId(bookingId)
+        .pnr(pnr)
+        .flightInstanceId(flightInstanceId)
+        .status(status)
+        .passengerCount(passengerCount)
+        .bookingVersion(bookingVersion)
+        .occurredAt(LocalDateTime.now())
+        .build());
+  }
+
+  private static OutboxEvent toEvent(Booking booking, BookingEventType type, LocalDateTime now) {
+    return OutboxEvent.builder()
+        .eventType(type)
+        .bookingId(booking.getBookingId())
+        .pnr(booking.getPnr())
+        .flightInstanceId(booking.getFlightInstanceId())
+        .status(booking.getStatus())
+        .passengerCount(booking.getPassengerCount())
+        .bookingVersion(booking.getVersion())
+        .occurredAt(now)
+        .build();
+  }
+}
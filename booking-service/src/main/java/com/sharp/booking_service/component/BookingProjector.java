@@ -0,0 +1,320 @@
+package com.sharp.booking_service.component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sharp.booking_service.dto.BookingResponseDto;
+import com.sharp.booking_service.dto.PassengerDto;
+import com.sharp.booking_service.models.Booking;
+import com.sharp.booking_service.models.BookingSummary;
+import com.sharp.booking_service.repository.IBookingRepository;
+import com.sharp.booking_service.repository.IBookingSummaryRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Mantiene la tabla {@code booking_summary} (lado lectura, CQRS).
+ *
+ * El lado escritura marca los bookings que cambio; despues del commit quedan
+ * pendientes y un worker los reproyecta por lotes (una query con JOIN FETCH por
+ * lote, un batch de UPSERT). El timer {@code booking.projection.lag} mide desde
+ * el commit hasta que la vista queda al dia.
+ *
+ * Los pendientes viven en memoria y se pierden si el nodo cae entre el commit y
+ * la proyeccion. La fuente durable es la version: cada resumen guarda la
+ * {@code booking.version} que proyecto y {@link #reconcile()} reproyecta, cada
+ * {@code reconcile-ms}, los bookings escritos desde la corrida anterior cuyo
+ * resumen falta o quedo en otra version, y los resumenes cuyo booking ya no
+ * existe.
+ *
+ * Tambien invalida {@link OffHeapResponseCache} para esos bookings, al commit
+ * y de nuevo al proyectar, y pasa a {@link BookingAnalytics} la diferencia entre
+ * el resumen anterior y el nuevo.
+ */
+@Slf4j
+@Component
+public class BookingProjector {
+
+  private static final TypeReference<List<PassengerDto>> PASSENGER_LIST = new TypeReference<>() {
+  };
+
+  private final IBookingRepository bookingRepository;
+  private final IBookingSummaryRepository summaryRepository;
+  private final ObjectMapper objectMapper;
+  private final OffHeapResponseCache responseCache;
+  private final BookingAnalytics analytics;
+  private final TransactionTemplate transactionTemplate;
+  private final int batchSize;
+  private final Duration reconcileOverlap;
+  private final int orphanRowsPerRun;
+  private final Timer lag;
+  // bookingId -> System.nanoTime() del primer commit aun no proyectado
+  private final ConcurrentHashMap<Long, Long> pending = new ConcurrentHashMap<>();
+  // ventana de reconcile: updated_at desde donde mirar y ultimo resumen revisado por borrados
+  private LocalDateTime reconciledSince;
+  private long orphanCursor;
+
+  public BookingProjector(IBookingRepository bookingRepository,
+      IBookingSummaryRepository summaryRepository,
+      ObjectMapper objectMapper,
+      OffHeapResponseCache responseCache,
+      BookingAnalytics analytics,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry,
+      @Value("${booking.projection.batch-size:500}") int batchSize,
+      @Value("${booking.projection.reconcile-overlap-seconds:60}") long reconcileOverlapSeconds,
+      @Value("${booking.projection.reconcile-lookback-seconds:3600}") long reconcileLookbackSeconds,
+      @Value("${booking.projection.reconcile-orphan-rows:5000}") int orphanRowsPerRun) {
+    this.bookingRepository = bookingRepository;
+    this.summaryRepository = summaryRepository;
+    this.objectMapper = objectMapper;
+    this.responseCache = responseCache;
+    this.analytics = analytics;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.batchSize = batchSize;
+    this.reconcileOverlap = Duration.ofSeconds(reconcileOverlapSeconds);
+    this.orphanRowsPerRun = orphanRowsPerRun;
+    this.reconciledSince = LocalDateTime.now().minusSeconds(reconcileLookbackSeconds);
+    this.lag = Timer.builder("booking.projection.lag")
+        .description("Time between a booking change committing and booking_summary reflecting it")
+        .publishPercentiles(0.5, 0.99)
+        .register(meterRegistry);
+    meterRegistry.gauge("booking.projection.pending", pending, Map::size);
+  }
+
+  public void markDirty(Long bookingId) {
+    if (bookingId == null) {
+      return;
+    }
+    afterCommit(() -> {
+      responseCache.invalidateBooking(bookingId);
+      pending.putIfAbsent(bookingId, System.nanoTime());
+    });
+  }
+
+  public void markDirty(Collection<Long> bookingIds) {
+    if (bookingIds.isEmpty()) {
+      return;
+    }
+    List<Long> ids = List.copyOf(bookingIds);
+    afterCommit(() -> {
+      long now = System.nanoTime();
+      for (Long id : ids) {
+        responseCache.invalidateBooking(id);
+        pending.putIfAbsent(id, now);
+      }
+    });
+  }
+
+  @Scheduled(fixedDelayString = "${booking.projection.drain-ms:200}")
+  public void drain() {
+    while (!pending.isEmpty()) {
+      Map<Long, Long> batch = new HashMap<>();
+      Iterator<Map.Entry<Long, Long>> it = pending.entrySet().iterator();
+      while (it.hasNext() && batch.size() < batchSize) {
+        Map.Entry<Long, Long> entry = it.next();
+        batch.put(entry.getKey(), entry.getValue());
+        it.remove();
+      }
+
+      try {
+        project(batch.keySet());
+      } catch (RuntimeException e) {
+        log.error("Booking projection failed for {} bookings, will retry: {}", batch.size(), e.getMessage());
+        batch.forEach(pending::putIfAbsent);
+        return;
+      }
+
+      long now = System.nanoTime();
+      for (Long enqueuedAt : batch.values()) {
+        lag.record(Duration.ofNanos(Math.max(0, now - enqueuedAt)));
+      }
+    }
+  }
+
+  /**
+   * Reproyecta lo que quedo atrasado por cambios que nunca llegaron a
+   * {@code pending} (caida de un nodo entre el commit y el drain).
+   *
+   * No recorre toda la tabla: solo los bookings con {@code updated_at} desde
+   * la corrida anterior (menos {@code reconcile-overlap-seconds}, por commits
+   * lentos y relojes de otros nodos; al arrancar, {@code reconcile-lookback-seconds}),
+   * y a lo sumo {@code reconcile-orphan-rows} resumenes por corrida buscando
+   * bookings borrados, siguiendo donde quedo la anterior. Lo que quede fuera
+   * de esas ventanas lo corrige {@link #rebuild()}.
+   */
+  @Scheduled(fixedDelayString = "${booking.projection.reconcile-ms:300000}",
+      initialDelayString = "${booking.projection.reconcile-ms:300000}")
+  public void reconcile() {
+    LocalDateTime startedAt = LocalDateTime.now();
+    long stale = 0;
+    long after = 0;
+    List<Long> ids;
+    do {
+      ids = bookingRepository.findIdsWithStaleSummaryAfter(reconciledSince, after, Limit.of(batchSize));
+      if (!ids.isEmpty()) {
+        project(ids);
+        stale += ids.size();
+        after = ids.get(ids.size() - 1);
+      }
+    } while (ids.size() == batchSize);
+    reconciledSince = startedAt.minus(reconcileOverlap);
+
+    for (int checked = 0; checked < orphanRowsPerRun; checked += batchSize) {
+      ids = summaryRepository.findIdsAfter(orphanCursor, Limit.of(batchSize));
+      if (ids.isEmpty()) {
+        // fin de la tabla: la proxima corrida empieza de nuevo
+        orphanCursor = 0;
+        break;
+      }
+      long last = ids.get(ids.size() - 1);
+      List<Long> orphans = summaryRepository.findOrphanIdsBetween(ids.get(0), last);
+      if (!orphans.isEmpty()) {
+        project(orphans);
+        stale += orphans.size();
+      }
+      orphanCursor = last;
+    }
+
+    if (stale > 0) {
+      log.warn("Projection reconcile re-projected {} bookings missed by the drain", stale);
+    }
+  }
+
+  /**
+   * Reconstruye toda la vista desde las tablas normalizadas. Idempotente; se
+   * puede correr con el servicio en linea.
+   */
+  public long rebuild() {
+    log.info("Rebuilding booking_summary from scratch");
+    long after = 0;
+    long total = 0;
+    while (true) {
+      List<Long> ids = bookingRepository.findIdsAfter(after, Limit.of(batchSize));
+      if (ids.isEmpty()) {
+        break;
+      }
+      project(ids);
+      total += ids.size();
+      after = ids.get(ids.size() - 1);
+    }
+    Integer orphans = transactionTemplate.execute(status -> summaryRepository.deleteOrphans());
+    log.info("Rebuilt booking_summary: {} bookings projected, {} orphan summaries removed", total, orphans);
+    return total;
+  }
+
+  public BookingResponseDto toResponseDto(BookingSummary summary) {
+    return BookingResponseDto.builder()
+        .bookingId(summary.getBookingId())
+        .pnr(summary.getPnr())
+        .flightInstanceId(summary.getFlightInstanceId())
+        .status(summary.getStatus())
+        .holdExpiresAt(summary.getHoldExpiresAt())
+        .passengerCount(summary.getPassengerCount())
+        .createdByUserId(summary.getCreatedByUserId())
+        .createdAt(summary.getCreatedAt())
+        .passengers(objectMapper.readValue(summary.getPassengersJson(), PASSENGER_LIST))
+        .build();
+  }
+
+  private void project(Collection<Long> bookingIds) {
+    List<Long> ids = new ArrayList<>(bookingIds);
+    transactionTemplate.executeWithoutResult(status -> {
+      Map<Long, BookingSummary> existing = new HashMap<>();
+      for (BookingSummary summary : summaryRepository.lockAllById(ids)) {
+        existing.put(summary.getBookingId(), summary);
+      }
+
+      LocalDateTime now = LocalDateTime.now();
+      List<BookingSummary> summaries = new ArrayList<>(ids.size());
+      List<BookingAnalytics.Change> changes = new ArrayList<>(ids.size());
+      for (Booking booking : bookingRepository.findAllWithPassengersByIdIn(ids)) {
+        BookingSummary summary = existing.remove(booking.getBookingId());
+        BookingAnalytics.Snapshot before = null;
+        if (summary == null) {
+          summary = BookingSummary.builder().bookingId(booking.getBookingId()).build();
+        } else {
+          before = snapshot(summary);
+        }
+        copy(booking, summary, now);
+        summaries.add(summary);
+        changes.add(new BookingAnalytics.Change(before, snapshot(summary), summary.getCreatedAt()));
+      }
+
+      // lo que queda ya no tiene booking: se borro
+      for (BookingSummary deleted : existing.values()) {
+        changes.add(new BookingAnalytics.Change(snapshot(deleted), null, deleted.getCreatedAt()));
+      }
+      analytics.record(changes);
+
+      summaryRepository.saveAll(summaries);
+      if (!existing.isEmpty()) {
+        summaryRepository.deleteAllInBatch(existing.values());
+      }
+    });
+
+    // una lectura entre el commit y esta proyeccion pudo cachear la vista vieja
+    for (Long id : ids) {
+      responseCache.invalidateBooking(id);
+    }
+  }
+
+  private static BookingAnalytics.Snapshot snapshot(BookingSummary summary) {
+    return new BookingAnalytics.Snapshot(summary.getFlightInstanceId(), summary.getStatus(), summary.getPassengerCount());
+  }
+
+  private void copy(Booking booking, BookingSummary summary, LocalDateTime now) {
+    List<PassengerDto> passengers = booking.getPassengers().stream()
+        .map(p -> PassengerDto.builder()
+            .firstName(p.getFirstName())
+            .lastName(p.getLastName())
+            .docType(p.getDocType())
+            .docNumber(p.getDocNumber())
+            .build())
+        .toList();
+
+    summary.setPnr(booking.getPnr());
+    summary.setFlightInstanceId(booking.getFlightInstanceId());
+    summary.setStatus(booking.getStatus());
+    summary.setHoldExpiresAt(booking.getHoldExpiresAt());
+    summary.setPassengerCount(booking.getPassengerCount());
+    summary.setCreatedByUserId(booking.getCreatedByUserId());
+    summary.setCreatedAt(booking.getCreatedAt());
+    summary.setPassengersJson(objectMapper.writeValueAsString(passengers));
+    summary.setProjectedAt(now);
+    summary.setBookingVersion(booking.getVersion());
+  }
+
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+}
@@ -0,0 +1,158 @@
+package com.sharp.booking_service.component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * LRU acotada con vencimiento por entrada, mas un mapa de cargas en curso: los
+ * pedidos concurrentes de la misma key esperan a una sola carga en vez de
+ * repetirla. Los errores no se guardan; los que esperaban reciben el mismo.
+ *
+ * Lo usan la cache de flight-service y la de Idempotency-Key.
+ */
+public final class CoalescingCache<K, V> {
+
+  public enum Source {
+    // estaba en la cache
+    CACHED,
+    // otro hilo lo estaba cargando y se espero a ese
+    COALESCED,
+    // lo cargo este hilo
+    LOADED
+  }
+
+  public record Hit<V>(V value, Source source) {
+  }
+
+  private final Map<K, Entry<V>> entries;
+  private final ConcurrentHashMap<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+  private final Function<V, Duration> lifetime;
+  private final Duration wait;
+  private final Supplier<? extends RuntimeException> waitExceeded;
+
+  /**
+   * @param lifetime cuanto vive cada valor; cero o negativo no se guarda
+   * @param wait cuanto espera un pedido coalescido; {@code null} espera lo que tarde la carga
+   * @param waitExceeded error si se agota {@code wait} (o se interrumpe la espera)
+   */
+  public CoalescingCache(int maxEntries, Function<V, Duration> lifetime, Duration wait,
+      Supplier<? extends RuntimeException> waitExceeded) {
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+        return size() > maxEntries;
+      }
+    };
+    this.lifetime = lifetime;
+    this.wait = wait;
+    this.waitExceeded = waitExceeded;
+  }
+
+  public CoalescingCache(int maxEntries, Function<V, Duration> lifetime) {
+    this(maxEntries, lifetime, null, null);
+  }
+
+  public Hit<V> get(K key, Function<K, V> loader) {
+    Entry<V> cached = lookup(key);
+    if (cached != null) {
+      return new Hit<>(cached.value, Source.CACHED);
+    }
+
+    CompletableFuture<V> mine = new CompletableFuture<>();
+    CompletableFuture<V> running = loading.putIfAbsent(key, mine);
+    if (running != null) {
+      return new Hit<>(await(running), Source.COALESCED);
+    }
+
+    try {
+      // pudo haberse guardado entre el lookup y el putIfAbsent
+      cached = lookup(key);
+      if (cached != null) {
+        mine.complete(cached.value);
+        return new Hit<>(cached.value, Source.CACHED);
+      }
+      V value = loader.apply(key);
+      store(key, value);
+      mine.complete(value);
+      return new Hit<>(value, Source.LOADED);
+    } catch (RuntimeException e) {
+      mine.completeExceptionally(e);
+      throw e;
+    } finally {
+      loading.remove(key, mine);
+    }
+  }
+
+  public void evictExpired() {
+    synchronized (entries) {
+      long now = System.nanoTime();
+      entries.values().removeIf(entry -> entry.expiresAtNanos - now < 0);
+    }
+  }
+
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  private Entry<V> lookup(K key) {
+    synchronized (entries) {
+      Entry<V> entry = entries.get(key);
+      if (entry != null && entry.expiresAtNanos - System.nanoTime() < 0) {
+        entries.remove(key);
+        return null;
+      }
+      return entry;
+    }
+  }
+
+  private void store(K key, V value) {
+    Duration ttl = lifetime.apply(value);
+    if (ttl.isZero() || ttl.isNegative()) {
+      return;
+    }
+    synchronized (entries) {
+      entries.put(key, new Entry<>(value, System.nanoTime() + ttl.toNanos()));
+    }
+  }
+
+  private V await(CompletableFuture<V> running) {
+    if (wait == null) {
+      try {
+        return running.join();
+      } catch (CompletionException e) {
+        throw rethrow(e.getCause());
+      }
+    }
+    try {
+      return running.get(wait.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (ExecutionException e) {
+      throw rethrow(e.getCause());
+    } catch (TimeoutException e) {
+      throw waitExceeded.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw waitExceeded.get();
+    }
+  }
+
+  private static RuntimeException rethrow(Throwable cause) {
+    if (cause instanceof RuntimeException runtime) {
+      return runtime;
+    }
+    return new IllegalStateException(cause);
+  }
+
+  private record Entry<V>(V value, long expiresAtNanos) {
+  }
+}
@@ -0,0 +1,48 @@
+package com.sharp.booking_service.component;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Los pasajeros creados antes de existir {@code doc_number_key} lo tienen en
+ * NULL y no aparecerian en las busquedas por documento. Se completa al
+ * arrancar, por lotes, con la misma regla que {@code Passenger.normalizeDocNumber}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DocNumberKeyBackfill {
+
+  private static final int BATCH_SIZE = 5_000;
+  private static final String SQL = "UPDATE passenger"
+      + " SET doc_number_key = REGEXP_REPLACE(UPPER(doc_number), '[^A-Z0-9]', ''), doc_type = UPPER(TRIM(doc_type))"
+      + " WHERE doc_number_key IS NULL LIMIT " + BATCH_SIZE;
+
+  private final JdbcTemplate jdbcTemplate;
+  // fuerza que el esquema exista antes del backfill
+  private final EntityManagerFactory entityManagerFactory;
+
+  @PostConstruct
+  void backfill() {
+    long total = 0;
+    try {
+      int updated;
+      do {
+        updated = jdbcTemplate.update(SQL);
+        total += updated;
+      } while (updated == BATCH_SIZE);
+    } catch (DataAccessException e) {
+      log.warn("Could not backfill passenger doc_number_key: {}", e.getMessage());
+      return;
+    }
+    if (total > 0) {
+      log.info("Backfilled doc_number_key for {} passengers", total);
+    }
+  }
+}
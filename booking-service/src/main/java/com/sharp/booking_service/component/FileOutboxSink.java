@@ -0,0 +1,52 @@
+package com.sharp.booking_service.component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.sharp.booking_service.dto.BookingEventDto;
+
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Agrega los eventos como NDJSON a un archivo local. Para desarrollo y tests:
+ * en un contenedor el archivo se pierde y las filas del outbox ya se borraron.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "booking.outbox.sink", havingValue = "file")
+public class FileOutboxSink implements OutboxSink {
+
+  private final ObjectMapper objectMapper;
+  private final Path path;
+
+  public FileOutboxSink(ObjectMapper objectMapper,
+      @Value("${booking.outbox.file.path:booking-events.ndjson}") String path) {
+    this.objectMapper = objectMapper;
+    this.path = Path.of(path);
+    log.info("Booking events will be appended to {}", this.path.toAbsolutePath());
+  }
+
+  @Override
+  public void publish(List<BookingEventDto> events) {
+    try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+        StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE)) {
+      for (BookingEventDto event : events) {
+        writer.write(objectMapper.writeValueAsString(event));
+        writer.write('\n');
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not append booking events to " + path, e);
+    }
+  }
+}
@@ -0,0 +1,216 @@
+package com.sharp.booking_service.component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sharp.booking_service.models.BookingEventType;
+import com.sharp.booking_service.models.BookingStatus;
+import com.sharp.booking_service.repository.IBookingRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pasa a EXPIRED los bookings HELD cuyo holdExpiresAt ya vencio.
+ *
+ * Los deadlines viven en una {@link HoldTimingWheel}; en cada tick el lote
+ * vencido se expira con un solo UPDATE condicional (previo bloqueo de las filas
+ * para saber cuantos asientos liberar en {@link SeatInventory}). Al arrancar se
+ * expiran los holds atrasados y se cargan los proximos a la rueda.
+ *
+ * La rueda solo ve los holds de este nodo y los que trae {@link #refill()}; un
+ * hold que otro nodo crea con un deadline ya cargado no entra nunca. Por eso
+ * {@link #sweep()} expira cada {@code sweep-ms} lo vencido que haya en la BD
+ * (por idx_booking_status_expires), sea de quien sea.
+ */
+@Slf4j
+@Component
+public class HoldExpiryScheduler {
+
+  private static final ZoneId ZONE = ZoneId.systemDefault();
+
+  private final IBookingRepository bookingRepository;
+  private final SeatInventory seatInventory;
+  private final BookingProjector bookingProjector;
+  private final BookingOutbox bookingOutbox;
+  private final AuditJournal auditJournal;
+  private final TransactionTemplate transactionTemplate;
+  private final HoldTimingWheel wheel = new HoldTimingWheel(System.currentTimeMillis());
+  private final int batchSize;
+  private final Duration horizon;
+  private final Timer expiryLag;
+  private final Counter expiredHolds;
+
+  private volatile LocalDateTime loadedUntil;
+
+  public HoldExpiryScheduler(IBookingRepository bookingRepository,
+      SeatInventory seatInventory,
+      BookingProjector bookingProjector,
+      BookingOutbox bookingOutbox,
+      AuditJournal auditJournal,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry,
+      @Value("${booking.hold-expiry.batch-size:500}") int batchSize,
+      @Value("${booking.hold-expiry.horizon-hours:24}") long horizonHours) {
+    this.bookingRepository = bookingRepository;
+    this.seatInventory = seatInventory;
+    this.bookingProjector = bookingProjector;
+    this.bookingOutbox = bookingOutbox;
+    this.auditJournal = auditJournal;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.batchSize = batchSize;
+    this.horizon = Duration.ofHours(horizonHours);
+    this.expiryLag = Timer.builder("booking.hold.expiry.lag")
+        .description("Time between holdExpiresAt and the booking actually being expired")
+        .publishPercentiles(0.5, 0.99)
+        .register(meterRegistry);
+    this.expiredHolds = Counter.builder("booking.hold.expired")
+        .description("Bookings moved from HELD to EXPIRED")
+        .register(meterRegistry);
+    Gauge.builder("booking.hold.scheduled", wheel, HoldTimingWheel::size)
+        .description("Hold deadlines waiting in the timing wheel")
+        .register(meterRegistry);
+  }
+
+  public void schedule(Long bookingId, LocalDateTime holdExpiresAt) {
+    if (bookingId == null || holdExpiresAt == null) {
+      return;
+    }
+    wheel.add(bookingId, toMillis(holdExpiresAt));
+  }
+
+  @Scheduled(fixedDelayString = "${booking.hold-expiry.tick-ms:1000}")
+  public void tick() {
+    List<Long> due = wheel.advance(System.currentTimeMillis());
+    for (int from = 0; from < due.size(); from += batchSize) {
+      expire(due.subList(from, Math.min(due.size(), from + batchSize)));
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void catchUp() {
+    LocalDateTime now = LocalDateTime.now();
+    log.info("Hold expiry catch-up expired {} overdue bookings", expireOverdue(now));
+
+    loadedUntil = now;
+    refill();
+  }
+
+  /**
+   * Expira los holds vencidos que no estaban en la rueda (creados por otro nodo
+   * despues del ultimo refill). Es idempotente con el tick y con otros nodos.
+   */
+  @Scheduled(fixedDelayString = "${booking.hold-expiry.sweep-ms:30000}",
+      initialDelayString = "${booking.hold-expiry.sweep-ms:30000}")
+  public void sweep() {
+    int total = expireOverdue(LocalDateTime.now());
+    if (total > 0) {
+      log.debug("Hold expiry sweep expired {} bookings missing from the wheel", total);
+    }
+  }
+
+  private int expireOverdue(LocalDateTime now) {
+    int total = 0;
+    List<Long> overdue;
+    do {
+      overdue = bookingRepository.findExpiredHeldBookingIds(BookingStatus.HELD, now, Limit.of(batchSize));
+      int expired = expire(overdue);
+      total += expired;
+      if (expired == 0) {
+        break;
+      }
+    } while (overdue.size() == batchSize);
+    return total;
+  }
+
+  /**
+   * Carga a la rueda los holds que entran en el horizonte (creados por otro nodo o antes del reinicio).
+   */
+  @Scheduled(fixedDelayString = "${booking.hold-expiry.refill-ms:3600000}",
+      initialDelayString = "${booking.hold-expiry.refill-ms:3600000}")
+  public void refill() {
+    LocalDateTime from = loadedUntil;
+    if (from == null) {
+      return;
+    }
+    LocalDateTime to = LocalDateTime.now().plus(horizon);
+    List<Object[]> deadlines = bookingRepository.findHoldDeadlines(BookingStatus.HELD, from, to);
+    for (Object[] row : deadlines) {
+      schedule(((Number) row[0]).longValue(), (LocalDateTime) row[1]);
+    }
+    loadedUntil = to;
+    log.debug("Loaded {} hold deadlines up to {}", deadlines.size(), to);
+  }
+
+  private int expire(List<Long> bookingIds) {
+    if (bookingIds.isEmpty()) {
+      return 0;
+    }
+    Integer expired = transactionTemplate.execute(status -> {
+      LocalDateTime now = LocalDateTime.now();
+      List<Object[]> rows = bookingRepository.lockExpiredHolds(bookingIds, now);
+      if (rows.isEmpty()) {
+        return 0;
+      }
+
+      List<Long> ids = new ArrayList<>(rows.size());
+      for (Object[] row : rows) {
+        ids.add(((Number) row[0]).longValue());
+      }
+      int updated = bookingRepository.expireHolds(ids, now, BookingStatus.HELD, BookingStatus.EXPIRED);
+      bookingProjector.markDirty(ids);
+
+      // una liberacion por vuelo, en orden de id como el resto de los caminos
+      Map<Long, Integer> seatsByFlight = new TreeMap<>();
+      for (Object[] row : rows) {
+        seatsByFlight.merge(((Number) row[1]).longValue(), ((Number) row[2]).intValue(), Integer::sum);
+      }
+      seatsByFlight.forEach((flightInstanceId, seats) ->
+          seatInventory.release(flightInstanceId, BookingStatus.HELD, seats));
+
+      long nowMillis = toMillis(now);
+      for (Object[] row : rows) {
+        bookingOutbox.append(BookingEventType.EXPIRED, ((Number) row[0]).longValue(), (String) row[4],
+            ((Number) row[1]).longValue(), BookingStatus.EXPIRED, ((Number) row[2]).intValue(),
+            ((Number) row[5]).longValue() + 1);
+        auditJournal.record(BookingEventType.EXPIRED, ((Number) row[0]).longValue(), (String) row[4],
+            BookingStatus.HELD, BookingStatus.EXPIRED);
+        expiryLag.record(Duration.ofMillis(Math.max(0, nowMillis - toMillis(toLocalDateTime(row[3])))));
+      }
+      return updated;
+    });
+
+    int count = expired == null ? 0 : expired;
+    expiredHolds.increment(count);
+    if (count > 0) {
+      log.info("Expired {} held bookings", count);
+    }
+    return count;
+  }
+
+  private static LocalDateTime toLocalDateTime(Object value) {
+    return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+  }
+
+  private static long toMillis(LocalDateTime dateTime) {
+    return dateTime.atZone(ZONE).toInstant().toEpochMilli();
+  }
+}
@@ -0,0 +1,112 @@
+package com.sharp.booking_service.component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Rueda de tiempo jerarquica (segundos / minutos / horas) para vencimientos de holds.
+ *
+ * add y advance son O(1) amortizado. Un id vence en el primer advance cuyo
+ * "now" pasa el final del segundo de su deadline, nunca antes. Lo que queda mas
+ * alla de 24 h espera en una cola de desborde que se vuelca a la rueda cada hora.
+ */
+final class HoldTimingWheel {
+
+  private static final long[] TICK_MS = {1_000L, 60_000L, 3_600_000L};
+  private static final int[] SLOTS = {60, 60, 24};
+
+  private final List<List<Entry>[]> levels = new ArrayList<>(TICK_MS.length);
+  private final PriorityQueue<Entry> overflow = new PriorityQueue<>((a, b) -> Long.compare(a.deadline, b.deadline));
+  private final List<Long> due = new ArrayList<>();
+  private long currentTime;
+  private int size;
+
+  @SuppressWarnings("unchecked")
+  HoldTimingWheel(long startMillis) {
+    for (int level = 0; level < TICK_MS.length; level++) {
+      List<Entry>[] buckets = new List[SLOTS[level]];
+      for (int slot = 0; slot < buckets.length; slot++) {
+        buckets[slot] = new ArrayList<>();
+      }
+      levels.add(buckets);
+    }
+    this.currentTime = startMillis - Math.floorMod(startMillis, TICK_MS[0]);
+  }
+
+  synchronized void add(long bookingId, long deadlineMillis) {
+    place(new Entry(bookingId, deadlineMillis));
+    size++;
+  }
+
+  /**
+   * Avanza la rueda hasta {@code nowMillis} y devuelve los ids vencidos.
+   */
+  synchronized List<Long> advance(long nowMillis) {
+    while (currentTime + TICK_MS[0] <= nowMillis) {
+      List<Entry> bucket = levels.get(0)[slot(0, currentTime)];
+      for (Entry entry : bucket) {
+        due.add(entry.bookingId);
+      }
+      bucket.clear();
+      currentTime += TICK_MS[0];
+
+      if (currentTime % TICK_MS[2] == 0) {
+        cascade(2);
+        while (!overflow.isEmpty() && overflow.peek().deadline < levelEnd(2)) {
+          place(overflow.poll());
+        }
+      }
+      if (currentTime % TICK_MS[1] == 0) {
+        cascade(1);
+      }
+    }
+
+    if (due.isEmpty()) {
+      return List.of();
+    }
+    List<Long> result = new ArrayList<>(due);
+    size -= due.size();
+    due.clear();
+    return result;
+  }
+
+  synchronized int size() {
+    return size;
+  }
+
+  private void place(Entry entry) {
+    if (entry.deadline < currentTime) {
+      due.add(entry.bookingId);
+      return;
+    }
+    for (int level = 0; level < TICK_MS.length; level++) {
+      if (entry.deadline < levelEnd(level)) {
+        levels.get(level)[slot(level, entry.deadline)].add(entry);
+        return;
+      }
+    }
+    overflow.add(entry);
+  }
+
+  private void cascade(int level) {
+    List<Entry> bucket = levels.get(level)[slot(level, currentTime)];
+    List<Entry> entries = new ArrayList<>(bucket);
+    bucket.clear();
+    for (Entry entry : entries) {
+      place(entry);
+    }
+  }
+
+  private long levelEnd(int level) {
+    long base = currentTime - Math.floorMod(currentTime, TICK_MS[level]);
+    return base + TICK_MS[level] * SLOTS[level];
+  }
+
+  private static int slot(int level, long millis) {
+    return (int) Math.floorMod(Math.floorDiv(millis, TICK_MS[level]), (long) SLOTS[level]);
+  }
+
+  private record Entry(long bookingId, long deadline) {
+  }
+}
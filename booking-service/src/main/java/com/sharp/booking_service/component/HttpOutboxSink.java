@@ -0,0 +1,57 @@
+package com.sharp.booking_service.component;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import com.sharp.booking_service.dto.BookingEventDto;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * POST del lote como arreglo JSON. Cualquier respuesta que no sea 2xx (o un
+ * timeout) hace que el relay reintente el lote.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "booking.outbox.sink", havingValue = "http")
+public class HttpOutboxSink implements OutboxSink {
+
+  private final RestClient restClient;
+  private final String url;
+
+  public HttpOutboxSink(@Value("${booking.outbox.http.url:}") String url,
+      @Value("${booking.outbox.http.token:}") String token,
+      @Value("${booking.outbox.http.timeout-ms:5000}") long timeoutMs) {
+    if (url.isBlank()) {
+      throw new IllegalStateException("booking.outbox.http.url must be set when booking.outbox.sink=http");
+    }
+    SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+    requestFactory.setConnectTimeout(Duration.ofMillis(timeoutMs));
+    requestFactory.setReadTimeout(Duration.ofMillis(timeoutMs));
+    RestClient.Builder builder = RestClient.builder().requestFactory(requestFactory);
+    if (!token.isBlank()) {
+      builder.defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+    this.restClient = builder.build();
+    this.url = url;
+    log.info("Booking events will be posted to {}", url);
+  }
+
+  @Override
+  public void publish(List<BookingEventDto> events) {
+    restClient.post()
+        .uri(url)
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(events)
+        .retrieve()
+        .toBodilessEntity();
+  }
+}
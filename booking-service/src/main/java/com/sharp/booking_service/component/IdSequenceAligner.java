@@ -0,0 +1,47 @@
+package com.sharp.booking_service.component;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * En MySQL las secuencias de Hibernate son tablas (booking_seq, passenger_seq)
+ * que se crean empezando en 1. Si ya hay filas creadas con AUTO_INCREMENT, se
+ * adelanta la secuencia por encima del id maximo antes de atender peticiones.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdSequenceAligner {
+
+  private static final int ALLOCATION_SIZE = 50;
+
+  private final JdbcTemplate jdbcTemplate;
+  // fuerza que el esquema exista antes de alinear
+  private final EntityManagerFactory entityManagerFactory;
+
+  @PostConstruct
+  void align() {
+    align("booking_seq", "booking", "booking_id");
+    align("passenger_seq", "passenger", "passenger_id");
+  }
+
+  private void align(String sequence, String table, String idColumn) {
+    String sql = "UPDATE " + sequence + " SET next_val = (SELECT COALESCE(MAX(" + idColumn + "), 0) + ? FROM " + table + ")"
+        + " WHERE next_val <= (SELECT COALESCE(MAX(" + idColumn + "), 0) + ? FROM " + table + ")";
+    try {
+      int updated = jdbcTemplate.update(sql, ALLOCATION_SIZE + 1, ALLOCATION_SIZE);
+      if (updated > 0) {
+        log.info("Advanced {} past existing {} ids", sequence, table);
+      }
+    } catch (DataAccessException e) {
+      // secuencia nativa (H2, etc.): no hay tabla que alinear
+      log.debug("Skipping alignment of {}: {}", sequence, e.getMessage());
+    }
+  }
+}
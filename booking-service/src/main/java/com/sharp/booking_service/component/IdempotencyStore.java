@@ -0,0 +1,216 @@
+package com.sharp.booking_service.component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sharp.booking_service.controllers.IdempotencyKeyException;
+import com.sharp.booking_service.dto.BookingResponseDto;
+import com.sharp.booking_service.models.IdempotencyRecord;
+import com.sharp.booking_service.repository.IIdempotencyRecordRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Soporte de Idempotency-Key para la creacion de bookings.
+ *
+ * Tres niveles: una cache LRU acotada con vencimiento (respuestas recientes de
+ * este nodo), un mapa de requests en curso para que los duplicados concurrentes
+ * esperen al original en vez de ejecutarse, y la tabla
+ * {@code booking_idempotency_key}, que se escribe en la misma transaccion que el
+ * booking y garantiza una sola ejecucion por key entre nodos.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+  public static final String HEADER = "Idempotency-Key";
+  public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+  private static final int MAX_KEY_LENGTH = 128;
+
+  private final IIdempotencyRecordRepository recordRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final MeterRegistry meterRegistry;
+  private final Duration ttl;
+  // respuestas recientes de este nodo y requests en curso con la misma key
+  private final CoalescingCache<String, Entry> recent;
+
+  public IdempotencyStore(IIdempotencyRecordRepository recordRepository,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry,
+      @Value("${booking.idempotency.max-entries:10000}") int maxEntries,
+      @Value("${booking.idempotency.ttl-hours:24}") long ttlHours,
+      @Value("${booking.idempotency.wait-ms:10000}") long waitMillis) {
+    this.recordRepository = recordRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.meterRegistry = meterRegistry;
+    this.ttl = Duration.ofHours(ttlHours);
+    this.recent = new CoalescingCache<>(maxEntries,
+        entry -> Duration.ofMillis(entry.expiresAtMillis - System.currentTimeMillis()),
+        Duration.ofMillis(waitMillis), IdempotencyStore::inProgress);
+    meterRegistry.gauge("booking.idempotency.cached", recent, CoalescingCache::size);
+  }
+
+  /**
+   * Ejecuta {@code action} una sola vez por key. Los reintentos reciben la misma
+   * respuesta; {@code replay} reconstruye el body desde el bookingId cuando la
+   * key la proceso otro nodo.
+   */
+  public ResponseEntity<BookingResponseDto> execute(String key, String fingerprint,
+      Supplier<ResponseEntity<BookingResponseDto>> action,
+      Function<Long, Optional<BookingResponseDto>> replay) {
+    if (key == null || key.isBlank()) {
+      return action.get();
+    }
+    if (key.length() > MAX_KEY_LENGTH) {
+      throw new IdempotencyKeyException(HEADER + " must be at most " + MAX_KEY_LENGTH + " characters", 400,
+          "IDEMPOTENCY_KEY_INVALID");
+    }
+
+    Result[] mine = new Result[1];
+    CoalescingCache.Hit<Entry> hit = recent.get(key, k -> {
+      mine[0] = runOnce(key, fingerprint, action, replay);
+      return mine[0].entry;
+    });
+    return switch (hit.source()) {
+      case CACHED -> replayed(hit.value(), fingerprint, "memory");
+      case COALESCED -> replayed(hit.value(), fingerprint, "coalesced");
+      case LOADED -> mine[0].replayed ? replayed(hit.value(), fingerprint, "database") : mine[0].response;
+    };
+  }
+
+  @Scheduled(fixedDelayString = "${booking.idempotency.purge-ms:3600000}")
+  public void purgeExpired() {
+    LocalDateTime now = LocalDateTime.now();
+    Integer deleted = transactionTemplate.execute(status -> recordRepository.deleteExpired(now));
+    recent.evictExpired();
+    if (deleted != null && deleted > 0) {
+      log.info("Purged {} expired idempotency keys", deleted);
+    }
+  }
+
+  /**
+   * SHA-256 hex de las partes del request (separadas para que "1","23" != "12","3").
+   */
+  public static String fingerprint(Object... parts) {
+    StringBuilder canonical = new StringBuilder();
+    for (Object part : parts) {
+      canonical.append(part).append('\u001f');
+    }
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+
+  private Result runOnce(String key, String fingerprint,
+      Supplier<ResponseEntity<BookingResponseDto>> action,
+      Function<Long, Optional<BookingResponseDto>> replay) {
+    LocalDateTime now = LocalDateTime.now();
+    LocalDateTime expiresAt = now.plus(ttl);
+    try {
+      return claimAndRun(key, fingerprint, now, expiresAt, action, false);
+    } catch (KeyTaken e) {
+      // la key ya la proceso otro nodo (MySQL bloquea el INSERT hasta que el otro commitea)
+      IdempotencyRecord record = recordRepository.findById(key)
+          .orElseThrow(IdempotencyStore::inProgress);
+      if (record.getExpiresAt().isBefore(now)) {
+        // vencida pero todavia sin purgar: no se repite la respuesta vieja, se toma la key de nuevo
+        try {
+          return claimAndRun(key, fingerprint, now, expiresAt, action, true);
+        } catch (KeyTaken again) {
+          // otro request la retomo primero
+          record = recordRepository.findById(key).orElseThrow(IdempotencyStore::inProgress);
+        }
+      }
+      if (!record.getRequestHash().equals(fingerprint)) {
+        throw reused();
+      }
+      if (record.getBookingId() == null) {
+        throw inProgress();
+      }
+      BookingResponseDto body = replay.apply(record.getBookingId()).orElseThrow(IdempotencyStore::inProgress);
+      Entry entry = new Entry(record.getRequestHash(), record.getStatusCode(), body, millis(record.getExpiresAt()));
+      return new Result(entry, null, true);
+    }
+  }
+
+  private Result claimAndRun(String key, String fingerprint, LocalDateTime now, LocalDateTime expiresAt,
+      Supplier<ResponseEntity<BookingResponseDto>> action, boolean expired) {
+    ResponseEntity<BookingResponseDto> response = transactionTemplate.execute(status -> {
+      if (expired) {
+        if (recordRepository.reclaimExpired(key, fingerprint, now, expiresAt) == 0) {
+          throw new KeyTaken();
+        }
+      } else {
+        try {
+          recordRepository.claim(key, fingerprint, now, expiresAt);
+        } catch (DataIntegrityViolationException e) {
+          throw new KeyTaken();
+        }
+      }
+      ResponseEntity<BookingResponseDto> r = action.get();
+      if (r.getBody() != null) {
+        recordRepository.complete(key, r.getBody().getBookingId(), r.getStatusCode().value());
+      }
+      return r;
+    });
+    Entry entry = new Entry(fingerprint, response.getStatusCode().value(), response.getBody(), millis(expiresAt));
+    return new Result(entry, response, false);
+  }
+
+  private ResponseEntity<BookingResponseDto> replayed(Entry entry, String fingerprint, String source) {
+    if (!entry.fingerprint.equals(fingerprint)) {
+      throw reused();
+    }
+    meterRegistry.counter("booking.idempotency.replayed", "source", source).increment();
+    return ResponseEntity.status(entry.status)
+        .header(REPLAYED_HEADER, "true")
+        .body(entry.body);
+  }
+
+  private static long millis(LocalDateTime dateTime) {
+    return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+  }
+
+  private static IdempotencyKeyException inProgress() {
+    return new IdempotencyKeyException("A request with this " + HEADER + " is still in progress", 409,
+        "IDEMPOTENCY_IN_PROGRESS");
+  }
+
+  private static IdempotencyKeyException reused() {
+    return new IdempotencyKeyException(HEADER + " was already used with a different request", 422,
+        "IDEMPOTENCY_KEY_REUSED");
+  }
+
+  private record Entry(String fingerprint, int status, BookingResponseDto body, long expiresAtMillis) {
+  }
+
+  private record Result(Entry entry, ResponseEntity<BookingResponseDto> response, boolean replayed) {
+  }
+
+  private static final class KeyTaken extends RuntimeException {
+    private KeyTaken() {
+      super(null, null, false, false);
+    }
+  }
+}
@@ -0,0 +1,131 @@
+package com.sharp.booking_service.component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import com.sharp.booking_service.dto.ManifestFormat;
+import com.sharp.booking_service.dto.ManifestRowDto;
+
+/**
+ * Escribe filas del manifiesto (NDJSON o CSV) a medida que llegan del cursor,
+ * sin acumularlas. Se hace flush cada {@link #FLUSH_EVERY} filas para que el
+ * cliente reciba datos mientras la consulta sigue leyendo.
+ */
+public final class ManifestWriter {
+
+  private static final int FLUSH_EVERY = 500;
+  private static final String CSV_HEADER = "pnr,status,passengerId,firstName,lastName,docType,docNumber";
+
+  private ManifestWriter() {
+  }
+
+  public static long write(Stream<ManifestRowDto> rows, ManifestFormat format, OutputStream out) {
+    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    long count = 0;
+    try {
+      if (format == ManifestFormat.CSV) {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+      }
+      Iterator<ManifestRowDto> iterator = rows.iterator();
+      while (iterator.hasNext()) {
+        ManifestRowDto row = iterator.next();
+        if (format == ManifestFormat.CSV) {
+          writeCsv(writer, row);
+        } else {
+          writeJson(writer, row);
+        }
+        writer.write('\n');
+        if (++count % FLUSH_EVERY == 0) {
+          writer.flush();
+        }
+      }
+      writer.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Manifest export aborted after " + count + " rows", e);
+    }
+    return count;
+  }
+
+  private static void writeJson(Writer writer, ManifestRowDto row) throws IOException {
+    writer.write("{\"pnr\":");
+    jsonValue(writer, row.getPnr());
+    writer.write(",\"status\":");
+    jsonValue(writer, row.getStatus() == null ? null : row.getStatus().name());
+    writer.write(",\"passengerId\":");
+    writer.write(String.valueOf(row.getPassengerId()));
+    writer.write(",\"firstName\":");
+    jsonValue(writer, row.getFirstName());
+    writer.write(",\"lastName\":");
+    jsonValue(writer, row.getLastName());
+    writer.write(",\"docType\":");
+    jsonValue(writer, row.getDocType());
+    writer.write(",\"docNumber\":");
+    jsonValue(writer, row.getDocNumber());
+    writer.write('}');
+  }
+
+  private static void jsonValue(Writer writer, String value) throws IOException {
+    if (value == null) {
+      writer.write("null");
+      return;
+    }
+    writer.write('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"' -> writer.write("\\\"");
+        case '\\' -> writer.write("\\\\");
+        case '\n' -> writer.write("\\n");
+        case '\r' -> writer.write("\\r");
+        case '\t' -> writer.write("\\t");
+        default -> {
+          if (c < 0x20) {
+            writer.write(String.format("\\u%04x", (int) c));
+          } else {
+            writer.write(c);
+          }
+        }
+      }
+    }
+    writer.write('"');
+  }
+
+  private static void writeCsv(Writer writer, ManifestRowDto row) throws IOException {
+    csvValue(writer, row.getPnr());
+    writer.write(',');
+    csvValue(writer, row.getStatus() == null ? null : row.getStatus().name());
+    writer.write(',');
+    csvValue(writer, row.getPassengerId() == null ? null : row.getPassengerId().toString());
+    writer.write(',');
+    csvValue(writer, row.getFirstName());
+    writer.write(',');
+    csvValue(writer, row.getLastName());
+    writer.write(',');
+    csvValue(writer, row.getDocType());
+    writer.write(',');
+    csvValue(writer, row.getDocNumber());
+  }
+
+  private static void csvValue(Writer writer, String value) throws IOException {
+    if (value == null) {
+      return;
+    }
+    boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+        || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+    if (!quote) {
+      writer.write(value);
+      return;
+    }
+    writer.write('"');
+    writer.write(value.replace("\"", "\"\""));
+    writer.write('"');
+  }
+}
@@ -0,0 +1,331 @@
+package com.sharp.booking_service.component;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache de respuestas JSON ya serializadas, fuera del heap.
+ *
+ * La memoria son slabs de {@code ByteBuffer.allocateDirect} que se reservan a
+ * demanda hasta el tope configurado. Cada slab se corta en paginas de una sola
+ * clase de tamaño (256 B .. 16 KB, estilo memcached) y cada entrada ocupa una
+ * pagina. Cuando una clase se queda sin paginas se desaloja su entrada menos
+ * usada (LRU por clase). Las respuestas mas grandes que la clase mayor no se cachean.
+ *
+ * Con el tope alcanzado, los slabs se mueven entre clases: una clase sin
+ * entradas toma enseguida el slab mas frio de otra; una que ya tiene, solo si
+ * la entrada menos usada de la otra es mas vieja que la suya y como mucho una
+ * vez cada {@code rebalance-ms} (mover un slab desaloja todas sus entradas).
+ *
+ * En el heap solo queda el indice (key -> slab/offset/largo); leer una entrada
+ * copia los bytes a un byte[] del tamaño exacto de la respuesta.
+ *
+ * La invalidacion es local al nodo: un cambio hecho en otro nodo no llega, y
+ * esta copia puede servir la respuesta vieja hasta {@code ttl-seconds}.
+ */
+@Slf4j
+@Component
+public class OffHeapResponseCache {
+
+  private static final int[] PAGE_SIZES = {256, 512, 1024, 2048, 4096, 8192, 16384};
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final List<ByteBuffer> slabs = new ArrayList<>();
+  // clase de paginas en la que esta cortado cada slab
+  private final List<Integer> slabClasses = new ArrayList<>();
+  private final List<ArrayDeque<Long>> freePages = new ArrayList<>(PAGE_SIZES.length);
+  private final List<LinkedHashMap<String, Entry>> lru = new ArrayList<>(PAGE_SIZES.length);
+  private final Map<String, Entry> index = new HashMap<>();
+  private final Map<Long, String> keysByBooking = new HashMap<>();
+  private final int slabBytes;
+  private final int maxSlabs;
+  private final long ttlNanos;
+  private final long rebalanceNanos;
+  private final boolean enabled;
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter evictions;
+  private final Counter slabMoves;
+  private long usedBytes;
+  private long lastMoveNanos;
+  // sube con cada invalidacion; un put con una generacion vieja se descarta
+  private volatile long generation;
+
+  public OffHeapResponseCache(MeterRegistry meterRegistry,
+      @Value("${booking.pnr-cache.enabled:true}") boolean enabled,
+      @Value("${booking.pnr-cache.capacity-mb:64}") int capacityMb,
+      @Value("${booking.pnr-cache.slab-kb:1024}") int slabKb,
+      @Value("${booking.pnr-cache.ttl-seconds:60}") long ttlSeconds,
+      @Value("${booking.pnr-cache.rebalance-ms:10000}") long rebalanceMs) {
+    this.enabled = enabled;
+    this.slabBytes = slabKb * 1024;
+    this.maxSlabs = Math.max(1, (int) ((long) capacityMb * 1024 * 1024 / slabBytes));
+    this.ttlNanos = ttlSeconds * 1_000_000_000L;
+    this.rebalanceNanos = rebalanceMs * 1_000_000L;
+    this.lastMoveNanos = System.nanoTime() - rebalanceNanos;
+    for (int i = 0; i < PAGE_SIZES.length; i++) {
+      freePages.add(new ArrayDeque<>());
+      lru.add(new LinkedHashMap<>(16, 0.75f, true));
+    }
+    this.hits = Counter.builder("booking.pnr.cache.requests").tag("result", "hit").register(meterRegistry);
+    this.misses = Counter.builder("booking.pnr.cache.requests").tag("result", "miss").register(meterRegistry);
+    this.evictions = Counter.builder("booking.pnr.cache.evictions").register(meterRegistry);
+    this.slabMoves = Counter.builder("booking.pnr.cache.slab.moves").register(meterRegistry);
+    meterRegistry.gauge("booking.pnr.cache.used.bytes", this, OffHeapResponseCache::usedBytes);
+    meterRegistry.gauge("booking.pnr.cache.reserved.bytes", this, OffHeapResponseCache::reservedBytes);
+  }
+
+  public byte[] get(String key) {
+    if (!enabled) {
+      return null;
+    }
+    lock.lock();
+    try {
+      Entry entry = index.get(key);
+      if (entry == null || entry.expiresAtNanos - System.nanoTime() < 0) {
+        if (entry != null) {
+          remove(entry);
+        }
+        misses.increment();
+        return null;
+      }
+      lru.get(entry.pageClass).get(key);
+      entry.accessedAtNanos = System.nanoTime();
+      byte[] bytes = new byte[entry.length];
+      slabs.get(entry.slab).get(entry.offset, bytes);
+      hits.increment();
+      return bytes;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Tomar antes de leer la BD y pasarla a {@link #put}: si entre medio hubo una
+   * invalidacion, lo leido puede estar viejo y no se cachea.
+   */
+  public long generation() {
+    return generation;
+  }
+
+  public void put(String key, Long bookingId, byte[] bytes, long readGeneration) {
+    if (!enabled) {
+      return;
+    }
+    int pageClass = pageClassFor(bytes.length);
+    if (pageClass < 0) {
+      return;
+    }
+    lock.lock();
+    try {
+      if (generation != readGeneration) {
+        return;
+      }
+      Entry previous = index.get(key);
+      if (previous != null) {
+        remove(previous);
+      }
+      Long page = takePage(pageClass);
+      if (page == null) {
+        return;
+      }
+      int slab = (int) (page >>> 32);
+      int offset = (int) (long) page;
+      slabs.get(slab).put(offset, bytes);
+
+      long now = System.nanoTime();
+      Entry entry = new Entry(key, bookingId, pageClass, slab, offset, bytes.length, now + ttlNanos, now);
+      index.put(key, entry);
+      lru.get(pageClass).put(key, entry);
+      if (bookingId != null) {
+        keysByBooking.put(bookingId, key);
+      }
+      usedBytes += bytes.length;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public void invalidate(String key) {
+    lock.lock();
+    try {
+      generation++;
+      Entry entry = index.get(key);
+      if (entry != null) {
+        remove(entry);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public void invalidateBooking(Long bookingId) {
+    lock.lock();
+    try {
+      generation++;
+      String key = keysByBooking.get(bookingId);
+      if (key != null) {
+        invalidate(key);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private Long takePage(int pageClass) {
+    ArrayDeque<Long> free = freePages.get(pageClass);
+    if (free.isEmpty() && slabs.size() < maxSlabs) {
+      slabs.add(ByteBuffer.allocateDirect(slabBytes));
+      slabClasses.add(pageClass);
+      carveSlab(slabs.size() - 1, pageClass);
+      log.debug("Reserved off-heap slab {} for {} byte pages", slabs.size() - 1, PAGE_SIZES[pageClass]);
+    }
+    if (free.isEmpty()) {
+      rebalance(pageClass);
+    }
+    if (free.isEmpty()) {
+      Entry eldest = eldest(pageClass);
+      if (eldest == null) {
+        return null;
+      }
+      remove(eldest);
+      evictions.increment();
+    }
+    return free.poll();
+  }
+
+  /**
+   * Pasa a {@code pageClass} el slab de la entrada menos usada de la clase mas
+   * fria, si conviene mas que desalojar en la propia clase.
+   */
+  private void rebalance(int pageClass) {
+    long now = System.nanoTime();
+    Entry own = eldest(pageClass);
+    if (own != null && now - lastMoveNanos < rebalanceNanos) {
+      return;
+    }
+
+    int donor = -1;
+    int donorSlab = -1;
+    Entry donorEldest = null;
+    for (int c = 0; c < PAGE_SIZES.length; c++) {
+      if (c == pageClass) {
+        continue;
+      }
+      Entry candidate = eldest(c);
+      if (candidate == null) {
+        // un slab sin entradas es el mejor donante
+        int slab = slabClasses.indexOf(c);
+        if (slab >= 0) {
+          donor = c;
+          donorSlab = slab;
+          break;
+        }
+        continue;
+      }
+      Entry reference = donor < 0 ? own : donorEldest;
+      if (reference == null || candidate.accessedAtNanos - reference.accessedAtNanos < 0) {
+        donor = c;
+        donorSlab = candidate.slab;
+        donorEldest = candidate;
+      }
+    }
+    if (donor < 0) {
+      return;
+    }
+
+    List<Entry> moved = new ArrayList<>();
+    for (Entry entry : lru.get(donor).values()) {
+      if (entry.slab == donorSlab) {
+        moved.add(entry);
+      }
+    }
+    moved.forEach(this::remove);
+    evictions.increment(moved.size());
+    int slab = donorSlab;
+    freePages.get(donor).removeIf(page -> (int) (page >>> 32) == slab);
+    slabClasses.set(slab, pageClass);
+    carveSlab(slab, pageClass);
+    lastMoveNanos = now;
+    slabMoves.increment();
+    log.debug("Moved off-heap slab {} from {} to {} byte pages ({} entries evicted)",
+        slab, PAGE_SIZES[donor], PAGE_SIZES[pageClass], moved.size());
+  }
+
+  private Entry eldest(int pageClass) {
+    Iterator<Entry> it = lru.get(pageClass).values().iterator();
+    return it.hasNext() ? it.next() : null;
+  }
+
+  private void carveSlab(int slab, int pageClass) {
+    int pageSize = PAGE_SIZES[pageClass];
+    ArrayDeque<Long> free = freePages.get(pageClass);
+    for (int offset = 0; offset + pageSize <= slabBytes; offset += pageSize) {
+      free.add(((long) slab << 32) | offset);
+    }
+  }
+
+  private void remove(Entry entry) {
+    index.remove(entry.key);
+    lru.get(entry.pageClass).remove(entry.key);
+    if (entry.bookingId != null) {
+      keysByBooking.remove(entry.bookingId, entry.key);
+    }
+    freePages.get(entry.pageClass).add(((long) entry.slab << 32) | entry.offset);
+    usedBytes -= entry.length;
+  }
+
+  private double usedBytes() {
+    return usedBytes;
+  }
+
+  private double reservedBytes() {
+    return (double) slabs.size() * slabBytes;
+  }
+
+  private static int pageClassFor(int length) {
+    for (int i = 0; i < PAGE_SIZES.length; i++) {
+      if (length <= PAGE_SIZES[i]) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static final class Entry {
+    private final String key;
+    private final Long bookingId;
+    private final int pageClass;
+    private final int slab;
+    private final int offset;
+    private final int length;
+    private final long expiresAtNanos;
+    private long accessedAtNanos;
+
+    Entry(String key, Long bookingId, int pageClass, int slab, int offset, int length, long expiresAtNanos,
+        long accessedAtNanos) {
+      this.key = key;
+      this.bookingId = bookingId;
+      this.pageClass = pageClass;
+      this.slab = slab;
+      this.offset = offset;
+      this.length = length;
+      this.expiresAtNanos = expiresAtNanos;
+      this.accessedAtNanos = accessedAtNanos;
+    }
+  }
+}
@@ -0,0 +1,223 @@
+package com.sharp.booking_service.component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sharp.booking_service.dto.BookingEventDto;
+import com.sharp.booking_service.models.OutboxEvent;
+import com.sharp.booking_service.models.OutboxLease;
+import com.sharp.booking_service.repository.IOutboxEventRepository;
+import com.sharp.booking_service.repository.IOutboxLeaseRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Vacia {@code booking_outbox} hacia el {@link OutboxSink} configurado, por
+ * lotes y en orden de eventId.
+ *
+ * Entrega al-menos-una-vez: el lote se borra solo despues de que el sink lo
+ * acepta; si el borrado o el nodo fallan entre medio, se vuelve a enviar. Un
+ * lease en BD hace que publique un solo nodo a la vez. Entre nodos los ids no
+ * siguen el orden de commit, asi que el orden de un mismo booking lo da
+ * {@code bookingVersion}.
+ *
+ * Con {@code booking.outbox.sink=none} no hay sink ni se escriben eventos
+ * (ver {@link BookingOutbox}). Si el sink falla por mas de
+ * {@code retention-hours}, {@link #purgeExpired()} descarta lo mas viejo y lo
+ * cuenta en {@code booking.outbox.purged}: la entrega es al-menos-una-vez
+ * dentro de esa ventana.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+  private static final String LEASE = "relay";
+  private static final Set<String> SINKS = Set.of("none", "file", "http");
+
+  private final IOutboxEventRepository outboxRepository;
+  private final IOutboxLeaseRepository leaseRepository;
+  private final Optional<OutboxSink> sink;
+  private final TransactionTemplate transactionTemplate;
+  private final int batchSize;
+  private final Duration leaseDuration;
+  private final String owner;
+  private final Timer lag;
+  private final Counter published;
+  private final Counter failures;
+  private final Counter purged;
+  private final Duration retention;
+  private final AtomicLong oldestPendingMillis = new AtomicLong();
+
+  public OutboxRelay(IOutboxEventRepository outboxRepository,
+      IOutboxLeaseRepository leaseRepository,
+      Optional<OutboxSink> sink,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry,
+      @Value("${booking.outbox.sink}") String sinkName,
+      @Value("${booking.outbox.batch-size:200}") int batchSize,
+      @Value("${booking.outbox.lease-seconds:30}") long leaseSeconds,
+      @Value("${booking.outbox.retention-hours:168}") long retentionHours) {
+    if (!SINKS.contains(sinkName)) {
+      throw new IllegalStateException("booking.outbox.sink must be one of " + SINKS + ", was: " + sinkName);
+    }
+    if (sink.isEmpty()) {
+      log.warn("No booking outbox sink configured: booking events are not recorded");
+    }
+    this.outboxRepository = outboxRepository;
+    this.leaseRepository = leaseRepository;
+    this.sink = sink;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.batchSize = batchSize;
+    this.leaseDuration = Duration.ofSeconds(leaseSeconds);
+    this.owner = hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    this.lag = Timer.builder("booking.outbox.lag")
+        .description("Time between a booking event being written and the sink accepting it")
+        .publishPercentiles(0.5, 0.99)
+        .register(meterRegistry);
+    this.published = Counter.builder("booking.outbox.published").register(meterRegistry);
+    this.failures = Counter.builder("booking.outbox.failures").register(meterRegistry);
+    this.purged = Counter.builder("booking.outbox.purged")
+        .description("Undelivered booking events dropped after the retention window")
+        .register(meterRegistry);
+    this.retention = Duration.ofHours(retentionHours);
+    meterRegistry.gauge("booking.outbox.oldest.pending.ms", oldestPendingMillis);
+  }
+
+  @Scheduled(fixedDelayString = "${booking.outbox.poll-ms:500}")
+  public void drain() {
+    if (sink.isEmpty()) {
+      updateOldestPending();
+      return;
+    }
+    try {
+      while (acquireLease()) {
+        List<OutboxEvent> batch = outboxRepository.findByOrderByEventIdAsc(Limit.of(batchSize));
+        if (batch.isEmpty()) {
+          break;
+        }
+
+        // fuera de toda transaccion: no se retienen locks mientras el sink responde
+        sink.get().publish(batch.stream().map(OutboxRelay::toDto).toList());
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.deleteAllInBatch(batch));
+
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxEvent event : batch) {
+          lag.record(Duration.between(event.getOccurredAt(), now));
+        }
+        published.increment(batch.size());
+        if (batch.size() < batchSize) {
+          break;
+        }
+      }
+    } catch (RuntimeException e) {
+      failures.increment();
+      log.warn("Outbox relay failed, will retry: {}", e.getMessage());
+    }
+    updateOldestPending();
+  }
+
+  /**
+   * Borra, en orden de eventId, los eventos sin entregar mas viejos que
+   * {@code retention-hours}. Corre en el nodo que tiene el lease; se detiene en
+   * el primer lote con algun evento todavia en la ventana.
+   */
+  @Scheduled(fixedDelayString = "${booking.outbox.purge-ms:3600000}",
+      initialDelayString = "${booking.outbox.purge-ms:3600000}")
+  public void purgeExpired() {
+    try {
+      long dropped = 0;
+      while (acquireLease()) {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        List<OutboxEvent> batch = outboxRepository.findByOrderByEventIdAsc(Limit.of(batchSize));
+        List<OutboxEvent> expired = batch.stream()
+            .filter(event -> event.getOccurredAt().isBefore(cutoff))
+            .toList();
+        if (!expired.isEmpty()) {
+          transactionTemplate.executeWithoutResult(status -> outboxRepository.deleteAllInBatch(expired));
+          dropped += expired.size();
+        }
+        if (expired.size() < batchSize) {
+          break;
+        }
+      }
+      if (dropped > 0) {
+        purged.increment(dropped);
+        log.warn("Dropped {} undelivered booking events older than {}", dropped, retention);
+      }
+    } catch (RuntimeException e) {
+      log.warn("Outbox purge failed, will retry: {}", e.getMessage());
+    }
+    updateOldestPending();
+  }
+
+  private boolean acquireLease() {
+    LocalDateTime now = LocalDateTime.now();
+    LocalDateTime until = now.plus(leaseDuration);
+    Integer acquired = transactionTemplate.execute(status -> leaseRepository.acquire(LEASE, owner, now, until));
+    if (acquired != null && acquired == 1) {
+      return true;
+    }
+    if (leaseRepository.existsById(LEASE)) {
+      return false;
+    }
+    try {
+      leaseRepository.save(OutboxLease.builder().name(LEASE).owner(owner).leaseUntil(until).build());
+      return true;
+    } catch (DataIntegrityViolationException e) {
+      // otro nodo lo creo primero
+      return false;
+    }
+  }
+
+  private void updateOldestPending() {
+    try {
+      long age = outboxRepository.findFirstByOrderByEventIdAsc()
+          .map(event -> Math.max(0, event.getOccurredAt().until(LocalDateTime.now(), ChronoUnit.MILLIS)))
+          .orElse(0L);
+      oldestPendingMillis.set(age);
+    } catch (RuntimeException e) {
+      log.debug("Could not read outbox backlog: {}", e.getMessage());
+    }
+  }
+
+  private static BookingEventDto toDto(OutboxEvent event) {
+    return BookingEventDto.builder()
+        .eventId(event.getEventId())
+        .type(event.getEventType())
+        .bookingId(event.getBookingId())
+        .pnr(event.getPnr())
+        .flightInstanceId(event.getFlightInstanceId())
+        .status(event.getStatus())
+        .passengerCount(event.getPassengerCount())
+        .bookingVersion(event.getBookingVersion())
+        .occurredAt(event.getOccurredAt())
+        .build();
+  }
+
+  private static String hostName() {
+    try {
+      return InetAddress.getLocalHost().getHostName();
+    } catch (UnknownHostException e) {
+      return "unknown";
+    }
+  }
+}
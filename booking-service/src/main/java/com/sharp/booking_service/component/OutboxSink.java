@@ -0,0 +1,14 @@
+package com.sharp.booking_service.component;
+
+import java.util.List;
+
+import com.sharp.booking_service.dto.BookingEventDto;
+
+/**
+ * Destino de los eventos del outbox. Volver sin excepcion es el ack del lote
+ * entero; si lanza, el lote se reintenta completo.
+ */
+public interface OutboxSink {
+
+  void publish(List<BookingEventDto> events);
+}
@@ -0,0 +1,273 @@
+package com.sharp.booking_service.component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sharp.booking_service.models.PnrSequence;
+import com.sharp.booking_service.repository.IBookingRepository;
+import com.sharp.booking_service.repository.IPnrSequenceRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Entrega PNR unicos por construccion.
+ *
+ * Cada nodo reserva bloques de la secuencia compartida {@code pnr_sequence}
+ * (un UPDATE + un SELECT por bloque) y convierte cada valor en un codigo con
+ * {@link PnrCodec}. No hace falta consultar existsByPnr por reserva: solo se
+ * consulta la BD cuando el codigo cae en el filtro de codigos antiguos/importados.
+ *
+ * El filtro guarda solo los codigos que el allocator todavia podria entregar:
+ * los que decodifican a un valor por encima de la secuencia al arrancar. Los ya
+ * entregados y los que no usan el alfabeto nunca chocan, asi que no gastan
+ * espacio ni suben la tasa de falsos positivos. Hasta que el filtro termina de
+ * cargarse no se entrega ningun PNR. Un codigo importado con el servicio
+ * corriendo se ve en el proximo arranque.
+ *
+ * El bloque siguiente se reserva por adelantado, a mitad del actual, en un
+ * hilo propio: la transaccion del bloque no queda anidada en la del request
+ * (que ya tiene su conexion del pool) y el lock no se toma mientras se habla
+ * con la BD salvo que el bloque adelantado todavia no haya llegado.
+ */
+@Slf4j
+@Component
+public class PnrAllocator {
+
+  private static final String SEQUENCE_NAME = "booking_pnr";
+
+  private final IPnrSequenceRepository sequenceRepository;
+  private final IBookingRepository bookingRepository;
+  private final TransactionTemplate blockTransaction;
+  private final ExecutorService reserver = Executors.newSingleThreadExecutor(
+      Thread.ofPlatform().name("pnr-block-reserver").daemon().factory());
+  private final TransactionTemplate readTransaction;
+  private final PnrCodec codec;
+  private final PnrFilter importedCodes;
+  private final CountDownLatch loaded = new CountDownLatch(1);
+  private final int blockSize;
+  private final long reserveTimeoutMs;
+  private final long loadTimeoutMs;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private long next;
+  private long limit;
+  // bloque siguiente, pedido antes de que se agote el actual
+  private CompletableFuture<Long> upcoming;
+
+  public PnrAllocator(IPnrSequenceRepository sequenceRepository,
+      IBookingRepository bookingRepository,
+      PlatformTransactionManager transactionManager,
+      @Value("${booking.pnr.key}") long key,
+      @Value("${booking.pnr.block-size:1000}") int blockSize,
+      @Value("${booking.pnr.reserve-timeout-ms:5000}") long reserveTimeoutMs,
+      @Value("${booking.pnr.load-timeout-ms:30000}") long loadTimeoutMs,
+      @Value("${booking.pnr.filter.expected-codes:1000000}") long expectedCodes) {
+    if (key == 0) {
+      // con una clave conocida los PNR salen en orden de la secuencia y se pueden adivinar
+      throw new IllegalStateException("booking.pnr.key must be set to a secret, non-zero value");
+    }
+    this.sequenceRepository = sequenceRepository;
+    this.bookingRepository = bookingRepository;
+    // corre en el hilo del reserver, nunca dentro de la transaccion de un request
+    this.blockTransaction = new TransactionTemplate(transactionManager);
+    this.readTransaction = new TransactionTemplate(transactionManager);
+    this.readTransaction.setReadOnly(true);
+    this.codec = new PnrCodec(key);
+    this.importedCodes = new PnrFilter(expectedCodes, 0.001);
+    this.blockSize = blockSize;
+    this.reserveTimeoutMs = reserveTimeoutMs;
+    this.loadTimeoutMs = loadTimeoutMs;
+  }
+
+  public String next() {
+    while (true) {
+      String pnr = codec.encode(nextValue());
+      if (!isTaken(pnr)) {
+        return pnr;
+      }
+    }
+  }
+
+  /**
+   * Entrega {@code count} PNR tomando los valores de la secuencia bajo un solo lock.
+   */
+  public List<String> next(int count) {
+    long[] values = nextValues(count);
+    List<String> pnrs = new ArrayList<>(count);
+    for (long value : values) {
+      String pnr = codec.encode(value);
+      pnrs.add(isTaken(pnr) ? next() : pnr);
+    }
+    return pnrs;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void loadExistingCodes() {
+    long[] counts = readTransaction.execute(status -> {
+      // lo que se entregue despues sale de valores >= a este
+      long issued = sequenceRepository.findById(SEQUENCE_NAME).map(PnrSequence::getNextValue).orElse(0L);
+      long[] seen = {0, 0};
+      try (Stream<String> pnrs = bookingRepository.streamAllPnrs()) {
+        pnrs.forEach(pnr -> {
+          seen[0]++;
+          if (codec.decode(pnr) >= issued) {
+            importedCodes.add(pnr);
+            seen[1]++;
+          }
+        });
+      }
+      return seen;
+    });
+    loaded.countDown();
+    log.info("Loaded {} of {} existing PNRs into allocator filter ({} bytes)",
+        counts[1], counts[0], importedCodes.sizeInBytes());
+
+    // el primer bloque, antes de la primera reserva
+    lock.lock();
+    try {
+      if (upcoming == null && next >= limit) {
+        upcoming = reserveAhead();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @PreDestroy
+  void stop() {
+    reserver.shutdownNow();
+  }
+
+  private boolean isTaken(String pnr) {
+    if (!importedCodes.mightContain(pnr) || !bookingRepository.existsByPnr(pnr)) {
+      return false;
+    }
+    log.debug("Skipping PNR {} already used by an imported booking", pnr);
+    return true;
+  }
+
+  private void awaitLoaded() {
+    try {
+      if (!loaded.await(loadTimeoutMs, TimeUnit.MILLISECONDS)) {
+        throw new IllegalStateException("PNR allocator is still loading existing codes");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for the PNR allocator to load");
+    }
+  }
+
+  private long nextValue() {
+    return nextValues(1)[0];
+  }
+
+  // ReentrantLock y no synchronized: si el bloque adelantado no llego se espera con el lock
+  // tomado, y eso no debe fijar el carrier de un virtual thread
+  private long[] nextValues(int count) {
+    awaitLoaded();
+    lock.lock();
+    try {
+      long[] values = new long[count];
+      for (int i = 0; i < count; i++) {
+        if (next >= limit) {
+          switchBlock();
+        }
+        values[i] = next++;
+      }
+      if (upcoming == null && limit - next <= blockSize / 2) {
+        upcoming = reserveAhead();
+      }
+      return values;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void switchBlock() {
+    if (upcoming == null || upcoming.isCompletedExceptionally()) {
+      upcoming = reserveAhead();
+    }
+    CompletableFuture<Long> block = upcoming;
+    long start;
+    try {
+      start = await(block);
+    } catch (RuntimeException e) {
+      if (block.isDone()) {
+        // fallo: el proximo pedido vuelve a intentar; si solo tardo, sigue en curso
+        upcoming = null;
+      }
+      throw e;
+    }
+    upcoming = null;
+    next = start;
+    limit = start + blockSize;
+  }
+
+  private CompletableFuture<Long> reserveAhead() {
+    return CompletableFuture.supplyAsync(this::reserveBlock, reserver);
+  }
+
+  private long await(CompletableFuture<Long> block) {
+    try {
+      return block.get(reserveTimeoutMs, TimeUnit.MILLISECONDS);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException(e.getCause());
+    } catch (TimeoutException e) {
+      throw new IllegalStateException("Timed out reserving a PNR block");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while reserving a PNR block");
+    }
+  }
+
+  private long reserveBlock() {
+    long start;
+    try {
+      start = advanceSequence();
+    } catch (DataIntegrityViolationException e) {
+      // otro nodo creo la fila de la secuencia al mismo tiempo
+      start = advanceSequence();
+    }
+
+    if (start + blockSize > PnrCodec.DOMAIN) {
+      throw new IllegalStateException("PNR sequence exhausted");
+    }
+
+    log.info("Reserved PNR block [{}, {})", start, start + blockSize);
+    return start;
+  }
+
+  private long advanceSequence() {
+    return blockTransaction.execute(status -> {
+      if (sequenceRepository.advance(SEQUENCE_NAME, blockSize) == 0) {
+        sequenceRepository.saveAndFlush(PnrSequence.builder()
+            .name(SEQUENCE_NAME)
+            .nextValue((long) blockSize)
+            .build());
+        return 0L;
+      }
+      return sequenceRepository.findById(SEQUENCE_NAME).orElseThrow().getNextValue() - blockSize;
+    });
+  }
+}
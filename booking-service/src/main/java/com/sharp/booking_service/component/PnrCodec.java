@@ -0,0 +1,104 @@
+package com.sharp.booking_service.component;
+
+/**
+ * Biyeccion con clave entre [0, 32^6) y los PNR de 6 caracteres.
+ *
+ * 32^6 = 2^30, asi que una red Feistel de 4 rondas sobre dos mitades de 15 bits
+ * permuta el dominio completo: valores distintos de la secuencia dan siempre
+ * codigos distintos, y consecutivos no se parecen entre si.
+ */
+public final class PnrCodec {
+
+  public static final String ALPHABET = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789";
+  public static final int LENGTH = 6;
+  public static final long DOMAIN = 1L << 30;
+
+  private static final int HALF_BITS = 15;
+  private static final int HALF_MASK = (1 << HALF_BITS) - 1;
+  private static final int ROUNDS = 4;
+
+  private final int[] roundKeys = new int[ROUNDS];
+
+  public PnrCodec(long key) {
+    long k = key;
+    for (int i = 0; i < ROUNDS; i++) {
+      k = mix64(k + 0x9E3779B97F4A7C15L);
+      roundKeys[i] = (int) k;
+    }
+  }
+
+  public String encode(long value) {
+    if (value < 0 || value >= DOMAIN) {
+      throw new IllegalArgumentException("PNR sequence value out of range: " + value);
+    }
+    int permuted = permute((int) value);
+    char[] chars = new char[LENGTH];
+    for (int i = LENGTH - 1; i >= 0; i--) {
+      chars[i] = ALPHABET.charAt(permuted & 31);
+      permuted >>>= 5;
+    }
+    return new String(chars);
+  }
+
+  /**
+   * Valor de la secuencia que produce {@code pnr}, o -1 si no usa el alfabeto.
+   */
+  public long decode(String pnr) {
+    int bits = toBits(pnr);
+    return bits < 0 ? -1 : unpermute(bits);
+  }
+
+  /**
+   * Valor de 30 bits de un PNR (sin deshacer la permutacion), o -1 si no usa el alfabeto.
+   */
+  public static int toBits(String pnr) {
+    if (pnr == null || pnr.length() != LENGTH) {
+      return -1;
+    }
+    int bits = 0;
+    for (int i = 0; i < LENGTH; i++) {
+      int idx = ALPHABET.indexOf(pnr.charAt(i));
+      if (idx < 0) {
+        return -1;
+      }
+      bits = (bits << 5) | idx;
+    }
+    return bits;
+  }
+
+  private int permute(int value) {
+    int left = (value >>> HALF_BITS) & HALF_MASK;
+    int right = value & HALF_MASK;
+    for (int i = 0; i < ROUNDS; i++) {
+      int next = left ^ round(right, roundKeys[i]);
+      left = right;
+      right = next;
+    }
+    return (left << HALF_BITS) | right;
+  }
+
+  private int unpermute(int value) {
+    int left = (value >>> HALF_BITS) & HALF_MASK;
+    int right = value & HALF_MASK;
+    for (int i = ROUNDS - 1; i >= 0; i--) {
+      int previous = right ^ round(left, roundKeys[i]);
+      right = left;
+      left = previous;
+    }
+    return (left << HALF_BITS) | right;
+  }
+
+  private static int round(int half, int key) {
+    int h = half * 0x9E3779B1 ^ key;
+    h ^= h >>> 15;
+    h *= 0x85EBCA6B;
+    h ^= h >>> 13;
+    return h & HALF_MASK;
+  }
+
+  static long mix64(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
@@ -0,0 +1,60 @@
+package com.sharp.booking_service.component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom para PNR que no salieron del allocator (reservas antiguas,
+ * importaciones). Un "no" es definitivo; un "quizas" se confirma contra la BD.
+ */
+public final class PnrFilter {
+
+  private final AtomicLongArray bits;
+  private final long bitCount;
+  private final int hashes;
+
+  public PnrFilter(long expectedCodes, double falsePositiveRate) {
+    long n = Math.max(1, expectedCodes);
+    long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+    int words = (int) Math.max(1, (m + 63) >>> 6);
+    this.bits = new AtomicLongArray(words);
+    this.bitCount = (long) words << 6;
+    this.hashes = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+  }
+
+  public void add(String pnr) {
+    long h = hash(pnr);
+    int h1 = (int) h;
+    int h2 = (int) (h >>> 32);
+    for (int i = 0; i < hashes; i++) {
+      long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+      int word = (int) (bit >>> 6);
+      long mask = 1L << bit;
+      long current = bits.get(word);
+      while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+        current = bits.get(word);
+      }
+    }
+  }
+
+  public boolean mightContain(String pnr) {
+    long h = hash(pnr);
+    int h1 = (int) h;
+    int h2 = (int) (h >>> 32);
+    for (int i = 0; i < hashes; i++) {
+      long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+      if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public long sizeInBytes() {
+    return bitCount >>> 3;
+  }
+
+  private static long hash(String pnr) {
+    int bits = PnrCodec.toBits(pnr);
+    return PnrCodec.mix64(bits >= 0 ? bits : pnr.hashCode() ^ 0xC2B2AE3D27D4EB4FL);
+  }
+}
@@ -0,0 +1,253 @@
+package com.sharp.booking_service.component;
+
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sharp.booking_service.client.CachingFlightClient;
+import com.sharp.booking_service.controllers.SeatsUnavailableException;
+import com.sharp.booking_service.dto.FlightInstanceDto;
+import com.sharp.booking_service.dto.SeatAvailabilityDto;
+import com.sharp.booking_service.models.BookingStatus;
+import com.sharp.booking_service.repository.IBookingRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Inventario de asientos por flightInstanceId sobre {@code booking_flight_seats}.
+ *
+ * La admision es un UPDATE condicional sobre la fila del vuelo en una
+ * transaccion propia y corta: el lock de la fila dura lo que el UPDATE, no lo
+ * que la reserva, y la BD serializa a todos los nodos. Si la transaccion de la
+ * reserva hace rollback, una compensacion devuelve los asientos. Las
+ * liberaciones (expiraciones, cancelaciones, confirmaciones) se aplican despues
+ * del commit, tambien en su propia transaccion. Mientras tanto la fila cuenta
+ * de mas, nunca de menos: un nodo que cae entre la admision y el commit deja
+ * esos asientos tomados, pero no hay sobreventa.
+ *
+ * Cada admision toma una segunda conexion del pool por lo que dura el UPDATE.
+ *
+ * La fila se crea con el primer asiento que se pide en el vuelo: capacidad
+ * desde flight-service (antes de abrir la transaccion) y asientos HELD/CONFIRMED
+ * contados desde booking.
+ */
+@Slf4j
+@Component
+public class SeatInventory {
+
+  private static final List<BookingStatus> OCCUPYING = List.of(BookingStatus.HELD, BookingStatus.CONFIRMED);
+
+  private static final String ADMIT = "UPDATE booking_flight_seats"
+      + " SET held = GREATEST(held + ?, 0), confirmed = GREATEST(confirmed + ?, 0)"
+      + " WHERE flight_instance_id = ? AND held + confirmed + ? <= capacity";
+  private static final String APPLY = "UPDATE booking_flight_seats"
+      + " SET held = GREATEST(held + ?, 0), confirmed = GREATEST(confirmed + ?, 0)"
+      + " WHERE flight_instance_id = ?";
+  private static final String SELECT_SEATS = "SELECT capacity, held, confirmed FROM booking_flight_seats"
+      + " WHERE flight_instance_id = ?";
+  private static final String INSERT_SEATS = "INSERT INTO booking_flight_seats"
+      + " (flight_instance_id, capacity, held, confirmed) VALUES (?, ?, ?, ?)"
+      + " ON DUPLICATE KEY UPDATE flight_instance_id = flight_instance_id";
+
+  private final IBookingRepository bookingRepository;
+  private final CachingFlightClient flightClient;
+  private final JdbcTemplate jdbcTemplate;
+  // siempre una transaccion nueva: no hereda la de la reserva ni sus locks
+  private final TransactionTemplate seatTransaction;
+
+  public SeatInventory(IBookingRepository bookingRepository,
+      CachingFlightClient flightClient,
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager) {
+    this.bookingRepository = bookingRepository;
+    this.flightClient = flightClient;
+    this.jdbcTemplate = jdbcTemplate;
+    this.seatTransaction = new TransactionTemplate(transactionManager);
+    this.seatTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
+  public void hold(Long flightInstanceId, int seats) {
+    change(flightInstanceId, seats, 0);
+  }
+
+  public void confirm(Long flightInstanceId, int seats) {
+    change(flightInstanceId, -seats, seats);
+  }
+
+  public void release(Long flightInstanceId, BookingStatus status, int seats) {
+    change(flightInstanceId, -heldSeats(status, seats), -confirmedSeats(status, seats));
+  }
+
+  /**
+   * Mueve el aporte de una reserva cuando cambian su vuelo, estado o numero de pasajeros.
+   */
+  public void reassign(Long oldFlightInstanceId, BookingStatus oldStatus, int oldSeats,
+      Long newFlightInstanceId, BookingStatus newStatus, int newSeats) {
+    int oldHeld = heldSeats(oldStatus, oldSeats);
+    int oldConfirmed = confirmedSeats(oldStatus, oldSeats);
+    int newHeld = heldSeats(newStatus, newSeats);
+    int newConfirmed = confirmedSeats(newStatus, newSeats);
+
+    if (Objects.equals(oldFlightInstanceId, newFlightInstanceId)) {
+      change(newFlightInstanceId, newHeld - oldHeld, newConfirmed - oldConfirmed);
+    } else {
+      // cada fila en su propia transaccion: nunca se tienen dos locks a la vez
+      change(newFlightInstanceId, newHeld, newConfirmed);
+      change(oldFlightInstanceId, -oldHeld, -oldConfirmed);
+    }
+  }
+
+  public SeatAvailabilityDto getAvailability(Long flightInstanceId) {
+    requireId(flightInstanceId);
+    int[] seats = jdbcTemplate.query(SELECT_SEATS,
+        (rs, rowNum) -> new int[] {rs.getInt(1), rs.getInt(2), rs.getInt(3)}, flightInstanceId)
+        .stream()
+        .findFirst()
+        .orElseGet(() -> count(flightInstanceId));
+    int capacity = seats[0];
+    int held = seats[1];
+    int confirmed = seats[2];
+    return SeatAvailabilityDto.builder()
+        .flightInstanceId(flightInstanceId)
+        .capacity(capacity)
+        .held(held)
+        .confirmed(confirmed)
+        .available(Math.max(0, capacity - held - confirmed))
+        .build();
+  }
+
+  private void change(Long flightInstanceId, int heldDelta, int confirmedDelta) {
+    if (heldDelta == 0 && confirmedDelta == 0) {
+      return;
+    }
+    requireId(flightInstanceId);
+
+    if (heldDelta + confirmedDelta > 0) {
+      admit(flightInstanceId, heldDelta, confirmedDelta);
+      onRollback(() -> apply(flightInstanceId, -heldDelta, -confirmedDelta));
+    } else {
+      // sin fila no hay nada que liberar: al crearla se cuenta desde booking
+      afterCommit(() -> apply(flightInstanceId, heldDelta, confirmedDelta));
+    }
+  }
+
+  private void admit(Long flightInstanceId, int heldDelta, int confirmedDelta) {
+    int total = heldDelta + confirmedDelta;
+    if (tryAdmit(flightInstanceId, heldDelta, confirmedDelta, total)) {
+      return;
+    }
+    if (jdbcTemplate.queryForList(SELECT_SEATS, flightInstanceId).isEmpty()) {
+      create(flightInstanceId);
+      if (tryAdmit(flightInstanceId, heldDelta, confirmedDelta, total)) {
+        return;
+      }
+    }
+    throw new SeatsUnavailableException("Not enough seats available on flight instance: " + flightInstanceId);
+  }
+
+  private boolean tryAdmit(Long flightInstanceId, int heldDelta, int confirmedDelta, int total) {
+    Integer updated = seatTransaction.execute(status ->
+        jdbcTemplate.update(ADMIT, heldDelta, confirmedDelta, flightInstanceId, total));
+    return updated != null && updated == 1;
+  }
+
+  private void apply(Long flightInstanceId, int heldDelta, int confirmedDelta) {
+    try {
+      seatTransaction.executeWithoutResult(status ->
+          jdbcTemplate.update(APPLY, heldDelta, confirmedDelta, flightInstanceId));
+    } catch (RuntimeException e) {
+      // la reserva ya esta commiteada: la fila queda contando de mas
+      log.error("Could not apply seat change ({} held, {} confirmed) to flight instance {}: {}",
+          heldDelta, confirmedDelta, flightInstanceId, e.getMessage());
+    }
+  }
+
+  // si otro nodo la crea a la vez, el INSERT no hace nada y se usa la suya
+  private void create(Long flightInstanceId) {
+    int capacity = capacity(flightInstanceId);
+    seatTransaction.executeWithoutResult(status -> {
+      int[] seats = occupied(flightInstanceId);
+      jdbcTemplate.update(INSERT_SEATS, flightInstanceId, capacity, seats[0], seats[1]);
+      log.debug("Created seat inventory for flight instance {}: capacity={}, held={}, confirmed={}",
+          flightInstanceId, capacity, seats[0], seats[1]);
+    });
+  }
+
+  // {capacity, held, confirmed} de un vuelo que aun no tiene fila
+  private int[] count(Long flightInstanceId) {
+    int[] seats = occupied(flightInstanceId);
+    return new int[] {capacity(flightInstanceId), seats[0], seats[1]};
+  }
+
+  // {held, confirmed} segun los bookings commiteados del vuelo
+  private int[] occupied(Long flightInstanceId) {
+    int held = 0;
+    int confirmed = 0;
+    for (Object[] row : bookingRepository.sumSeatsByFlightInstanceIdGroupByStatus(flightInstanceId, OCCUPYING)) {
+      int seats = ((Number) row[1]).intValue();
+      if (row[0] == BookingStatus.HELD) {
+        held = seats;
+      } else {
+        confirmed = seats;
+      }
+    }
+    return new int[] {held, confirmed};
+  }
+
+  private int capacity(Long flightInstanceId) {
+    FlightInstanceDto flight = flightClient.getFlightInstance(flightInstanceId)
+        .orElseThrow(() -> new IllegalArgumentException("Flight instance not found with id: " + flightInstanceId));
+    if (flight.getCapacity() == null) {
+      throw new IllegalArgumentException("Flight instance has no capacity: " + flightInstanceId);
+    }
+    return flight.getCapacity();
+  }
+
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+
+  private static void onRollback(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        if (status != STATUS_COMMITTED) {
+          action.run();
+        }
+      }
+    });
+  }
+
+  private static void requireId(Long flightInstanceId) {
+    if (flightInstanceId == null) {
+      throw new IllegalArgumentException("Flight instance id is required");
+    }
+  }
+
+  private static int heldSeats(BookingStatus status, int seats) {
+    return status == BookingStatus.HELD ? seats : 0;
+  }
+
+  private static int confirmedSeats(BookingStatus status, int seats) {
+    return status == BookingStatus.CONFIRMED ? seats : 0;
+  }
+}
@@ -0,0 +1,31 @@
+package com.sharp.booking_service.config;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Tasas de muestreo de {@link RequestLog}:
+ *
+ * <pre>
+ * logging.sampling.default-every: 100            # 1 de cada 100 en todos los sitios
+ * logging.sampling.every:
+ *   "[booking]": 10                              # todo lo que empieza con "booking."
+ *   "[booking.createBooking]": 1                 # este sitio siempre
+ * </pre>
+ */
+@Configuration
+public class LogSamplingConfig {
+
+  public LogSamplingConfig(Environment environment,
+      @Value("${logging.sampling.default-every:1}") int defaultEvery) {
+    Map<String, Integer> every = Binder.get(environment)
+        .bind("logging.sampling.every", Bindable.mapOf(String.class, Integer.class))
+        .orElse(Map.of());
+    RequestLog.configure(defaultEvery, every);
+  }
+}
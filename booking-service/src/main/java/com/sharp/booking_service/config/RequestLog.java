@@ -0,0 +1,85 @@
+package com.sharp.booking_service.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.slf4j.spi.NOPLoggingEventBuilder;
+
+/**
+ * Logs de request muestreados por punto de llamada, con campos estructurados.
+ *
+ * <pre>
+ * RequestLog.info(log, "booking.getBookingByPnr").addKeyValue("pnr", pnr).log("GET /api/v1/bookings/pnr/{pnr}");
+ * </pre>
+ *
+ * Cada sitio ({@code "booking.getBookingByPnr"}) registra 1 de cada N llamadas, con N
+ * de {@code logging.sampling.every} (por sitio o por prefijo, ver
+ * {@link LogSamplingConfig}). Lo descartado devuelve el builder NOP de SLF4J:
+ * no se crea el evento ni se formatea nada. Lo registrado lleva
+ * {@code sampleEvery} cuando N > 1 para poder reconstruir los totales.
+ */
+public final class RequestLog {
+
+  private static final ConcurrentHashMap<String, Site> SITES = new ConcurrentHashMap<>();
+
+  private static volatile int defaultEvery = 1;
+  private static volatile Map<String, Integer> overrides = Map.of();
+
+  private RequestLog() {
+  }
+
+  public static LoggingEventBuilder info(Logger log, String site) {
+    if (!log.isInfoEnabled()) {
+      return NOPLoggingEventBuilder.singleton();
+    }
+    int every = site(site).every;
+    if (every <= 1) {
+      return log.atInfo();
+    }
+    if (ThreadLocalRandom.current().nextInt(every) != 0) {
+      return NOPLoggingEventBuilder.singleton();
+    }
+    return log.atInfo().addKeyValue("sampleEvery", every);
+  }
+
+  static void configure(int defaultEvery, Map<String, Integer> overrides) {
+    RequestLog.defaultEvery = Math.max(1, defaultEvery);
+    RequestLog.overrides = Map.copyOf(overrides);
+    SITES.values().forEach(site -> site.every = resolve(site.name));
+  }
+
+  private static Site site(String name) {
+    Site site = SITES.get(name);
+    return site != null ? site : SITES.computeIfAbsent(name, Site::new);
+  }
+
+  // el sitio exacto, y si no el prefijo mas largo: "booking.getBookingByPnr" -> "booking"
+  private static int resolve(String name) {
+    String key = name;
+    while (true) {
+      Integer every = overrides.get(key);
+      if (every != null) {
+        return Math.max(1, every);
+      }
+      int dot = key.lastIndexOf('.');
+      if (dot < 0) {
+        return defaultEvery;
+      }
+      key = key.substring(0, dot);
+    }
+  }
+
+  private static final class Site {
+
+    private final String name;
+    private volatile int every;
+
+    private Site(String name) {
+      this.name = name;
+      this.every = resolve(name);
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package com.sharp.booking_service.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Modo virtual threads (opt-in con VIRTUAL_THREADS_ENABLED=true). Spring Boot
+ * atiende los requests de Tomcat y las tareas @Scheduled en virtual threads;
+ * aca solo se agrega el limite de concurrencia JDBC.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+  @Bean
+  public static BeanPostProcessor jdbcConcurrencyLimiter(
+      @Value("${jdbc.limiter.max-concurrency:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrency,
+      @Value("${jdbc.limiter.max-waiting:200}") int maxWaiting,
+      @Value("${jdbc.limiter.acquire-timeout-ms:5000}") long acquireTimeoutMillis) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitedDataSource)) {
+          return new ConcurrencyLimitedDataSource(dataSource, maxConcurrency, maxWaiting, acquireTimeoutMillis);
+        }
+        return bean;
+      }
+    };
+  }
+}
@@ -0,0 +1,57 @@
+package com.sharp.booking_service.controllers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.sharp.booking_service.config.RequestLog;
+import com.sharp.booking_service.dto.BookingCurveDto;
+import com.sharp.booking_service.dto.FlightLoadDto;
+import com.sharp.booking_service.service.IBookingAnalyticsService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/bookings/analytics")
+@RequiredArgsConstructor
+public class BookingAnalyticsController {
+
+  private final IBookingAnalyticsService analyticsService;
+
+  @GetMapping("/flight/{flightInstanceId}/curve")
+  public ResponseEntity<BookingCurveDto> getBookingCurve(
+      @PathVariable Long flightInstanceId,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+    RequestLog.info(log, "bookingAnalytics.getBookingCurve").addKeyValue("flightInstanceId", flightInstanceId)
+        .log("GET /api/v1/bookings/analytics/flight/{flightInstanceId}/curve - Fetching booking curve");
+    return ResponseEntity.ok(analyticsService.getBookingCurve(flightInstanceId, from, to));
+  }
+
+  @GetMapping("/flights/top")
+  public ResponseEntity<List<FlightLoadDto>> getFullestFlights(@RequestParam(defaultValue = "10") int limit) {
+    RequestLog.info(log, "bookingAnalytics.getFullestFlights").addKeyValue("limit", limit)
+        .log("GET /api/v1/bookings/analytics/flights/top - Fetching top flights by load factor");
+    try {
+      return ResponseEntity.ok(analyticsService.getFullestFlights(limit));
+    } catch (IllegalArgumentException e) {
+      log.error("Error fetching fullest flights: {}", e.getMessage());
+      return ResponseEntity.badRequest().build();
+    }
+  }
+
+  /**
+   * Recalcula los agregados desde booking_summary. Solo para la carga inicial o fuera de pico.
+   */
+  @PostMapping("/rebuild")
+  public ResponseEntity<Long> rebuild() {
+    RequestLog.info(log, "bookingAnalytics.rebuild")
+        .log("POST /api/v1/bookings/analytics/rebuild - Rebuilding booking analytics");
+    return ResponseEntity.ok(analyticsService.rebuild());
+  }
+}
@@ -1,5 +1,6 @@
 package com.sharp.booking_service.controllers;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.crossstore.ChangeSetPersister.NotFoundException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -16,6 +17,21 @@ public class GlobalExceptionHandler {
     return ResponseEntity.status(404).body(ApiResponse.fail(ex.getMessage(), "NOT_FOUND"));
   }
 
+  @ExceptionHandler(SeatsUnavailableException.class)
+  public ResponseEntity<ApiResponse<Object>> seatsUnavailable(SeatsUnavailableException ex) {
+    return ResponseEntity.status(409).body(ApiResponse.fail(ex.getMessage(), "SEATS_UNAVAILABLE"));
+  }
+
+  @ExceptionHandler(OptimisticLockingFailureException.class)
+  public ResponseEntity<ApiResponse<Object>> concurrentModification(OptimisticLockingFailureException ex) {
+    return ResponseEntity.status(409).body(ApiResponse.fail("Booking was modified concurrently, retry", "CONCURRENT_MODIFICATION"));
+  }
+
+  @ExceptionHandler(IdempotencyKeyException.class)
+  public ResponseEntity<ApiResponse<Object>> idempotencyKey(IdempotencyKeyException ex) {
+    return ResponseEntity.status(ex.getStatus()).body(ApiResponse.fail(ex.getMessage(), ex.getCode()));
+  }
+
   @ExceptionHandler(MethodArgumentNotValidException.class)
   public ResponseEntity<ApiResponse<Object>> validation(MethodArgumentNotValidException ex) {
     String msg = ex.getBindingResult().getFieldErrors().stream()
@@ -0,0 +1,17 @@
+package com.sharp.booking_service.controllers;
+
+public class IdempotencyKeyException extends RuntimeException {
+
+  private final int status;
+  private final String code;
+
+  public IdempotencyKeyException(String msg, int status, String code) {
+    super(msg);
+    this.status = status;
+    this.code = code;
+  }
+
+  public int getStatus() { return status; }
+
+  public String getCode() { return code; }
+}
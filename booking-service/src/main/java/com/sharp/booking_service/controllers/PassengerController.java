@@ -7,6 +7,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.sharp.booking_service.config.RequestLog;
+import com.sharp.booking_service.dto.DocumentMatchDto;
+import com.sharp.booking_service.dto.DocumentSearchRequestDto;
 import com.sharp.booking_service.dto.PassengerDto;
 import com.sharp.booking_service.models.Passenger;
 import com.sharp.booking_service.service.IPassengerService;
@@ -24,7 +27,10 @@ public class PassengerController {
 
   @PostMapping
   public ResponseEntity<Passenger> createPassenger(@RequestBody Passenger passenger) {
-    log.info("POST /api/v1/passengers - Creating passenger: {} {}", passenger.getFirstName(), passenger.getLastName());
+    RequestLog.info(log, "passenger.createPassenger")
+        .addKeyValue("firstName", passenger.getFirstName())
+        .addKeyValue("lastName", passenger.getLastName())
+        .log("POST /api/v1/passengers - Creating passenger");
     try {
       Passenger created = passengerService.createPassenger(passenger);
       return ResponseEntity.status(HttpStatus.CREATED).body(created);
@@ -36,7 +42,8 @@ public class PassengerController {
 
   @GetMapping("/{id}")
   public ResponseEntity<Passenger> getPassengerById(@PathVariable Long id) {
-    log.info("GET /api/v1/passengers/{} - Fetching passenger", id);
+    RequestLog.info(log, "passenger.getPassengerById").addKeyValue("id", id)
+        .log("GET /api/v1/passengers/{id} - Fetching passenger");
     try {
       Passenger passenger = passengerService.getPassengerById(id);
       return ResponseEntity.ok(passenger);
@@ -48,25 +55,44 @@ public class PassengerController {
 
   @GetMapping("/booking/{bookingId}")
   public ResponseEntity<List<Passenger>> getPassengersByBooking(@PathVariable Long bookingId) {
-    log.info("GET /api/v1/passengers/booking/{} - Fetching passengers by booking", bookingId);
+    RequestLog.info(log, "passenger.getPassengersByBooking").addKeyValue("bookingId", bookingId)
+        .log("GET /api/v1/passengers/booking/{bookingId} - Fetching passengers by booking");
     return ResponseEntity.ok(passengerService.getPassengersByBookingId(bookingId));
   }
 
   @GetMapping("/count/booking/{bookingId}")
   public ResponseEntity<Long> countPassengersByBooking(@PathVariable Long bookingId) {
-    log.info("GET /api/v1/passengers/count/booking/{} - Counting passengers by booking", bookingId);
+    RequestLog.info(log, "passenger.countPassengersByBooking").addKeyValue("bookingId", bookingId)
+        .log("GET /api/v1/passengers/count/booking/{bookingId} - Counting passengers by booking");
     return ResponseEntity.ok(passengerService.countByBookingId(bookingId));
   }
 
   @GetMapping("/search/doc/{docNumber}")
-  public ResponseEntity<List<Passenger>> getPassengersByDocNumber(@PathVariable String docNumber) {
-    log.info("GET /api/v1/passengers/search/doc/{} - Searching passengers by document", docNumber);
-    return ResponseEntity.ok(passengerService.getPassengersByDocNumber(docNumber));
+  public ResponseEntity<List<Passenger>> getPassengersByDocNumber(
+      @PathVariable String docNumber,
+      @RequestParam(required = false) String docType) {
+    RequestLog.info(log, "passenger.getPassengersByDocNumber").addKeyValue("docNumber", docNumber)
+        .log("GET /api/v1/passengers/search/doc/{docNumber} - Searching passengers by document");
+    return ResponseEntity.ok(passengerService.getPassengersByDocNumber(docNumber, docType));
+  }
+
+  @PostMapping("/search/docs")
+  public ResponseEntity<List<DocumentMatchDto>> searchByDocNumbers(@RequestBody DocumentSearchRequestDto request) {
+    int requested = request.getDocNumbers() == null ? 0 : request.getDocNumbers().size();
+    RequestLog.info(log, "passenger.searchByDocNumbers").addKeyValue("count", requested)
+        .log("POST /api/v1/passengers/search/docs - Screening document numbers");
+    try {
+      return ResponseEntity.ok(passengerService.searchByDocNumbers(request.getDocType(), request.getDocNumbers()));
+    } catch (IllegalArgumentException e) {
+      log.error("Error screening documents: {}", e.getMessage());
+      return ResponseEntity.badRequest().build();
+    }
   }
 
   @PutMapping("/{id}")
   public ResponseEntity<Passenger> updatePassenger(@PathVariable Long id, @RequestBody Passenger passenger) {
-    log.info("PUT /api/v1/passengers/{} - Updating passenger", id);
+    RequestLog.info(log, "passenger.updatePassenger").addKeyValue("id", id)
+        .log("PUT /api/v1/passengers/{id} - Updating passenger");
     try {
       Passenger updated = passengerService.updatePassenger(id, passenger);
       return ResponseEntity.ok(updated);
@@ -78,7 +104,8 @@ public class PassengerController {
 
   @DeleteMapping("/{id}")
   public ResponseEntity<Void> deletePassenger(@PathVariable Long id) {
-    log.info("DELETE /api/v1/passengers/{} - Deleting passenger", id);
+    RequestLog.info(log, "passenger.deletePassenger").addKeyValue("id", id)
+        .log("DELETE /api/v1/passengers/{id} - Deleting passenger");
     boolean deleted = passengerService.deletePassenger(id);
     return deleted
         ? ResponseEntity.noContent().build()
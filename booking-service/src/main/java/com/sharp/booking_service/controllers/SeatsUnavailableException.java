@@ -0,0 +1,5 @@
+package com.sharp.booking_service.controllers;
+
+public class SeatsUnavailableException extends RuntimeException {
+  public SeatsUnavailableException(String msg) { super(msg); }
+}
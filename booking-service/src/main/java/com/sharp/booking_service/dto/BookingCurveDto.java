@@ -0,0 +1,14 @@
+package com.sharp.booking_service.dto;
+
+import java.util.List;
+
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class BookingCurveDto {
+  private Long flightInstanceId;
+  private Integer capacity;
+  private List<BookingCurvePointDto> points;
+}
@@ -0,0 +1,22 @@
+package com.sharp.booking_service.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class BookingCurvePointDto {
+  // inicio de la hora; los totales son al cierre de esa hora
+  private LocalDateTime bucketStart;
+  // asientos HELD + CONFIRMED ganados (o perdidos) en esa hora
+  private Long seatsDelta;
+  private Long heldBookings;
+  private Long confirmedBookings;
+  private Long cancelledBookings;
+  private Long expiredBookings;
+  private Long heldSeats;
+  private Long confirmedSeats;
+  private Double loadFactor;
+}
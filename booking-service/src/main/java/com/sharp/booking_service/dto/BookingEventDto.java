@@ -0,0 +1,25 @@
+package com.sharp.booking_service.dto;
+
+import java.time.LocalDateTime;
+
+import com.sharp.booking_service.models.BookingEventType;
+import com.sharp.booking_service.models.BookingStatus;
+
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class BookingEventDto {
+  // entrega al-menos-una-vez: los consumidores deduplican por eventId
+  private Long eventId;
+  private BookingEventType type;
+  private Long bookingId;
+  private String pnr;
+  private Long flightInstanceId;
+  private BookingStatus status;
+  private Integer passengerCount;
+  // ordenar por esto los eventos de un mismo booking
+  private Long bookingVersion;
+  private LocalDateTime occurredAt;
+}
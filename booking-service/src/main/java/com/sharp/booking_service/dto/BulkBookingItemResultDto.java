@@ -0,0 +1,21 @@
+package com.sharp.booking_service.dto;
+
+import java.time.LocalDateTime;
+
+import com.sharp.booking_service.models.BookingStatus;
+
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class BulkBookingItemResultDto {
+  private int index;            // posicion en el request original
+  private boolean success;
+  private Long bookingId;
+  private String pnr;
+  private BookingStatus status;
+  private LocalDateTime holdExpiresAt;
+  private String code;          // "CREATED", "VALIDATION_ERROR", "SEATS_UNAVAILABLE", ...
+  private String message;
+}
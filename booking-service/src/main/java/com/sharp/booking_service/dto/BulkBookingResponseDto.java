@@ -0,0 +1,15 @@
+package com.sharp.booking_service.dto;
+
+import java.util.List;
+
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class BulkBookingResponseDto {
+  private int total;
+  private int created;
+  private int failed;
+  private List<BulkBookingItemResultDto> items;
+}
@@ -0,0 +1,14 @@
+package com.sharp.booking_service.dto;
+
+import java.util.List;
+
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class CursorPageDto<T> {
+  private List<T> items;
+  private Integer size;
+  private String nextCursor; // null en la ultima pagina
+}
@@ -0,0 +1,22 @@
+package com.sharp.booking_service.dto;
+
+import com.sharp.booking_service.models.BookingStatus;
+
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class DocumentMatchDto {
+  // clave normalizada que coincidio, para cruzar con lo pedido
+  private String docNumberKey;
+  private Long passengerId;
+  private String firstName;
+  private String lastName;
+  private String docType;
+  private String docNumber;
+  private Long bookingId;
+  private String pnr;
+  private Long flightInstanceId;
+  private BookingStatus status;
+}
@@ -0,0 +1,14 @@
+package com.sharp.booking_service.dto;
+
+import java.util.List;
+
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class DocumentSearchRequestDto {
+  // opcional: si viene, solo documentos de ese tipo
+  private String docType;
+  private List<String> docNumbers;
+}
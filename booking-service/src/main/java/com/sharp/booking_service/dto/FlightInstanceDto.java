@@ -0,0 +1,16 @@
+package com.sharp.booking_service.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class FlightInstanceDto {
+  private Long flightInstanceId;
+  private LocalDateTime departureAt;
+  private LocalDateTime arrivalAt;
+  private String status;
+  private Integer capacity;
+}
@@ -0,0 +1,21 @@
+package com.sharp.booking_service.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class FlightLoadDto {
+  private Long flightInstanceId;
+  private Integer capacity;
+  private Long heldSeats;
+  private Long confirmedSeats;
+  private Long heldBookings;
+  private Long confirmedBookings;
+  private Long cancelledBookings;
+  private Long expiredBookings;
+  private Double loadFactor;
+  private LocalDateTime updatedAt;
+}
@@ -0,0 +1,31 @@
+package com.sharp.booking_service.dto;
+
+public enum ManifestFormat {
+  NDJSON("application/x-ndjson", "ndjson"),
+  CSV("text/csv", "csv");
+
+  private final String contentType;
+  private final String extension;
+
+  ManifestFormat(String contentType, String extension) {
+    this.contentType = contentType;
+    this.extension = extension;
+  }
+
+  public String getContentType() {
+    return contentType;
+  }
+
+  public String getExtension() {
+    return extension;
+  }
+
+  public static ManifestFormat from(String value) {
+    for (ManifestFormat format : values()) {
+      if (format.extension.equalsIgnoreCase(value)) {
+        return format;
+      }
+    }
+    throw new IllegalArgumentException("Unsupported manifest format: " + value);
+  }
+}
@@ -0,0 +1,18 @@
+package com.sharp.booking_service.dto;
+
+import com.sharp.booking_service.models.BookingStatus;
+
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ManifestRowDto {
+  private String pnr;
+  private BookingStatus status;
+  private Long passengerId;
+  private String firstName;
+  private String lastName;
+  private String docType;
+  private String docNumber;
+}
@@ -0,0 +1,14 @@
+package com.sharp.booking_service.dto;
+
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class SeatAvailabilityDto {
+  private Long flightInstanceId;
+  private Integer capacity;
+  private Integer held;
+  private Integer confirmed;
+  private Integer available;
+}
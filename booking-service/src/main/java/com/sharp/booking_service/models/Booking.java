@@ -4,11 +4,20 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
+
 import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "booking")
+@Table(name = "booking", indexes = {
+		@Index(name = "idx_booking_status_id", columnList = "status, booking_id"),
+		@Index(name = "idx_booking_status_expires", columnList = "status, hold_expires_at"),
+		@Index(name = "idx_booking_user_id", columnList = "created_by_user_id, booking_id"),
+		@Index(name = "idx_booking_flight_id", columnList = "flight_instance_id, booking_id"),
+		@Index(name = "idx_booking_updated_at", columnList = "updated_at, booking_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -16,8 +25,10 @@ import lombok.*;
 @Builder
 public class Booking {
 
+	// SEQUENCE (pooled) en vez de IDENTITY para que Hibernate pueda agrupar los INSERT
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seq")
+	@SequenceGenerator(name = "booking_seq", sequenceName = "booking_seq", allocationSize = 50)
 	@Column(name = "booking_id")
 	private Long bookingId;
 
@@ -43,22 +54,38 @@ public class Booking {
 	@Column(name = "created_by_user_id")
 	private Long createdByUserId;
 
+	// bloqueo optimista para updateBooking; las transiciones por UPDATE condicional tambien lo suben
+	@Version
+	@Column(name = "version", nullable = false)
+	private long version;
+
 	@Column(name = "created_at", nullable = false, updatable = false)
 	private LocalDateTime createdAt;
 
+	// ultima escritura (la ponen tambien los UPDATE condicionales); la usa BookingProjector.reconcile
+	@Column(name = "updated_at")
+	private LocalDateTime updatedAt;
+
+	// al inicializar la coleccion de un booking se cargan las de todos los de la misma query, en una sola sentencia
 	@OneToMany(mappedBy = "booking", cascade = CascadeType.ALL, orphanRemoval = true)
+	@Fetch(FetchMode.SUBSELECT)
 	@Builder.Default
 	private List<Passenger> passengers = new ArrayList<>();
 
 	@PrePersist
 	void prePersist() {
 		this.createdAt = LocalDateTime.now();
+		this.updatedAt = this.createdAt;
 		if (this.status == null)
 			this.status = BookingStatus.HELD;
 	}
 
+	@PreUpdate
+	void preUpdate() {
+		this.updatedAt = LocalDateTime.now();
+	}
+
 	// helpers
-//helpers
 	public void addPassenger(Passenger p) {
 		passengers.add(p);
 		p.setBooking(this);
@@ -0,0 +1,10 @@
+package com.sharp.booking_service.models;
+
+public enum BookingEventType {
+  CREATED,
+  CONFIRMED,
+  CANCELLED,
+  EXPIRED,
+  UPDATED,
+  DELETED
+}
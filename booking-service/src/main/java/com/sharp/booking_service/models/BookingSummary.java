@@ -0,0 +1,87 @@
+package com.sharp.booking_service.models;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Vista desnormalizada de un booking (lado lectura). La mantiene
+ * {@link com.sharp.booking_service.component.BookingProjector}; nunca se escribe
+ * desde el flujo de negocio.
+ */
+@Entity
+@Table(name = "booking_summary", indexes = {
+		@Index(name = "idx_summary_pnr", columnList = "pnr", unique = true),
+		@Index(name = "idx_summary_flight_id", columnList = "flight_instance_id, booking_id"),
+		@Index(name = "idx_summary_user_id", columnList = "created_by_user_id, booking_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookingSummary implements Persistable<Long> {
+
+	// mismo id que booking; no es FK para poder reconstruir la tabla sin tocar booking
+	@Id
+	@Column(name = "booking_id")
+	private Long bookingId;
+
+	@Column(name = "pnr", nullable = false, length = 6)
+	private String pnr;
+
+	@Column(name = "flight_instance_id", nullable = false)
+	private Long flightInstanceId;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "status", nullable = false, length = 20)
+	private BookingStatus status;
+
+	@Column(name = "hold_expires_at")
+	private LocalDateTime holdExpiresAt;
+
+	@Column(name = "passenger_count", nullable = false)
+	private Integer passengerCount;
+
+	@Column(name = "created_by_user_id")
+	private Long createdByUserId;
+
+	@Column(name = "created_at", nullable = false)
+	private LocalDateTime createdAt;
+
+	// lista de PassengerDto serializada en JSON
+	@Lob
+	@Column(name = "passengers_json", nullable = false, columnDefinition = "TEXT")
+	private String passengersJson;
+
+	@Column(name = "projected_at", nullable = false)
+	private LocalDateTime projectedAt;
+
+	// booking.version proyectada; si difiere, la reconciliacion la vuelve a proyectar
+	@Column(name = "booking_version")
+	private Long bookingVersion;
+
+	// evita el SELECT previo de merge() al insertar con id asignado
+	@Transient
+	@Builder.Default
+	private boolean newSummary = true;
+
+	@Override
+	public Long getId() {
+		return bookingId;
+	}
+
+	@Override
+	public boolean isNew() {
+		return newSummary;
+	}
+
+	@PostLoad
+	@PostPersist
+	void markNotNew() {
+		this.newSummary = false;
+	}
+}
@@ -0,0 +1,54 @@
+package com.sharp.booking_service.models;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Totales actuales por vuelo, mantenidos por deltas desde
+ * {@link com.sharp.booking_service.component.BookingAnalytics}. {@code loadFactor}
+ * es asientos confirmados / capacidad; queda en NULL hasta conocer la capacidad.
+ */
+@Entity
+@Table(name = "booking_flight_load", indexes = {
+		@Index(name = "idx_flight_load_factor", columnList = "load_factor")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FlightLoadStats {
+
+	@Id
+	@Column(name = "flight_instance_id")
+	private Long flightInstanceId;
+
+	@Column(name = "capacity")
+	private Integer capacity;
+
+	@Column(name = "held_bookings", nullable = false)
+	private long heldBookings;
+
+	@Column(name = "confirmed_bookings", nullable = false)
+	private long confirmedBookings;
+
+	@Column(name = "cancelled_bookings", nullable = false)
+	private long cancelledBookings;
+
+	@Column(name = "expired_bookings", nullable = false)
+	private long expiredBookings;
+
+	@Column(name = "held_seats", nullable = false)
+	private long heldSeats;
+
+	@Column(name = "confirmed_seats", nullable = false)
+	private long confirmedSeats;
+
+	@Column(name = "load_factor")
+	private Double loadFactor;
+
+	@Column(name = "updated_at", nullable = false)
+	private LocalDateTime updatedAt;
+}
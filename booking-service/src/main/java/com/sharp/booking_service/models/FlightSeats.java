@@ -0,0 +1,32 @@
+package com.sharp.booking_service.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Asientos ocupados por vuelo, compartidos entre nodos. La admision es un
+ * UPDATE condicional sobre esta fila desde
+ * {@link com.sharp.booking_service.component.SeatInventory}.
+ */
+@Entity
+@Table(name = "booking_flight_seats")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FlightSeats {
+
+	@Id
+	@Column(name = "flight_instance_id")
+	private Long flightInstanceId;
+
+	@Column(name = "capacity", nullable = false)
+	private int capacity;
+
+	@Column(name = "held", nullable = false)
+	private int held;
+
+	@Column(name = "confirmed", nullable = false)
+	private int confirmed;
+}
@@ -0,0 +1,52 @@
+package com.sharp.booking_service.models;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Bookings/asientos de un vuelo creados dentro de una hora, por su estado
+ * actual. Sumando las filas hasta una hora se obtiene la curva de reservas:
+ * lo reservado hasta ese momento y en que quedo. Lo escribe
+ * {@link com.sharp.booking_service.component.BookingAnalytics}.
+ */
+@Entity
+@Table(name = "booking_flight_hourly")
+@IdClass(FlightStatusHourly.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FlightStatusHourly {
+
+	@Id
+	@Column(name = "flight_instance_id")
+	private Long flightInstanceId;
+
+	@Id
+	@Column(name = "bucket_start")
+	private LocalDateTime bucketStart;
+
+	@Id
+	@Enumerated(EnumType.STRING)
+	@Column(name = "status", length = 20)
+	private BookingStatus status;
+
+	@Column(name = "bookings", nullable = false)
+	private long bookings;
+
+	@Column(name = "seats", nullable = false)
+	private long seats;
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class Key implements Serializable {
+		private Long flightInstanceId;
+		private LocalDateTime bucketStart;
+		private BookingStatus status;
+	}
+}
@@ -0,0 +1,42 @@
+package com.sharp.booking_service.models;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Idempotency-Key ya usada por un cliente. Se inserta en la misma transaccion
+ * que crea el booking, asi dos nodos no pueden procesar la misma key.
+ */
+@Entity
+@Table(name = "booking_idempotency_key", indexes = {
+		@Index(name = "idx_idempotency_expires_at", columnList = "expires_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+
+	@Id
+	@Column(name = "idempotency_key", length = 128)
+	private String idempotencyKey;
+
+	// SHA-256 del request, para detectar la misma key con otro payload
+	@Column(name = "request_hash", nullable = false, length = 64)
+	private String requestHash;
+
+	@Column(name = "booking_id")
+	private Long bookingId;
+
+	@Column(name = "status_code")
+	private Integer statusCode;
+
+	@Column(name = "created_at", nullable = false)
+	private LocalDateTime createdAt;
+
+	@Column(name = "expires_at", nullable = false)
+	private LocalDateTime expiresAt;
+}
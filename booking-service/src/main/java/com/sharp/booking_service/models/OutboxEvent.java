@@ -0,0 +1,55 @@
+package com.sharp.booking_service.models;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Evento de ciclo de vida pendiente de publicar. Se inserta en la misma
+ * transaccion que el cambio del booking y se borra cuando el sink lo acepta,
+ * o al vencer la retencion (ver {@link com.sharp.booking_service.component.OutboxRelay}).
+ */
+@Entity
+@Table(name = "booking_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+	// SEQUENCE pooled para que los eventos de un lote se inserten agrupados
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_outbox_seq")
+	@SequenceGenerator(name = "booking_outbox_seq", sequenceName = "booking_outbox_seq", allocationSize = 50)
+	@Column(name = "event_id")
+	private Long eventId;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "event_type", nullable = false, length = 20)
+	private BookingEventType eventType;
+
+	@Column(name = "booking_id", nullable = false)
+	private Long bookingId;
+
+	@Column(name = "pnr", nullable = false, length = 6)
+	private String pnr;
+
+	@Column(name = "flight_instance_id", nullable = false)
+	private Long flightInstanceId;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "status", nullable = false, length = 20)
+	private BookingStatus status;
+
+	@Column(name = "passenger_count", nullable = false)
+	private Integer passengerCount;
+
+	// version del booking tras el cambio: orden de los eventos de un mismo booking entre nodos
+	@Column(name = "booking_version", nullable = false)
+	private long bookingVersion;
+
+	@Column(name = "occurred_at", nullable = false)
+	private LocalDateTime occurredAt;
+}
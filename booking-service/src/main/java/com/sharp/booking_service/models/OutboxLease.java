@@ -0,0 +1,30 @@
+package com.sharp.booking_service.models;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Lease del relay del outbox: un solo nodo publica a la vez, sin mantener
+ * locks de BD mientras espera al sink.
+ */
+@Entity
+@Table(name = "booking_outbox_lease")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxLease {
+
+	@Id
+	@Column(name = "name", length = 40)
+	private String name;
+
+	@Column(name = "owner", nullable = false, length = 80)
+	private String owner;
+
+	@Column(name = "lease_until", nullable = false)
+	private LocalDateTime leaseUntil;
+}
@@ -1,19 +1,23 @@
 package com.sharp.booking_service.models;
 
 import java.time.LocalDateTime;
+import java.util.Locale;
 
 import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "passenger")
+@Table(name = "passenger", indexes = {
+    @Index(name = "idx_passenger_doc_key", columnList = "doc_number_key, doc_type")
+})
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
 public class Passenger {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "passenger_seq")
+  @SequenceGenerator(name = "passenger_seq", sequenceName = "passenger_seq", allocationSize = 50)
   @Column(name = "passenger_id")
   private Long passengerId;
 
@@ -33,6 +37,10 @@ public class Passenger {
   @Column(name = "doc_number", nullable = false, length = 30)
   private String docNumber;
 
+  // doc_number normalizado (mayusculas, sin separadores); es lo que se busca
+  @Column(name = "doc_number_key", length = 30)
+  private String docNumberKey;
+
   @Column(name = "created_at", nullable = false, updatable = false)
   private LocalDateTime createdAt;
 
@@ -43,6 +51,26 @@ public class Passenger {
   @PrePersist
   void prePersist() {
     this.createdAt = LocalDateTime.now();
+    normalizeDocument();
+  }
+
+  @PreUpdate
+  void preUpdate() {
+    normalizeDocument();
+  }
+
+  private void normalizeDocument() {
+    this.docType = normalizeDocType(docType);
+    this.docNumberKey = normalizeDocNumber(docNumber);
+  }
+
+  // "ab-123 456" y "AB123456" son el mismo documento; la misma regla se usa en el backfill SQL
+  public static String normalizeDocNumber(String docNumber) {
+    return docNumber == null ? null : docNumber.toUpperCase(Locale.ROOT).replaceAll("[^A-Z0-9]", "");
+  }
+
+  public static String normalizeDocType(String docType) {
+    return docType == null ? null : docType.trim().toUpperCase(Locale.ROOT);
   }
 
 
@@ -0,0 +1,24 @@
+package com.sharp.booking_service.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Contador compartido entre nodos del que se reservan bloques de PNR.
+ */
+@Entity
+@Table(name = "pnr_sequence")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PnrSequence {
+
+	@Id
+	@Column(name = "name", length = 40)
+	private String name;
+
+	@Column(name = "next_value", nullable = false)
+	private Long nextValue;
+}
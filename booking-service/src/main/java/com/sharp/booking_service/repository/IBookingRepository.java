@@ -3,8 +3,13 @@ package com.sharp.booking_service.repository;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.Hibernate;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -17,29 +22,99 @@ public interface IBookingRepository extends JpaRepository<Booking, Long> {
 
   Optional<Booking> findByPnr(String pnr);
 
-  @Query("SELECT b FROM Booking b JOIN FETCH b.passengers WHERE b.pnr = :pnr")
+  @Query("SELECT b FROM Booking b LEFT JOIN FETCH b.passengers WHERE b.pnr = :pnr")
   Optional<Booking> findByPnrWithPassengers(@Param("pnr") String pnr);
 
-  List<Booking> findByFlightInstanceId(Long flightInstanceId);
+  @EntityGraph(attributePaths = "passengers")
+  Optional<Booking> findWithPassengersByBookingId(Long bookingId);
 
-  @Query("SELECT b FROM Booking b JOIN FETCH b.passengers WHERE b.flightInstanceId = :flightId")
-  List<Booking> findByFlightInstanceIdWithPassengers(@Param("flightId") Long flightInstanceId);
+  List<Booking> findByFlightInstanceId(Long flightInstanceId);
 
   List<Booking> findByCreatedByUserId(Long userId);
 
-  @Query("SELECT b FROM Booking b JOIN FETCH b.passengers WHERE b.createdByUserId = :userId")
-  List<Booking> findByCreatedByUserIdWithPassengers(@Param("userId") Long userId);
-
   List<Booking> findByStatus(BookingStatus status);
 
-  @Query("SELECT b FROM Booking b WHERE b.status = :status AND b.holdExpiresAt < :now")
-  List<Booking> findExpiredHeldBookings(@Param("status") BookingStatus status, @Param("now") LocalDateTime now);
+  // paginacion por keyset: primero los ids de la pagina (seek por indice), luego las entidades
+  @Query("SELECT b.bookingId FROM Booking b WHERE b.bookingId > :after ORDER BY b.bookingId")
+  List<Long> findIdsAfter(@Param("after") long afterBookingId, Limit limit);
+
+  // bookings escritos desde :since sin resumen o con un resumen de otra version (rango sobre idx_booking_updated_at)
+  @Query("SELECT b.bookingId FROM Booking b WHERE b.updatedAt >= :since AND b.bookingId > :after AND NOT EXISTS"
+      + " (SELECT 1 FROM BookingSummary s WHERE s.bookingId = b.bookingId AND s.bookingVersion = b.version)"
+      + " ORDER BY b.bookingId")
+  List<Long> findIdsWithStaleSummaryAfter(@Param("since") LocalDateTime since, @Param("after") long afterBookingId,
+      Limit limit);
+
+  @Query("SELECT b.bookingId FROM Booking b WHERE b.status = :status AND b.bookingId > :after ORDER BY b.bookingId")
+  List<Long> findIdsByStatusAfter(@Param("status") BookingStatus status, @Param("after") long afterBookingId, Limit limit);
+
+  @Query("SELECT b.bookingId FROM Booking b WHERE b.createdByUserId = :userId AND b.bookingId > :after ORDER BY b.bookingId")
+  List<Long> findIdsByCreatedByUserIdAfter(@Param("userId") Long userId, @Param("after") long afterBookingId, Limit limit);
+
+  @Query("SELECT b.bookingId FROM Booking b WHERE b.flightInstanceId = :flightId AND b.bookingId > :after ORDER BY b.bookingId")
+  List<Long> findIdsByFlightInstanceIdAfter(@Param("flightId") Long flightInstanceId, @Param("after") long afterBookingId, Limit limit);
+
+  List<Booking> findByBookingIdInOrderByBookingId(List<Long> ids);
+
+  /**
+   * Bookings con sus pasajeros en dos sentencias fijas, sin importar cuantos sean:
+   * una para los bookings y otra (subselect, ver {@link Booking#getPassengers()})
+   * para los pasajeros de todos ellos. Sin JOIN FETCH, asi no se repiten las
+   * columnas del booking por cada pasajero.
+   */
+  default List<Booking> findAllWithPassengersByIdIn(List<Long> ids) {
+    List<Booking> bookings = findByBookingIdInOrderByBookingId(ids);
+    if (!bookings.isEmpty()) {
+      Hibernate.initialize(bookings.get(0).getPassengers());
+    }
+    return bookings;
+  }
 
-  @Query("SELECT b FROM Booking b WHERE b.holdExpiresAt BETWEEN :start AND :end")
-  List<Booking> findExpiringSoon(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+  @Query("SELECT b.bookingId FROM Booking b WHERE b.status = :status AND b.holdExpiresAt <= :now ORDER BY b.holdExpiresAt")
+  List<Long> findExpiredHeldBookingIds(@Param("status") BookingStatus status, @Param("now") LocalDateTime now, Limit limit);
+
+  // [bookingId, holdExpiresAt] de los holds que vencen en (from, to]
+  @Query("SELECT b.bookingId, b.holdExpiresAt FROM Booking b WHERE b.status = :status AND b.holdExpiresAt > :from AND b.holdExpiresAt <= :to")
+  List<Object[]> findHoldDeadlines(@Param("status") BookingStatus status, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+  // bloquea los holds realmente vencidos de un lote: [booking_id, flight_instance_id, passenger_count, hold_expires_at, pnr, version]
+  @Query(value = "SELECT booking_id, flight_instance_id, passenger_count, hold_expires_at, pnr, version FROM booking "
+      + "WHERE booking_id IN (:ids) AND status = 'HELD' AND hold_expires_at <= :now FOR UPDATE", nativeQuery = true)
+  List<Object[]> lockExpiredHolds(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now);
+
+  // transicion de estado en un solo UPDATE condicional; 0 filas = no estaba en ningun estado de :from
+  @Modifying(clearAutomatically = true)
+  @Query("UPDATE Booking b SET b.status = :to, b.holdExpiresAt = NULL, b.version = b.version + 1, b.updatedAt = :now "
+      + "WHERE b.pnr = :pnr AND b.status IN :from")
+  int transition(@Param("pnr") String pnr, @Param("from") List<BookingStatus> from, @Param("to") BookingStatus to,
+      @Param("now") LocalDateTime now);
+
+  @Query("SELECT b.status FROM Booking b WHERE b.pnr = :pnr")
+  Optional<BookingStatus> findStatusByPnr(@Param("pnr") String pnr);
+
+  @Modifying
+  @Query("UPDATE Booking b SET b.status = :expired, b.version = b.version + 1, b.updatedAt = :now WHERE b.bookingId IN :ids AND b.status = :held AND b.holdExpiresAt <= :now")
+  int expireHolds(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now,
+      @Param("held") BookingStatus held, @Param("expired") BookingStatus expired);
+
+  @Query("SELECT b.bookingId FROM Booking b WHERE b.holdExpiresAt BETWEEN :start AND :end AND b.bookingId > :after ORDER BY b.bookingId")
+  List<Long> findIdsExpiringBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+      @Param("after") long afterBookingId, Limit limit);
+
+  // keyset por id (idx_booking_status_id) para la API; el scheduler usa findExpiredHeldBookingIds
+  @Query("SELECT b.bookingId FROM Booking b WHERE b.status = :status AND b.holdExpiresAt <= :now AND b.bookingId > :after ORDER BY b.bookingId")
+  List<Long> findExpiredHeldIdsAfter(@Param("status") BookingStatus status, @Param("now") LocalDateTime now,
+      @Param("after") long afterBookingId, Limit limit);
 
   boolean existsByPnr(String pnr);
 
+  @Query("SELECT b.pnr FROM Booking b")
+  Stream<String> streamAllPnrs();
+
   @Query("SELECT COUNT(b) FROM Booking b WHERE b.flightInstanceId = :flightId AND b.status IN :statuses")
   long countByFlightInstanceIdAndStatusIn(@Param("flightId") Long flightInstanceId, @Param("statuses") List<BookingStatus> statuses);
+
+  // [status, SUM(passengerCount)] por estado, para cargar el inventario de asientos
+  @Query("SELECT b.status, SUM(b.passengerCount) FROM Booking b WHERE b.flightInstanceId = :flightId AND b.status IN :statuses GROUP BY b.status")
+  List<Object[]> sumSeatsByFlightInstanceIdGroupByStatus(@Param("flightId") Long flightInstanceId, @Param("statuses") List<BookingStatus> statuses);
 }
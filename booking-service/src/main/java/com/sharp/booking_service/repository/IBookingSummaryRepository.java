@@ -0,0 +1,47 @@
+package com.sharp.booking_service.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.sharp.booking_service.models.BookingSummary;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface IBookingSummaryRepository extends JpaRepository<BookingSummary, Long> {
+
+  Optional<BookingSummary> findByPnr(String pnr);
+
+  List<BookingSummary> findByFlightInstanceIdAndBookingIdGreaterThanOrderByBookingIdAsc(
+      Long flightInstanceId, long afterBookingId, Limit limit);
+
+  List<BookingSummary> findByCreatedByUserIdAndBookingIdGreaterThanOrderByBookingIdAsc(
+      Long createdByUserId, long afterBookingId, Limit limit);
+
+  // con lock: dos proyecciones del mismo booking (dos nodos, o drain y reconcile) no restan el mismo "antes"
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT s FROM BookingSummary s WHERE s.bookingId IN :ids")
+  List<BookingSummary> lockAllById(@Param("ids") Collection<Long> ids);
+
+  @Query("SELECT s.bookingId FROM BookingSummary s WHERE s.bookingId > :after ORDER BY s.bookingId")
+  List<Long> findIdsAfter(@Param("after") long afterBookingId, Limit limit);
+
+  // resumenes de [from, to] cuyo booking se borro sin que se proyectara el borrado
+  @Query("SELECT s.bookingId FROM BookingSummary s WHERE s.bookingId BETWEEN :from AND :to"
+      + " AND NOT EXISTS (SELECT 1 FROM Booking b WHERE b.bookingId = s.bookingId)")
+  List<Long> findOrphanIdsBetween(@Param("from") long fromBookingId, @Param("to") long toBookingId);
+
+  // resumenes cuyo booking ya no existe (tras un rebuild)
+  @Modifying
+  @Query("DELETE FROM BookingSummary s WHERE NOT EXISTS (SELECT 1 FROM Booking b WHERE b.bookingId = s.bookingId)")
+  int deleteOrphans();
+}
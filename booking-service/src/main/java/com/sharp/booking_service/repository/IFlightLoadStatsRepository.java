@@ -0,0 +1,16 @@
+package com.sharp.booking_service.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.sharp.booking_service.models.FlightLoadStats;
+
+@Repository
+public interface IFlightLoadStatsRepository extends JpaRepository<FlightLoadStats, Long> {
+
+  // top-N leyendo idx_flight_load_factor de mayor a menor
+  List<FlightLoadStats> findByLoadFactorNotNullOrderByLoadFactorDesc(Limit limit);
+}
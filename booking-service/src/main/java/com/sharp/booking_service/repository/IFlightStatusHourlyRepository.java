@@ -0,0 +1,15 @@
+package com.sharp.booking_service.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.sharp.booking_service.models.FlightStatusHourly;
+
+@Repository
+public interface IFlightStatusHourlyRepository extends JpaRepository<FlightStatusHourly, FlightStatusHourly.Key> {
+
+  // recorre el prefijo de la PK (flight_instance_id, bucket_start)
+  List<FlightStatusHourly> findByFlightInstanceIdOrderByBucketStartAsc(Long flightInstanceId);
+}
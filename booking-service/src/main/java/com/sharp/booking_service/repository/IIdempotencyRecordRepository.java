@@ -0,0 +1,42 @@
+package com.sharp.booking_service.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.sharp.booking_service.models.IdempotencyRecord;
+
+@Repository
+public interface IIdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+  // INSERT directo (no merge): si la key ya existe falla por PK en vez de pisarla
+  @Modifying
+  @Query(value = "INSERT INTO booking_idempotency_key (idempotency_key, request_hash, created_at, expires_at) "
+      + "VALUES (:key, :requestHash, :createdAt, :expiresAt)", nativeQuery = true)
+  int claim(@Param("key") String key,
+      @Param("requestHash") String requestHash,
+      @Param("createdAt") LocalDateTime createdAt,
+      @Param("expiresAt") LocalDateTime expiresAt);
+
+  // retoma una key vencida que la purga todavia no borro; 0 filas = no estaba vencida
+  @Modifying
+  @Query("UPDATE IdempotencyRecord r SET r.requestHash = :requestHash, r.createdAt = :createdAt, "
+      + "r.expiresAt = :expiresAt, r.bookingId = NULL, r.statusCode = NULL "
+      + "WHERE r.idempotencyKey = :key AND r.expiresAt < :createdAt")
+  int reclaimExpired(@Param("key") String key,
+      @Param("requestHash") String requestHash,
+      @Param("createdAt") LocalDateTime createdAt,
+      @Param("expiresAt") LocalDateTime expiresAt);
+
+  @Modifying
+  @Query("UPDATE IdempotencyRecord r SET r.bookingId = :bookingId, r.statusCode = :statusCode WHERE r.idempotencyKey = :key")
+  int complete(@Param("key") String key, @Param("bookingId") Long bookingId, @Param("statusCode") int statusCode);
+
+  @Modifying
+  @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+  int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,18 @@
+package com.sharp.booking_service.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.sharp.booking_service.models.OutboxEvent;
+
+@Repository
+public interface IOutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+  List<OutboxEvent> findByOrderByEventIdAsc(Limit limit);
+
+  Optional<OutboxEvent> findFirstByOrderByEventIdAsc();
+}
@@ -0,0 +1,22 @@
+package com.sharp.booking_service.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.sharp.booking_service.models.OutboxLease;
+
+@Repository
+public interface IOutboxLeaseRepository extends JpaRepository<OutboxLease, String> {
+
+  // toma o renueva el lease si es nuestro o ya vencio; 1 = lo tenemos
+  @Modifying
+  @Query("UPDATE OutboxLease l SET l.owner = :owner, l.leaseUntil = :until "
+      + "WHERE l.name = :name AND (l.owner = :owner OR l.leaseUntil < :now)")
+  int acquire(@Param("name") String name, @Param("owner") String owner,
+      @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+}
@@ -1,18 +1,48 @@
 package com.sharp.booking_service.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.sharp.booking_service.dto.DocumentMatchDto;
+import com.sharp.booking_service.dto.ManifestRowDto;
 import com.sharp.booking_service.models.Passenger;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface IPassengerRepository extends JpaRepository<Passenger, Long> {
 	  List<Passenger> findByBookingBookingId(Long bookingId);
 	  long countByBookingBookingId(Long bookingId);
-	  List<Passenger> findByDocNumber(String docNumber);
+	  List<Passenger> findByDocNumberKey(String docNumberKey);
+	  List<Passenger> findByDocNumberKeyAndDocType(String docNumberKey, String docType);
 	  List<Passenger> findByBookingBookingIdAndDocNumber(Long bookingId, String docNumber);
+
+	  // proyeccion de solo lectura, cursor hacia adelante (MySQL transmite fila a fila con fetchSize = MIN_VALUE)
+	  @QueryHints({
+	      @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+	      @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+	  })
+	  @Query("SELECT new com.sharp.booking_service.dto.ManifestRowDto(b.pnr, b.status, p.passengerId, p.firstName, p.lastName, p.docType, p.docNumber) "
+	      + "FROM Passenger p JOIN p.booking b WHERE b.flightInstanceId = :flightId ORDER BY b.bookingId, p.passengerId")
+	  Stream<ManifestRowDto> streamManifestByFlightInstanceId(@Param("flightId") Long flightInstanceId);
+
+	  // screening por lotes: un solo IN sobre idx_passenger_doc_key
+	  @Query("SELECT new com.sharp.booking_service.dto.DocumentMatchDto(p.docNumberKey, p.passengerId, p.firstName, p.lastName, p.docType, p.docNumber, "
+	      + "b.bookingId, b.pnr, b.flightInstanceId, b.status) "
+	      + "FROM Passenger p JOIN p.booking b WHERE p.docNumberKey IN :keys ORDER BY p.docNumberKey, p.passengerId")
+	  List<DocumentMatchDto> findMatchesByDocNumberKeyIn(@Param("keys") Collection<String> docNumberKeys);
+
+	  @Query("SELECT new com.sharp.booking_service.dto.DocumentMatchDto(p.docNumberKey, p.passengerId, p.firstName, p.lastName, p.docType, p.docNumber, "
+	      + "b.bookingId, b.pnr, b.flightInstanceId, b.status) "
+	      + "FROM Passenger p JOIN p.booking b WHERE p.docNumberKey IN :keys AND p.docType = :docType ORDER BY p.docNumberKey, p.passengerId")
+	  List<DocumentMatchDto> findMatchesByDocNumberKeyInAndDocType(@Param("keys") Collection<String> docNumberKeys,
+	      @Param("docType") String docType);
 	}
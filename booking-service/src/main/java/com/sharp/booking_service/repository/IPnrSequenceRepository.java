@@ -0,0 +1,17 @@
+package com.sharp.booking_service.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.sharp.booking_service.models.PnrSequence;
+
+@Repository
+public interface IPnrSequenceRepository extends JpaRepository<PnrSequence, String> {
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("UPDATE PnrSequence s SET s.nextValue = s.nextValue + :size WHERE s.name = :name")
+  int advance(@Param("name") String name, @Param("size") long size);
+}
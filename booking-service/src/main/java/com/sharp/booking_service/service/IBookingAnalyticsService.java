@@ -0,0 +1,19 @@
+package com.sharp.booking_service.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.sharp.booking_service.dto.BookingCurveDto;
+import com.sharp.booking_service.dto.FlightLoadDto;
+
+/**
+ * Lecturas sobre los agregados incrementales de {@code BookingAnalytics}.
+ */
+public interface IBookingAnalyticsService {
+
+  BookingCurveDto getBookingCurve(Long flightInstanceId, LocalDateTime from, LocalDateTime to);
+
+  List<FlightLoadDto> getFullestFlights(int limit);
+
+  long rebuild();
+}
@@ -0,0 +1,26 @@
+package com.sharp.booking_service.service;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.sharp.booking_service.dto.BookingResponseDto;
+
+/**
+ * Consultas servidas desde la vista desnormalizada {@code booking_summary}.
+ */
+public interface IBookingQueryService {
+
+  Optional<BookingResponseDto> getBookingByPnr(String pnr);
+
+  /**
+   * Igual que {@link #getBookingByPnr(String)} pero ya serializado a JSON,
+   * servido desde la cache fuera del heap cuando esta.
+   */
+  Optional<byte[]> getBookingJsonByPnr(String pnr);
+
+  List<BookingResponseDto> getBookingsByFlightInstanceId(Long flightInstanceId, long afterBookingId, int limit);
+
+  List<BookingResponseDto> getBookingsByUserId(Long userId, long afterBookingId, int limit);
+
+  long rebuildProjection();
+}
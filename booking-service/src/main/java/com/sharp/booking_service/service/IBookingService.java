@@ -1,10 +1,13 @@
 package com.sharp.booking_service.service;
 
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import com.sharp.booking_service.dto.ManifestFormat;
 import com.sharp.booking_service.dto.PassengerDto;
+import com.sharp.booking_service.dto.SeatAvailabilityDto;
 import com.sharp.booking_service.models.Booking;
 import com.sharp.booking_service.models.BookingStatus;
 
@@ -18,17 +21,19 @@ public interface IBookingService {
 
   Optional<Booking> getBookingByPnr(String pnr);
 
-  List<Booking> getAllBookings();
+  List<Booking> getAllBookings(long afterBookingId, int limit);
 
-  List<Booking> getBookingsByFlightInstanceId(Long flightInstanceId);
+  List<Booking> getBookingsByFlightInstanceId(Long flightInstanceId, long afterBookingId, int limit);
 
-  List<Booking> getBookingsByUserId(Long userId);
+  long writeManifest(Long flightInstanceId, ManifestFormat format, OutputStream out);
 
-  List<Booking> getBookingsByStatus(BookingStatus status);
+  List<Booking> getBookingsByUserId(Long userId, long afterBookingId, int limit);
 
-  List<Booking> getExpiredHeldBookings();
+  List<Booking> getBookingsByStatus(BookingStatus status, long afterBookingId, int limit);
 
-  List<Booking> getExpiringBookings(LocalDateTime start, LocalDateTime end);
+  List<Booking> getExpiredHeldBookings(long afterBookingId, int limit);
+
+  List<Booking> getExpiringBookings(LocalDateTime start, LocalDateTime end, long afterBookingId, int limit);
 
   Booking confirmBooking(String pnr);
 
@@ -42,6 +47,8 @@ public interface IBookingService {
 
   long countByFlightInstanceIdAndStatusIn(Long flightInstanceId, List<BookingStatus> statuses);
 
+  SeatAvailabilityDto getSeatAvailability(Long flightInstanceId);
+
   String generatePNR();
 
   PassengerDto createPassengerDto(String firstName, String lastName, String docType, String docNumber);
@@ -0,0 +1,11 @@
+package com.sharp.booking_service.service;
+
+import java.util.List;
+
+import com.sharp.booking_service.dto.BookingRequestDto;
+import com.sharp.booking_service.dto.BulkBookingResponseDto;
+
+public interface IBulkBookingService {
+
+  BulkBookingResponseDto createBookings(List<BookingRequestDto> requests);
+}
@@ -2,6 +2,7 @@ package com.sharp.booking_service.service;
 
 import java.util.List;
 
+import com.sharp.booking_service.dto.DocumentMatchDto;
 import com.sharp.booking_service.models.Passenger;
 
 public interface IPassengerService {
@@ -14,7 +15,9 @@ public interface IPassengerService {
 
   long countByBookingId(Long bookingId);
 
-  List<Passenger> getPassengersByDocNumber(String docNumber);
+  List<Passenger> getPassengersByDocNumber(String docNumber, String docType);
+
+  List<DocumentMatchDto> searchByDocNumbers(String docType, List<String> docNumbers);
 
   Passenger updatePassenger(Long id, Passenger passenger);
 
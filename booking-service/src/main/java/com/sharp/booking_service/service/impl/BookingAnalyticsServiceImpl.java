@@ -0,0 +1,130 @@
+package com.sharp.booking_service.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sharp.booking_service.component.BookingAnalytics;
+import com.sharp.booking_service.dto.BookingCurveDto;
+import com.sharp.booking_service.dto.BookingCurvePointDto;
+import com.sharp.booking_service.dto.FlightLoadDto;
+import com.sharp.booking_service.models.FlightLoadStats;
+import com.sharp.booking_service.models.FlightStatusHourly;
+import com.sharp.booking_service.repository.IFlightLoadStatsRepository;
+import com.sharp.booking_service.repository.IFlightStatusHourlyRepository;
+import com.sharp.booking_service.service.IBookingAnalyticsService;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class BookingAnalyticsServiceImpl implements IBookingAnalyticsService {
+
+  private final IFlightStatusHourlyRepository hourlyRepository;
+  private final IFlightLoadStatsRepository loadRepository;
+  private final BookingAnalytics analytics;
+  private final int maxTopFlights;
+
+  public BookingAnalyticsServiceImpl(IFlightStatusHourlyRepository hourlyRepository,
+      IFlightLoadStatsRepository loadRepository,
+      BookingAnalytics analytics,
+      @Value("${booking.analytics.max-top-flights:100}") int maxTopFlights) {
+    this.hourlyRepository = hourlyRepository;
+    this.loadRepository = loadRepository;
+    this.analytics = analytics;
+    this.maxTopFlights = maxTopFlights;
+  }
+
+  @Override
+  public BookingCurveDto getBookingCurve(Long flightInstanceId, LocalDateTime from, LocalDateTime to) {
+    log.debug("Fetching booking curve for flight instance {} between {} and {}", flightInstanceId, from, to);
+    Integer capacity = loadRepository.findById(flightInstanceId).map(FlightLoadStats::getCapacity).orElse(null);
+
+    // cada hora suma lo creado en ella: se acumula desde el principio aunque el rango empiece despues
+    long held = 0;
+    long confirmed = 0;
+    long cancelled = 0;
+    long expired = 0;
+    long heldSeats = 0;
+    long confirmedSeats = 0;
+    List<BookingCurvePointDto> points = new ArrayList<>();
+    List<FlightStatusHourly> rows = hourlyRepository.findByFlightInstanceIdOrderByBucketStartAsc(flightInstanceId);
+    int i = 0;
+    while (i < rows.size()) {
+      LocalDateTime bucket = rows.get(i).getBucketStart();
+      long seatsDelta = 0;
+      for (; i < rows.size() && rows.get(i).getBucketStart().equals(bucket); i++) {
+        FlightStatusHourly row = rows.get(i);
+        switch (row.getStatus()) {
+          case HELD -> {
+            held += row.getBookings();
+            heldSeats += row.getSeats();
+            seatsDelta += row.getSeats();
+          }
+          case CONFIRMED -> {
+            confirmed += row.getBookings();
+            confirmedSeats += row.getSeats();
+            seatsDelta += row.getSeats();
+          }
+          case CANCELLED -> cancelled += row.getBookings();
+          case EXPIRED -> expired += row.getBookings();
+        }
+      }
+      if ((from != null && bucket.isBefore(from)) || (to != null && bucket.isAfter(to))) {
+        continue;
+      }
+      points.add(BookingCurvePointDto.builder()
+          .bucketStart(bucket)
+          .seatsDelta(seatsDelta)
+          .heldBookings(held)
+          .confirmedBookings(confirmed)
+          .cancelledBookings(cancelled)
+          .expiredBookings(expired)
+          .heldSeats(heldSeats)
+          .confirmedSeats(confirmedSeats)
+          .loadFactor(capacity == null || capacity <= 0 ? null : (double) confirmedSeats / capacity)
+          .build());
+    }
+
+    return BookingCurveDto.builder()
+        .flightInstanceId(flightInstanceId)
+        .capacity(capacity)
+        .points(points)
+        .build();
+  }
+
+  @Override
+  public List<FlightLoadDto> getFullestFlights(int limit) {
+    if (limit <= 0 || limit > maxTopFlights) {
+      throw new IllegalArgumentException("Limit must be between 1 and " + maxTopFlights);
+    }
+    log.debug("Fetching top {} flights by load factor", limit);
+    return loadRepository.findByLoadFactorNotNullOrderByLoadFactorDesc(Limit.of(limit)).stream()
+        .map(stats -> FlightLoadDto.builder()
+            .flightInstanceId(stats.getFlightInstanceId())
+            .capacity(stats.getCapacity())
+            .heldSeats(stats.getHeldSeats())
+            .confirmedSeats(stats.getConfirmedSeats())
+            .heldBookings(stats.getHeldBookings())
+            .confirmedBookings(stats.getConfirmedBookings())
+            .cancelledBookings(stats.getCancelledBookings())
+            .expiredBookings(stats.getExpiredBookings())
+            .loadFactor(stats.getLoadFactor())
+            .updatedAt(stats.getUpdatedAt())
+            .build())
+        .toList();
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public long rebuild() {
+    return analytics.rebuild();
+  }
+}
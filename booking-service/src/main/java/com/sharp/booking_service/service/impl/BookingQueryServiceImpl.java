@@ -0,0 +1,111 @@
+package com.sharp.booking_service.service.impl;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sharp.booking_service.component.BookingProjector;
+import com.sharp.booking_service.component.OffHeapResponseCache;
+import com.sharp.booking_service.dto.BookingResponseDto;
+import com.sharp.booking_service.dto.PassengerDto;
+import com.sharp.booking_service.models.Booking;
+import com.sharp.booking_service.repository.IBookingRepository;
+import com.sharp.booking_service.repository.IBookingSummaryRepository;
+import com.sharp.booking_service.service.IBookingQueryService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.ObjectMapper;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class BookingQueryServiceImpl implements IBookingQueryService {
+
+  private final IBookingSummaryRepository summaryRepository;
+  private final IBookingRepository bookingRepository;
+  private final BookingProjector bookingProjector;
+  private final OffHeapResponseCache responseCache;
+  private final ObjectMapper objectMapper;
+
+  @Override
+  public Optional<BookingResponseDto> getBookingByPnr(String pnr) {
+    log.debug("Fetching booking summary by PNR: {}", pnr);
+    Optional<BookingResponseDto> summary = summaryRepository.findByPnr(pnr).map(bookingProjector::toResponseDto);
+    if (summary.isPresent()) {
+      return summary;
+    }
+
+    // recien creado y aun sin proyectar: se lee de las tablas normalizadas
+    Optional<Booking> booking = bookingRepository.findByPnrWithPassengers(pnr);
+    booking.ifPresent(b -> bookingProjector.markDirty(b.getBookingId()));
+    return booking.map(BookingQueryServiceImpl::toResponseDto);
+  }
+
+  @Override
+  public Optional<byte[]> getBookingJsonByPnr(String pnr) {
+    byte[] cached = responseCache.get(pnr);
+    if (cached != null) {
+      return Optional.of(cached);
+    }
+    long generation = responseCache.generation();
+    return getBookingByPnr(pnr).map(booking -> {
+      byte[] json = objectMapper.writeValueAsBytes(booking);
+      responseCache.put(pnr, booking.getBookingId(), json, generation);
+      return json;
+    });
+  }
+
+  @Override
+  public List<BookingResponseDto> getBookingsByFlightInstanceId(Long flightInstanceId, long afterBookingId, int limit) {
+    log.debug("Fetching booking summaries by flight instance id: {} after id {} (limit {})",
+        flightInstanceId, afterBookingId, limit);
+    return summaryRepository
+        .findByFlightInstanceIdAndBookingIdGreaterThanOrderByBookingIdAsc(flightInstanceId, afterBookingId, Limit.of(limit))
+        .stream()
+        .map(bookingProjector::toResponseDto)
+        .toList();
+  }
+
+  @Override
+  public List<BookingResponseDto> getBookingsByUserId(Long userId, long afterBookingId, int limit) {
+    log.debug("Fetching booking summaries by user id: {} after id {} (limit {})", userId, afterBookingId, limit);
+    return summaryRepository
+        .findByCreatedByUserIdAndBookingIdGreaterThanOrderByBookingIdAsc(userId, afterBookingId, Limit.of(limit))
+        .stream()
+        .map(bookingProjector::toResponseDto)
+        .toList();
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public long rebuildProjection() {
+    return bookingProjector.rebuild();
+  }
+
+  private static BookingResponseDto toResponseDto(Booking booking) {
+    return BookingResponseDto.builder()
+        .bookingId(booking.getBookingId())
+        .pnr(booking.getPnr())
+        .flightInstanceId(booking.getFlightInstanceId())
+        .status(booking.getStatus())
+        .holdExpiresAt(booking.getHoldExpiresAt())
+        .passengerCount(booking.getPassengerCount())
+        .createdByUserId(booking.getCreatedByUserId())
+        .createdAt(booking.getCreatedAt())
+        .passengers(booking.getPassengers().stream()
+            .map(p -> PassengerDto.builder()
+                .firstName(p.getFirstName())
+                .lastName(p.getLastName())
+                .docType(p.getDocType())
+                .docNumber(p.getDocNumber())
+                .build())
+            .toList())
+        .build();
+  }
+}
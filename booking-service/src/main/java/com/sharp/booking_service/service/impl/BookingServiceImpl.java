@@ -1,16 +1,30 @@
 package com.sharp.booking_service.service.impl;
 
-import java.security.SecureRandom;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.sharp.booking_service.component.AuditJournal;
+import com.sharp.booking_service.component.BookingOutbox;
+import com.sharp.booking_service.component.BookingProjector;
+import com.sharp.booking_service.component.HoldExpiryScheduler;
+import com.sharp.booking_service.component.ManifestWriter;
+import com.sharp.booking_service.component.PnrAllocator;
+import com.sharp.booking_service.component.SeatInventory;
+import com.sharp.booking_service.dto.ManifestFormat;
+import com.sharp.booking_service.dto.ManifestRowDto;
 import com.sharp.booking_service.dto.PassengerDto;
+import com.sharp.booking_service.dto.SeatAvailabilityDto;
 import com.sharp.booking_service.models.Booking;
+import com.sharp.booking_service.models.BookingEventType;
 import com.sharp.booking_service.models.BookingStatus;
 import com.sharp.booking_service.models.Passenger;
 import com.sharp.booking_service.repository.IBookingRepository;
@@ -26,27 +40,28 @@ import lombok.extern.slf4j.Slf4j;
 @Transactional
 public class BookingServiceImpl implements IBookingService {
 
+  private static final List<BookingStatus> CONFIRMABLE = List.of(BookingStatus.HELD);
+  private static final int MAX_CANCEL_ATTEMPTS = 3;
+
   private final IBookingRepository bookingRepository;
   private final IPassengerRepository passengerRepository;
-  private static final String CHARACTERS = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789";
-  private static final int PNR_LENGTH = 6;
-  private static final SecureRandom random = new SecureRandom();
+  private final SeatInventory seatInventory;
+  private final PnrAllocator pnrAllocator;
+  private final HoldExpiryScheduler holdExpiryScheduler;
+  private final BookingProjector bookingProjector;
+  private final BookingOutbox bookingOutbox;
+  private final AuditJournal auditJournal;
 
   @Override
   public Booking createBooking(Booking booking) {
     log.info("Creating booking for flight instance: {}", booking.getFlightInstanceId());
-
-    String pnr = generatePNR();
-    while (bookingRepository.existsByPnr(pnr)) {
-      pnr = generatePNR();
-    }
-    booking.setPnr(pnr);
-
-    if (booking.getPassengerCount() == null || booking.getPassengerCount() <= 0) {
-      throw new IllegalArgumentException("Passenger count must be greater than 0");
-    }
-
-    return bookingRepository.save(booking);
+    prepareNewBooking(booking);
+    Booking saved = bookingRepository.save(booking);
+    holdExpiryScheduler.schedule(saved.getBookingId(), saved.getHoldExpiresAt());
+    bookingProjector.markDirty(saved.getBookingId());
+    bookingOutbox.append(saved, BookingEventType.CREATED);
+    auditJournal.record(BookingEventType.CREATED, saved.getBookingId(), saved.getPnr(), null, saved.getStatus());
+    return saved;
   }
 
   @Override
@@ -62,118 +77,164 @@ public class BookingServiceImpl implements IBookingService {
       throw new IllegalArgumentException("Passenger count does not match the number of passengers provided");
     }
 
-    booking.setPassengers(new ArrayList<>());
-    Booking savedBooking = createBooking(booking);
+    prepareNewBooking(booking);
 
+    booking.setPassengers(new ArrayList<>(passengerDtos.size()));
     for (PassengerDto dto : passengerDtos) {
-      Passenger passenger = Passenger.builder()
+      booking.addPassenger(Passenger.builder()
           .firstName(dto.getFirstName())
           .lastName(dto.getLastName())
           .docType(dto.getDocType())
           .docNumber(dto.getDocNumber())
-          .booking(savedBooking)
-          .build();
-      savedBooking.addPassenger(passenger);
-      passengerRepository.save(passenger);
+          .build());
+    }
+
+    // un solo persist: los pasajeros van por cascade en un INSERT por lotes
+    Booking saved = bookingRepository.save(booking);
+    holdExpiryScheduler.schedule(saved.getBookingId(), saved.getHoldExpiresAt());
+    bookingProjector.markDirty(saved.getBookingId());
+    bookingOutbox.append(saved, BookingEventType.CREATED);
+    auditJournal.record(BookingEventType.CREATED, saved.getBookingId(), saved.getPnr(), null, saved.getStatus());
+    return saved;
+  }
+
+  private void prepareNewBooking(Booking booking) {
+    if (booking.getPassengerCount() == null || booking.getPassengerCount() <= 0) {
+      throw new IllegalArgumentException("Passenger count must be greater than 0");
     }
 
-    return bookingRepository.save(savedBooking);
+    seatInventory.hold(booking.getFlightInstanceId(), booking.getPassengerCount());
+    booking.setPnr(generatePNR());
   }
 
   @Override
   @Transactional(readOnly = true)
   public Optional<Booking> getBookingById(Long id) {
-    log.info("Fetching booking by id: {}", id);
-    return bookingRepository.findById(id);
+    log.debug("Fetching booking by id: {}", id);
+    return bookingRepository.findWithPassengersByBookingId(id);
   }
 
   @Override
   @Transactional(readOnly = true)
   public Optional<Booking> getBookingByPnr(String pnr) {
-    log.info("Fetching booking by PNR: {}", pnr);
+    log.debug("Fetching booking by PNR: {}", pnr);
     return bookingRepository.findByPnrWithPassengers(pnr);
   }
 
   @Override
   @Transactional(readOnly = true)
-  public List<Booking> getAllBookings() {
-    log.info("Fetching all bookings");
-    return bookingRepository.findAll();
+  public List<Booking> getAllBookings(long afterBookingId, int limit) {
+    log.debug("Fetching bookings after id {} (limit {})", afterBookingId, limit);
+    return withPassengers(bookingRepository.findIdsAfter(afterBookingId, Limit.of(limit)));
   }
 
   @Override
   @Transactional(readOnly = true)
-  public List<Booking> getBookingsByFlightInstanceId(Long flightInstanceId) {
-    log.info("Fetching bookings by flight instance id: {}", flightInstanceId);
-    return bookingRepository.findByFlightInstanceIdWithPassengers(flightInstanceId);
+  public List<Booking> getBookingsByFlightInstanceId(Long flightInstanceId, long afterBookingId, int limit) {
+    log.debug("Fetching bookings by flight instance id: {} after id {} (limit {})", flightInstanceId, afterBookingId, limit);
+    return withPassengers(bookingRepository.findIdsByFlightInstanceIdAfter(flightInstanceId, afterBookingId, Limit.of(limit)));
   }
 
   @Override
   @Transactional(readOnly = true)
-  public List<Booking> getBookingsByUserId(Long userId) {
-    log.info("Fetching bookings by user id: {}", userId);
-    return bookingRepository.findByCreatedByUserIdWithPassengers(userId);
+  public long writeManifest(Long flightInstanceId, ManifestFormat format, OutputStream out) {
+    log.info("Streaming {} manifest for flight instance id: {}", format, flightInstanceId);
+    try (Stream<ManifestRowDto> rows = passengerRepository.streamManifestByFlightInstanceId(flightInstanceId)) {
+      long count = ManifestWriter.write(rows, format, out);
+      log.info("Manifest for flight instance {} exported {} passengers", flightInstanceId, count);
+      return count;
+    }
   }
 
   @Override
   @Transactional(readOnly = true)
-  public List<Booking> getBookingsByStatus(BookingStatus status) {
-    log.info("Fetching bookings by status: {}", status);
-    return bookingRepository.findByStatus(status);
+  public List<Booking> getBookingsByUserId(Long userId, long afterBookingId, int limit) {
+    log.debug("Fetching bookings by user id: {} after id {} (limit {})", userId, afterBookingId, limit);
+    return withPassengers(bookingRepository.findIdsByCreatedByUserIdAfter(userId, afterBookingId, Limit.of(limit)));
   }
 
   @Override
   @Transactional(readOnly = true)
-  public List<Booking> getExpiredHeldBookings() {
-    log.info("Fetching expired held bookings");
-    return bookingRepository.findExpiredHeldBookings(BookingStatus.HELD, LocalDateTime.now());
+  public List<Booking> getBookingsByStatus(BookingStatus status, long afterBookingId, int limit) {
+    log.debug("Fetching bookings by status: {} after id {} (limit {})", status, afterBookingId, limit);
+    return withPassengers(bookingRepository.findIdsByStatusAfter(status, afterBookingId, Limit.of(limit)));
+  }
+
+  private List<Booking> withPassengers(List<Long> bookingIds) {
+    if (bookingIds.isEmpty()) {
+      return List.of();
+    }
+    return bookingRepository.findAllWithPassengersByIdIn(bookingIds);
   }
 
   @Override
   @Transactional(readOnly = true)
-  public List<Booking> getExpiringBookings(LocalDateTime start, LocalDateTime end) {
-    log.info("Fetching bookings expiring between {} and {}", start, end);
-    return bookingRepository.findExpiringSoon(start, end);
+  public List<Booking> getExpiredHeldBookings(long afterBookingId, int limit) {
+    log.debug("Fetching expired held bookings after id {} (limit {})", afterBookingId, limit);
+    return withPassengers(bookingRepository.findExpiredHeldIdsAfter(BookingStatus.HELD, LocalDateTime.now(),
+        afterBookingId, Limit.of(limit)));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<Booking> getExpiringBookings(LocalDateTime start, LocalDateTime end, long afterBookingId, int limit) {
+    log.debug("Fetching bookings expiring between {} and {} after id {} (limit {})", start, end, afterBookingId, limit);
+    return withPassengers(bookingRepository.findIdsExpiringBetween(start, end, afterBookingId, Limit.of(limit)));
   }
 
   @Override
   public Booking confirmBooking(String pnr) {
     log.info("Confirming booking with PNR: {}", pnr);
-    Booking booking = bookingRepository.findByPnr(pnr)
-        .orElseThrow(() -> new IllegalArgumentException("Booking not found with PNR: " + pnr));
-
-    if (booking.getStatus() == BookingStatus.CONFIRMED) {
-      throw new IllegalArgumentException("Booking is already confirmed");
-    }
-
-    if (booking.getStatus() == BookingStatus.CANCELLED) {
-      throw new IllegalArgumentException("Cannot confirm a cancelled booking");
+    // primero el UPDATE condicional: si dos confirmaciones compiten, solo una afecta la fila
+    if (bookingRepository.transition(pnr, CONFIRMABLE, BookingStatus.CONFIRMED, LocalDateTime.now()) == 0) {
+      BookingStatus status = bookingRepository.findStatusByPnr(pnr)
+          .orElseThrow(() -> new IllegalArgumentException("Booking not found with PNR: " + pnr));
+      switch (status) {
+        case CONFIRMED -> throw new IllegalArgumentException("Booking is already confirmed");
+        case CANCELLED -> throw new IllegalArgumentException("Cannot confirm a cancelled booking");
+        case EXPIRED -> throw new IllegalArgumentException("Cannot confirm an expired booking");
+        default -> throw new OptimisticLockingFailureException("Booking " + pnr + " changed while confirming");
+      }
     }
 
-    if (booking.getStatus() == BookingStatus.EXPIRED) {
-      throw new IllegalArgumentException("Cannot confirm an expired booking");
-    }
-
-    booking.setStatus(BookingStatus.CONFIRMED);
-    booking.setHoldExpiresAt(null);
+    // la fila ya esta bloqueada por el UPDATE; esta lectura trae tambien los pasajeros para la respuesta
+    Booking booking = bookingRepository.findByPnrWithPassengers(pnr).orElseThrow();
+    seatInventory.confirm(booking.getFlightInstanceId(), booking.getPassengerCount());
 
-    return bookingRepository.save(booking);
+    bookingProjector.markDirty(booking.getBookingId());
+    bookingOutbox.append(booking, BookingEventType.CONFIRMED);
+    auditJournal.record(BookingEventType.CONFIRMED, booking.getBookingId(), pnr, BookingStatus.HELD,
+        BookingStatus.CONFIRMED);
+    return booking;
   }
 
   @Override
   public Booking cancelBooking(String pnr) {
     log.info("Cancelling booking with PNR: {}", pnr);
-    Booking booking = bookingRepository.findByPnr(pnr)
-        .orElseThrow(() -> new IllegalArgumentException("Booking not found with PNR: " + pnr));
-
-    if (booking.getStatus() == BookingStatus.CANCELLED) {
-      throw new IllegalArgumentException("Booking is already cancelled");
+    // hay que saber el estado previo para liberar los asientos correctos: se lee y se
+    // cancela con UPDATE condicional sobre ese estado; si otro request lo cambio, se relee
+    for (int attempt = 0; attempt < MAX_CANCEL_ATTEMPTS; attempt++) {
+      Booking booking = bookingRepository.findByPnrWithPassengers(pnr)
+          .orElseThrow(() -> new IllegalArgumentException("Booking not found with PNR: " + pnr));
+
+      BookingStatus previous = booking.getStatus();
+      if (previous == BookingStatus.CANCELLED) {
+        throw new IllegalArgumentException("Booking is already cancelled");
+      }
+
+      if (bookingRepository.transition(pnr, List.of(previous), BookingStatus.CANCELLED, LocalDateTime.now()) == 1) {
+        seatInventory.release(booking.getFlightInstanceId(), previous, booking.getPassengerCount());
+        // el UPDATE limpia el contexto: se relee la fila bloqueada para emitir la version guardada
+        booking = bookingRepository.findByPnrWithPassengers(pnr).orElseThrow();
+
+        bookingProjector.markDirty(booking.getBookingId());
+        bookingOutbox.append(booking, BookingEventType.CANCELLED);
+        auditJournal.record(BookingEventType.CANCELLED, booking.getBookingId(), pnr, previous,
+            BookingStatus.CANCELLED);
+        return booking;
+      }
     }
-
-    booking.setStatus(BookingStatus.CANCELLED);
-    booking.setHoldExpiresAt(null);
-
-    return bookingRepository.save(booking);
+    throw new OptimisticLockingFailureException("Booking " + pnr + " changed while cancelling");
   }
 
   @Override
@@ -182,6 +243,10 @@ public class BookingServiceImpl implements IBookingService {
     Booking existingBooking = bookingRepository.findById(id)
         .orElseThrow(() -> new IllegalArgumentException("Booking not found with id: " + id));
 
+    Long oldFlightInstanceId = existingBooking.getFlightInstanceId();
+    BookingStatus oldStatus = existingBooking.getStatus();
+    int oldPassengerCount = existingBooking.getPassengerCount();
+
     if (booking.getFlightInstanceId() != null) {
       existingBooking.setFlightInstanceId(booking.getFlightInstanceId());
     }
@@ -202,16 +267,36 @@ public class BookingServiceImpl implements IBookingService {
       existingBooking.setHoldExpiresAt(booking.getHoldExpiresAt());
     }
 
-    return bookingRepository.save(existingBooking);
+    seatInventory.reassign(oldFlightInstanceId, oldStatus, oldPassengerCount,
+        existingBooking.getFlightInstanceId(), existingBooking.getStatus(), existingBooking.getPassengerCount());
+
+    if (existingBooking.getStatus() == BookingStatus.HELD) {
+      holdExpiryScheduler.schedule(existingBooking.getBookingId(), existingBooking.getHoldExpiresAt());
+    }
+
+    bookingProjector.markDirty(existingBooking.getBookingId());
+    // flush para que el evento lleve la version ya incrementada
+    Booking saved = bookingRepository.saveAndFlush(existingBooking);
+    bookingOutbox.append(saved, BookingEventType.UPDATED);
+    auditJournal.record(BookingEventType.UPDATED, saved.getBookingId(), saved.getPnr(), oldStatus, saved.getStatus());
+    return saved;
   }
 
   @Override
   public boolean deleteBooking(Long id) {
     log.info("Deleting booking with id: {}", id);
-    if (!bookingRepository.existsById(id)) {
+    Optional<Booking> booking = bookingRepository.findById(id);
+    if (booking.isEmpty()) {
       return false;
     }
-    bookingRepository.deleteById(id);
+    seatInventory.release(booking.get().getFlightInstanceId(), booking.get().getStatus(),
+        booking.get().getPassengerCount());
+    bookingRepository.delete(booking.get());
+    bookingProjector.markDirty(id);
+    Booking deleted = booking.get();
+    bookingOutbox.append(BookingEventType.DELETED, deleted.getBookingId(), deleted.getPnr(),
+        deleted.getFlightInstanceId(), deleted.getStatus(), deleted.getPassengerCount(), deleted.getVersion() + 1);
+    auditJournal.record(BookingEventType.DELETED, deleted.getBookingId(), deleted.getPnr(), deleted.getStatus(), null);
     return true;
   }
 
@@ -227,13 +312,15 @@ public class BookingServiceImpl implements IBookingService {
     return bookingRepository.countByFlightInstanceIdAndStatusIn(flightInstanceId, statuses);
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public SeatAvailabilityDto getSeatAvailability(Long flightInstanceId) {
+    return seatInventory.getAvailability(flightInstanceId);
+  }
+
   @Override
   public String generatePNR() {
-    StringBuilder pnr = new StringBuilder(PNR_LENGTH);
-    for (int i = 0; i < PNR_LENGTH; i++) {
-      pnr.append(CHARACTERS.charAt(random.nextInt(CHARACTERS.length())));
-    }
-    return pnr.toString();
+    return pnrAllocator.next();
   }
 
   @Override
@@ -0,0 +1,286 @@
+package com.sharp.booking_service.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sharp.booking_service.component.AuditJournal;
+import com.sharp.booking_service.component.BookingOutbox;
+import com.sharp.booking_service.component.BookingProjector;
+import com.sharp.booking_service.component.HoldExpiryScheduler;
+import com.sharp.booking_service.component.PnrAllocator;
+import com.sharp.booking_service.component.SeatInventory;
+import com.sharp.booking_service.controllers.SeatsUnavailableException;
+import com.sharp.booking_service.dto.BookingRequestDto;
+import com.sharp.booking_service.dto.BulkBookingItemResultDto;
+import com.sharp.booking_service.dto.BulkBookingResponseDto;
+import com.sharp.booking_service.dto.PassengerDto;
+import com.sharp.booking_service.models.Booking;
+import com.sharp.booking_service.models.BookingEventType;
+import com.sharp.booking_service.models.Passenger;
+import com.sharp.booking_service.repository.IBookingRepository;
+import com.sharp.booking_service.service.IBulkBookingService;
+
+import feign.FeignException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Alta masiva de bookings.
+ *
+ * Valida todo el lote primero, pide los PNR de una vez y persiste en chunks,
+ * cada uno en su propia transaccion con INSERT por lotes. Si un chunk falla al
+ * persistir se reintenta item por item, asi un booking malo no tumba al resto.
+ */
+@Slf4j
+@Service
+public class BulkBookingServiceImpl implements IBulkBookingService {
+
+  private static final String SEATS_UNAVAILABLE = "SEATS_UNAVAILABLE";
+
+  private final IBookingRepository bookingRepository;
+  private final SeatInventory seatInventory;
+  private final PnrAllocator pnrAllocator;
+  private final HoldExpiryScheduler holdExpiryScheduler;
+  private final BookingProjector bookingProjector;
+  private final BookingOutbox bookingOutbox;
+  private final AuditJournal auditJournal;
+  private final TransactionTemplate transactionTemplate;
+  private final int chunkSize;
+  private final int maxItems;
+
+  public BulkBookingServiceImpl(IBookingRepository bookingRepository,
+      SeatInventory seatInventory,
+      PnrAllocator pnrAllocator,
+      HoldExpiryScheduler holdExpiryScheduler,
+      BookingProjector bookingProjector,
+      BookingOutbox bookingOutbox,
+      AuditJournal auditJournal,
+      PlatformTransactionManager transactionManager,
+      @Value("${booking.bulk.chunk-size:200}") int chunkSize,
+      @Value("${booking.bulk.max-items:5000}") int maxItems) {
+    this.bookingRepository = bookingRepository;
+    this.seatInventory = seatInventory;
+    this.pnrAllocator = pnrAllocator;
+    this.holdExpiryScheduler = holdExpiryScheduler;
+    this.bookingProjector = bookingProjector;
+    this.bookingOutbox = bookingOutbox;
+    this.auditJournal = auditJournal;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.chunkSize = chunkSize;
+    this.maxItems = maxItems;
+  }
+
+  @Override
+  public BulkBookingResponseDto createBookings(List<BookingRequestDto> requests) {
+    if (requests == null || requests.isEmpty()) {
+      throw new IllegalArgumentException("At least one booking is required");
+    }
+    if (requests.size() > maxItems) {
+      throw new IllegalArgumentException("A bulk request accepts at most " + maxItems + " bookings");
+    }
+    log.info("Creating {} bookings in bulk (chunk size {})", requests.size(), chunkSize);
+
+    BulkBookingItemResultDto[] results = new BulkBookingItemResultDto[requests.size()];
+    List<Item> valid = new ArrayList<>(requests.size());
+    for (int i = 0; i < requests.size(); i++) {
+      String error = validate(requests.get(i));
+      if (error != null) {
+        results[i] = failed(i, "VALIDATION_ERROR", error);
+      } else {
+        valid.add(new Item(i, requests.get(i)));
+      }
+    }
+
+    List<String> pnrs = pnrAllocator.next(valid.size());
+    for (int i = 0; i < valid.size(); i++) {
+      valid.get(i).pnr = pnrs.get(i);
+    }
+
+    for (int from = 0; from < valid.size(); from += chunkSize) {
+      persistChunk(valid.subList(from, Math.min(valid.size(), from + chunkSize)), results);
+    }
+
+    int created = (int) Arrays.stream(results).filter(BulkBookingItemResultDto::isSuccess).count();
+    log.info("Bulk booking finished: {} created, {} failed", created, results.length - created);
+    return BulkBookingResponseDto.builder()
+        .total(results.length)
+        .created(created)
+        .failed(results.length - created)
+        .items(Arrays.asList(results))
+        .build();
+  }
+
+  private void persistChunk(List<Item> chunk, BulkBookingItemResultDto[] results) {
+    try {
+      persist(chunk, results);
+    } catch (DataAccessException | TransactionException e) {
+      if (chunk.size() == 1) {
+        Item item = chunk.get(0);
+        log.error("Bulk item {} could not be persisted: {}", item.index, e.getMessage());
+        results[item.index] = failed(item.index, "PERSISTENCE_ERROR", "Booking could not be persisted");
+        return;
+      }
+      // el chunk hizo rollback entero: se aisla el item culpable reintentando de a uno
+      log.warn("Bulk chunk of {} bookings failed ({}), retrying one by one", chunk.size(), e.getMessage());
+      for (Item item : chunk) {
+        persistChunk(List.of(item), results);
+      }
+    }
+  }
+
+  private void persist(List<Item> chunk, BulkBookingItemResultDto[] results) {
+    transactionTemplate.executeWithoutResult(status -> {
+      List<Booking> bookings = new ArrayList<>(chunk.size());
+      Map<Long, List<Item>> byFlight = new TreeMap<>();
+      for (Item item : chunk) {
+        item.booking = null;
+        byFlight.computeIfAbsent(item.request.getFlightInstanceId(), id -> new ArrayList<>()).add(item);
+      }
+      // un hold por vuelo y en orden de id: dos lotes cruzados piden los vuelos en el mismo orden
+      byFlight.forEach((flightInstanceId, items) -> {
+        for (Item item : hold(flightInstanceId, items, results)) {
+          bookings.add(toBooking(item));
+        }
+      });
+
+      // pasajeros por cascade; con SEQUENCE pooled los INSERT salen agrupados
+      bookingRepository.saveAll(bookings);
+      bookingOutbox.append(bookings, BookingEventType.CREATED);
+      for (Booking booking : bookings) {
+        auditJournal.record(BookingEventType.CREATED, booking.getBookingId(), booking.getPnr(), null,
+            booking.getStatus());
+      }
+      bookingRepository.flush();
+    });
+
+    for (Item item : chunk) {
+      if (item.booking == null) {
+        continue;
+      }
+      Booking booking = item.booking;
+      holdExpiryScheduler.schedule(booking.getBookingId(), booking.getHoldExpiresAt());
+      bookingProjector.markDirty(booking.getBookingId());
+      results[item.index] = BulkBookingItemResultDto.builder()
+          .index(item.index)
+          .success(true)
+          .bookingId(booking.getBookingId())
+          .pnr(booking.getPnr())
+          .status(booking.getStatus())
+          .holdExpiresAt(booking.getHoldExpiresAt())
+          .code("CREATED")
+          .build();
+    }
+  }
+
+  private List<Item> hold(Long flightInstanceId, List<Item> items, BulkBookingItemResultDto[] results) {
+    int seats = items.stream().mapToInt(item -> item.request.getPassengerCount()).sum();
+    String failure = tryHold(flightInstanceId, seats, items, results);
+    if (failure == null) {
+      return items;
+    }
+    if (items.size() == 1 || !SEATS_UNAVAILABLE.equals(failure)) {
+      return List.of();
+    }
+    // no entran todos juntos: se admiten de a uno, en el orden del request, los que quepan
+    List<Item> held = new ArrayList<>(items.size());
+    for (Item item : items) {
+      if (tryHold(flightInstanceId, item.request.getPassengerCount(), List.of(item), results) == null) {
+        held.add(item);
+      }
+    }
+    return held;
+  }
+
+  // null si entro; si no, el codigo con que quedaron marcados los items
+  private String tryHold(Long flightInstanceId, int seats, List<Item> items, BulkBookingItemResultDto[] results) {
+    String code;
+    String message;
+    try {
+      seatInventory.hold(flightInstanceId, seats);
+      return null;
+    } catch (SeatsUnavailableException e) {
+      code = SEATS_UNAVAILABLE;
+      message = e.getMessage();
+    } catch (IllegalArgumentException e) {
+      code = "VALIDATION_ERROR";
+      message = e.getMessage();
+    } catch (FeignException e) {
+      code = "FLIGHT_SERVICE_ERROR";
+      message = "Flight service unavailable";
+    }
+    for (Item item : items) {
+      results[item.index] = failed(item.index, code, message);
+    }
+    return code;
+  }
+
+  private static Booking toBooking(Item item) {
+    BookingRequestDto request = item.request;
+    Booking booking = Booking.builder()
+        .pnr(item.pnr)
+        .flightInstanceId(request.getFlightInstanceId())
+        .passengerCount(request.getPassengerCount())
+        .createdByUserId(request.getCreatedByUserId())
+        .holdExpiresAt(request.getHoldExpiresAt())
+        .build();
+    if (request.getPassengers() != null) {
+      for (PassengerDto dto : request.getPassengers()) {
+        booking.addPassenger(Passenger.builder()
+            .firstName(dto.getFirstName())
+            .lastName(dto.getLastName())
+            .docType(dto.getDocType())
+            .docNumber(dto.getDocNumber())
+            .build());
+      }
+    }
+    item.booking = booking;
+    return booking;
+  }
+
+  private static String validate(BookingRequestDto request) {
+    if (request == null) {
+      return "Booking is required";
+    }
+    if (request.getFlightInstanceId() == null) {
+      return "Flight instance id is required";
+    }
+    if (request.getPassengerCount() == null || request.getPassengerCount() <= 0) {
+      return "Passenger count must be greater than 0";
+    }
+    List<PassengerDto> passengers = request.getPassengers();
+    if (passengers != null && !passengers.isEmpty() && passengers.size() != request.getPassengerCount()) {
+      return "Passenger count does not match the number of passengers provided";
+    }
+    return null;
+  }
+
+  private static BulkBookingItemResultDto failed(int index, String code, String message) {
+    return BulkBookingItemResultDto.builder()
+        .index(index)
+        .success(false)
+        .code(code)
+        .message(message)
+        .build();
+  }
+
+  private static final class Item {
+    private final int index;
+    private final BookingRequestDto request;
+    private String pnr;
+    private Booking booking;
+
+    private Item(int index, BookingRequestDto request) {
+      this.index = index;
+      this.request = request;
+    }
+  }
+}
@@ -1,25 +1,38 @@
 	package com.sharp.booking_service.service.impl;
 
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.sharp.booking_service.component.BookingProjector;
+import com.sharp.booking_service.dto.DocumentMatchDto;
 import com.sharp.booking_service.models.Passenger;
 import com.sharp.booking_service.repository.IPassengerRepository;
 import com.sharp.booking_service.service.IPassengerService;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 @Transactional
 public class PassengerServiceImpl implements IPassengerService {
 
   private final IPassengerRepository passengerRepository;
+  private final BookingProjector bookingProjector;
+  private final int maxSearchDocs;
+
+  public PassengerServiceImpl(IPassengerRepository passengerRepository,
+      BookingProjector bookingProjector,
+      @Value("${booking.passenger-search.max-docs:2000}") int maxSearchDocs) {
+    this.passengerRepository = passengerRepository;
+    this.bookingProjector = bookingProjector;
+    this.maxSearchDocs = maxSearchDocs;
+  }
 
   @Override
   public Passenger createPassenger(Passenger passenger) {
@@ -29,13 +42,15 @@ public class PassengerServiceImpl implements IPassengerService {
       throw new IllegalArgumentException("Passenger must be associated with a booking");
     }
 
-    return passengerRepository.save(passenger);
+    Passenger saved = passengerRepository.save(passenger);
+    bookingProjector.markDirty(passenger.getBooking().getBookingId());
+    return saved;
   }
 
   @Override
   @Transactional(readOnly = true)
   public Passenger getPassengerById(Long id) {
-    log.info("Fetching passenger by id: {}", id);
+    log.debug("Fetching passenger by id: {}", id);
     return passengerRepository.findById(id)
         .orElseThrow(() -> new IllegalArgumentException("Passenger not found with id: " + id));
   }
@@ -43,22 +58,54 @@ public class PassengerServiceImpl implements IPassengerService {
   @Override
   @Transactional(readOnly = true)
   public List<Passenger> getPassengersByBookingId(Long bookingId) {
-    log.info("Fetching passengers by booking id: {}", bookingId);
+    log.debug("Fetching passengers by booking id: {}", bookingId);
     return passengerRepository.findByBookingBookingId(bookingId);
   }
 
   @Override
   @Transactional(readOnly = true)
   public long countByBookingId(Long bookingId) {
-    log.info("Counting passengers by booking id: {}", bookingId);
+    log.debug("Counting passengers by booking id: {}", bookingId);
     return passengerRepository.countByBookingBookingId(bookingId);
   }
 
   @Override
   @Transactional(readOnly = true)
-  public List<Passenger> getPassengersByDocNumber(String docNumber) {
-    log.info("Fetching passengers by document number: {}", docNumber);
-    return passengerRepository.findByDocNumber(docNumber);
+  public List<Passenger> getPassengersByDocNumber(String docNumber, String docType) {
+    log.debug("Fetching passengers by document number: {}", docNumber);
+    String key = Passenger.normalizeDocNumber(docNumber);
+    if (docType == null || docType.isBlank()) {
+      return passengerRepository.findByDocNumberKey(key);
+    }
+    return passengerRepository.findByDocNumberKeyAndDocType(key, Passenger.normalizeDocType(docType));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<DocumentMatchDto> searchByDocNumbers(String docType, List<String> docNumbers) {
+    if (docNumbers == null || docNumbers.isEmpty()) {
+      throw new IllegalArgumentException("At least one document number is required");
+    }
+    if (docNumbers.size() > maxSearchDocs) {
+      throw new IllegalArgumentException("At most " + maxSearchDocs + " document numbers per request");
+    }
+
+    Set<String> keys = new LinkedHashSet<>();
+    for (String docNumber : docNumbers) {
+      String key = Passenger.normalizeDocNumber(docNumber);
+      if (key != null && !key.isEmpty()) {
+        keys.add(key);
+      }
+    }
+    if (keys.isEmpty()) {
+      return List.of();
+    }
+
+    log.debug("Screening {} document numbers", keys.size());
+    if (docType == null || docType.isBlank()) {
+      return passengerRepository.findMatchesByDocNumberKeyIn(keys);
+    }
+    return passengerRepository.findMatchesByDocNumberKeyInAndDocType(keys, Passenger.normalizeDocType(docType));
   }
 
   @Override
@@ -83,16 +130,23 @@ public class PassengerServiceImpl implements IPassengerService {
       existingPassenger.setDocNumber(passenger.getDocNumber());
     }
 
+    if (existingPassenger.getBooking() != null) {
+      bookingProjector.markDirty(existingPassenger.getBooking().getBookingId());
+    }
     return passengerRepository.save(existingPassenger);
   }
 
   @Override
   public boolean deletePassenger(Long id) {
     log.info("Deleting passenger with id: {}", id);
-    if (!passengerRepository.existsById(id)) {
+    Optional<Passenger> passenger = passengerRepository.findById(id);
+    if (passenger.isEmpty()) {
       return false;
     }
-    passengerRepository.deleteById(id);
+    if (passenger.get().getBooking() != null) {
+      bookingProjector.markDirty(passenger.get().getBooking().getBookingId());
+    }
+    passengerRepository.delete(passenger.get());
     return true;
   }
 }
@@ -0,0 +1,131 @@
+package com.sharp.booking_service.component;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.sharp.booking_service.models.Booking;
+import com.sharp.booking_service.models.BookingStatus;
+import com.sharp.booking_service.models.BookingSummary;
+import com.sharp.booking_service.repository.IBookingRepository;
+import com.sharp.booking_service.repository.IBookingSummaryRepository;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:booking_projector;MODE=MySQL;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "booking.projection.drain-ms=3600000",
+    "booking.outbox.poll-ms=3600000"
+})
+class BookingProjectorTests {
+
+  @Autowired
+  private BookingProjector projector;
+
+  @Autowired
+  private IBookingRepository bookingRepository;
+
+  @Autowired
+  private IBookingSummaryRepository summaryRepository;
+
+  @Autowired
+  private BookingAnalytics analytics;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  // cambios escritos sin markDirty: como si el nodo hubiera caido antes del drain
+  @Test
+  void reconcileProjectsChangesLostFromPending() {
+    Booking booking = bookingRepository.save(Booking.builder()
+        .flightInstanceId(1L)
+        .pnr("RECO01")
+        .passengerCount(2)
+        .build());
+
+    projector.reconcile();
+
+    BookingSummary created = summaryRepository.findById(booking.getBookingId()).orElseThrow();
+    assertThat(created.getStatus()).isEqualTo(BookingStatus.HELD);
+    assertThat(created.getBookingVersion()).isEqualTo(booking.getVersion());
+
+    booking.setStatus(BookingStatus.CONFIRMED);
+    booking = bookingRepository.save(booking);
+    projector.reconcile();
+
+    BookingSummary updated = summaryRepository.findById(booking.getBookingId()).orElseThrow();
+    assertThat(updated.getStatus()).isEqualTo(BookingStatus.CONFIRMED);
+    assertThat(updated.getBookingVersion()).isEqualTo(booking.getVersion());
+
+    bookingRepository.deleteById(booking.getBookingId());
+    projector.reconcile();
+
+    assertThat(summaryRepository.findById(booking.getBookingId())).isEmpty();
+  }
+
+  // reconcile no recorre la tabla: lo escrito antes de su ventana queda para rebuild
+  @Test
+  void reconcileOnlyLooksAtRecentWrites() {
+    Booking booking = bookingRepository.save(Booking.builder()
+        .flightInstanceId(3L)
+        .pnr("RECO02")
+        .passengerCount(1)
+        .build());
+    jdbcTemplate.update("UPDATE booking SET updated_at = ? WHERE booking_id = ?",
+        LocalDateTime.now().minusDays(1), booking.getBookingId());
+
+    projector.reconcile();
+    assertThat(summaryRepository.findById(booking.getBookingId())).isEmpty();
+
+    projector.rebuild();
+    assertThat(summaryRepository.findById(booking.getBookingId())).isPresent();
+  }
+
+  // deltas y rebuild cuentan cada booking en su hora de creacion, con su estado actual
+  @Test
+  void analyticsRebuildMatchesProjectedDeltas() {
+    Booking booking = bookingRepository.save(Booking.builder()
+        .flightInstanceId(2L)
+        .pnr("ANLY01")
+        .passengerCount(3)
+        .build());
+    jdbcTemplate.update("UPDATE booking SET created_at = ? WHERE booking_id = ?",
+        LocalDateTime.now().minusDays(2), booking.getBookingId());
+    projector.reconcile();
+    assertThat(heldSeats(2L)).isEqualTo(3);
+
+    booking = bookingRepository.findById(booking.getBookingId()).orElseThrow();
+    booking.setStatus(BookingStatus.CONFIRMED);
+    bookingRepository.save(booking);
+    projector.reconcile();
+    List<Map<String, Object>> projected = hourly(2L);
+
+    jdbcTemplate.update("UPDATE booking_flight_load SET confirmed_seats = 0 WHERE flight_instance_id = 2");
+    analytics.rebuild();
+
+    assertThat(hourly(2L)).isEqualTo(projected).hasSize(1);
+    assertThat(heldSeats(2L)).isZero();
+    assertThat(jdbcTemplate.queryForObject(
+        "SELECT confirmed_seats FROM booking_flight_load WHERE flight_instance_id = 2", Integer.class)).isEqualTo(3);
+  }
+
+  private List<Map<String, Object>> hourly(long flightInstanceId) {
+    return jdbcTemplate.queryForList("SELECT bucket_start, status, bookings, seats FROM booking_flight_hourly"
+        + " WHERE flight_instance_id = ? AND (bookings <> 0 OR seats <> 0) ORDER BY bucket_start, status",
+        flightInstanceId);
+  }
+
+  private int heldSeats(long flightInstanceId) {
+    return jdbcTemplate.queryForObject(
+        "SELECT held_seats FROM booking_flight_load WHERE flight_instance_id = ?", Integer.class, flightInstanceId);
+  }
+}
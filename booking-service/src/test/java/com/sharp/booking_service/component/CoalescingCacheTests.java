@@ -0,0 +1,75 @@
+package com.sharp.booking_service.component;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class CoalescingCacheTests {
+
+  @Test
+  void concurrentMissesShareOneLoad() throws Exception {
+    CoalescingCache<String, String> cache = new CoalescingCache<>(10, value -> Duration.ofMinutes(1));
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger loads = new AtomicInteger();
+
+    CompletableFuture<CoalescingCache.Hit<String>> first = CompletableFuture.supplyAsync(() ->
+        cache.get("k", key -> {
+          loads.incrementAndGet();
+          loading.countDown();
+          await(release);
+          return "v";
+        }));
+    assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+    CompletableFuture<CoalescingCache.Hit<String>> second = CompletableFuture.supplyAsync(() ->
+        cache.get("k", key -> "other"));
+    // el segundo ya esta esperando a la carga del primero o la vera en la cache
+    release.countDown();
+
+    assertThat(first.get(5, TimeUnit.SECONDS).source()).isEqualTo(CoalescingCache.Source.LOADED);
+    assertThat(second.get(5, TimeUnit.SECONDS).value()).isEqualTo("v");
+    assertThat(cache.get("k", key -> "other").source()).isEqualTo(CoalescingCache.Source.CACHED);
+    assertThat(loads).hasValue(1);
+  }
+
+  @Test
+  void errorsAndNonPositiveLifetimesAreNotStored() {
+    CoalescingCache<String, String> cache = new CoalescingCache<>(10,
+        value -> value.isEmpty() ? Duration.ZERO : Duration.ofMinutes(1));
+
+    assertThatThrownBy(() -> cache.get("k", key -> {
+      throw new IllegalStateException("down");
+    })).isInstanceOf(IllegalStateException.class);
+    assertThat(cache.get("k", key -> "").source()).isEqualTo(CoalescingCache.Source.LOADED);
+    assertThat(cache.get("k", key -> "v").source()).isEqualTo(CoalescingCache.Source.LOADED);
+    assertThat(cache.get("k", key -> "w").value()).isEqualTo("v");
+    assertThat(cache.size()).isEqualTo(1);
+  }
+
+  @Test
+  void leastRecentlyUsedIsEvicted() {
+    CoalescingCache<String, String> cache = new CoalescingCache<>(2, value -> Duration.ofMinutes(1));
+    cache.get("a", key -> "1");
+    cache.get("b", key -> "2");
+    cache.get("a", key -> "x");
+    cache.get("c", key -> "3");
+
+    assertThat(cache.get("a", key -> "x").value()).isEqualTo("1");
+    assertThat(cache.get("b", key -> "x").value()).isEqualTo("x");
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package com.sharp.booking_service.component;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.sharp.booking_service.controllers.IdempotencyKeyException;
+import com.sharp.booking_service.dto.BookingResponseDto;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:booking_idempotency;MODE=MySQL;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "booking.projection.drain-ms=3600000",
+    "booking.outbox.poll-ms=3600000",
+    // sin cache local: cada llamada pasa por la tabla, como en otro nodo
+    "booking.idempotency.max-entries=0"
+})
+class IdempotencyStoreTests {
+
+  @Autowired
+  private IdempotencyStore store;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void overLongKeyIsABadRequest() {
+    assertThatThrownBy(() -> store.execute("k".repeat(129), "hash", () -> created(1L), id -> Optional.empty()))
+        .isInstanceOfSatisfying(IdempotencyKeyException.class, e -> assertThat(e.getStatus()).isEqualTo(400));
+  }
+
+  // vencida pero todavia sin purgar: la key se procesa de nuevo
+  @Test
+  void expiredKeyIsNotReplayedBeforeThePurge() {
+    AtomicInteger runs = new AtomicInteger();
+    store.execute("expired-key", "first", () -> created(runs.incrementAndGet()), id -> Optional.empty());
+
+    assertThatThrownBy(() -> store.execute("expired-key", "second", () -> created(runs.incrementAndGet()),
+        id -> Optional.empty()))
+        .isInstanceOfSatisfying(IdempotencyKeyException.class, e -> assertThat(e.getStatus()).isEqualTo(422));
+
+    jdbcTemplate.update("UPDATE booking_idempotency_key SET expires_at = ? WHERE idempotency_key = ?",
+        LocalDateTime.now().minusMinutes(1), "expired-key");
+
+    ResponseEntity<BookingResponseDto> response = store.execute("expired-key", "second",
+        () -> created(runs.incrementAndGet()), id -> Optional.empty());
+
+    assertThat(response.getBody().getBookingId()).isEqualTo(2L);
+    assertThat(runs).hasValue(2);
+  }
+
+  private static ResponseEntity<BookingResponseDto> created(long bookingId) {
+    return ResponseEntity.status(201).body(BookingResponseDto.builder().bookingId(bookingId).build());
+  }
+}
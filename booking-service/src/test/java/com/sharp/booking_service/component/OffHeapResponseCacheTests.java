@@ -0,0 +1,57 @@
+package com.sharp.booking_service.component;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class OffHeapResponseCacheTests {
+
+  // 1 MB en slabs de 512 KB: dos slabs en total
+  private final OffHeapResponseCache cache = new OffHeapResponseCache(new SimpleMeterRegistry(), true, 1, 512, 60, 0);
+
+  @Test
+  void classWithoutSlabTakesOneFromAnotherClass() {
+    // 4096 entradas de 256 B llenan los dos slabs
+    for (int i = 0; i < 4096; i++) {
+      put("small-" + i, 200);
+    }
+
+    put("large", 3000);
+
+    assertThat(cache.get("large")).hasSize(3000);
+    assertThat(cache.get("small-0")).isNull();
+    assertThat(cache.get("small-4095")).hasSize(200);
+  }
+
+  @Test
+  void colderClassGivesUpItsSlab() {
+    put("small", 200);
+    // 128 paginas de 4 KB llenan el otro slab
+    for (int i = 0; i < 128; i++) {
+      put("large-" + i, 3000);
+    }
+
+    put("large-128", 3000);
+
+    assertThat(cache.get("small")).isNull();
+    assertThat(cache.get("large-0")).hasSize(3000);
+    assertThat(cache.get("large-128")).hasSize(3000);
+  }
+
+  @Test
+  void invalidatedBookingIsNotServed() {
+    long generation = cache.generation();
+    cache.put("AB12CD", 7L, new byte[100], generation);
+
+    cache.invalidateBooking(7L);
+    cache.put("AB12CD", 7L, new byte[100], generation);
+
+    assertThat(cache.get("AB12CD")).isNull();
+  }
+
+  private void put(String key, int length) {
+    cache.put(key, null, new byte[length], cache.generation());
+  }
+}
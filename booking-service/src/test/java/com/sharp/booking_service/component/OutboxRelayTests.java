@@ -0,0 +1,71 @@
+package com.sharp.booking_service.component;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.sharp.booking_service.models.BookingEventType;
+import com.sharp.booking_service.models.BookingStatus;
+import com.sharp.booking_service.models.OutboxEvent;
+import com.sharp.booking_service.repository.IOutboxEventRepository;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:booking_outbox;MODE=MySQL;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "booking.projection.drain-ms=3600000",
+    "booking.outbox.poll-ms=3600000",
+    "booking.outbox.purge-ms=3600000",
+    "booking.outbox.sink=none",
+    "booking.outbox.retention-hours=24"
+})
+class OutboxRelayTests {
+
+  @Autowired
+  private OutboxRelay relay;
+
+  @Autowired
+  private BookingOutbox outbox;
+
+  @Autowired
+  private IOutboxEventRepository outboxRepository;
+
+  @Test
+  void nothingIsWrittenWithoutASink() {
+    outbox.append(BookingEventType.CREATED, 1L, "NOSINK", 1L, BookingStatus.HELD, 1, 0);
+
+    assertThat(outboxRepository.findAll()).noneMatch(event -> "NOSINK".equals(event.getPnr()));
+  }
+
+  @Test
+  void purgeDropsOnlyEventsPastTheRetention() {
+    outboxRepository.saveAll(List.of(
+        event("OLD001", LocalDateTime.now().minusDays(3)),
+        event("OLD002", LocalDateTime.now().minusDays(2)),
+        event("NEW001", LocalDateTime.now().minusHours(1))));
+
+    relay.purgeExpired();
+
+    assertThat(outboxRepository.findAll()).extracting(OutboxEvent::getPnr).containsExactly("NEW001");
+  }
+
+  private static OutboxEvent event(String pnr, LocalDateTime occurredAt) {
+    return OutboxEvent.builder()
+        .eventType(BookingEventType.CREATED)
+        .bookingId(1L)
+        .pnr(pnr)
+        .flightInstanceId(1L)
+        .status(BookingStatus.HELD)
+        .passengerCount(1)
+        .bookingVersion(0)
+        .occurredAt(occurredAt)
+        .build();
+  }
+}
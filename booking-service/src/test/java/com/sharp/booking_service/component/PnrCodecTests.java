@@ -0,0 +1,25 @@
+package com.sharp.booking_service.component;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class PnrCodecTests {
+
+  private final PnrCodec codec = new PnrCodec(5150);
+
+  @Test
+  void decodeInvertsEncode() {
+    for (long value : new long[] {0, 1, 999, 1_000_000, PnrCodec.DOMAIN - 1}) {
+      assertThat(codec.decode(codec.encode(value))).isEqualTo(value);
+    }
+  }
+
+  @Test
+  void decodeRejectsCodesOutsideTheAlphabet() {
+    // I, O, 0 y 1 no estan en el alfabeto
+    assertThat(codec.decode("ABCDE1")).isEqualTo(-1);
+    assertThat(codec.decode("ABCDE")).isEqualTo(-1);
+    assertThat(codec.decode(null)).isEqualTo(-1);
+  }
+}
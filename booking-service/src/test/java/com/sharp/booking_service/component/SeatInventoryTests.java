@@ -0,0 +1,152 @@
+package com.sharp.booking_service.component;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sharp.booking_service.client.CachingFlightClient;
+import com.sharp.booking_service.controllers.SeatsUnavailableException;
+import com.sharp.booking_service.dto.FlightInstanceDto;
+import com.sharp.booking_service.dto.SeatAvailabilityDto;
+import com.sharp.booking_service.models.Booking;
+import com.sharp.booking_service.models.BookingStatus;
+import com.sharp.booking_service.repository.IBookingRepository;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:booking_seats;MODE=MySQL;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "booking.projection.drain-ms=3600000",
+    "booking.outbox.poll-ms=3600000"
+})
+class SeatInventoryTests {
+
+  private static final int CAPACITY = 5;
+
+  @Autowired
+  private SeatInventory seatInventory;
+
+  @Autowired
+  private IBookingRepository bookingRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @MockitoBean
+  private CachingFlightClient flightClient;
+
+  @BeforeEach
+  void setUp() {
+    when(flightClient.getFlightInstance(anyLong())).thenAnswer(invocation -> Optional.of(FlightInstanceDto.builder()
+        .flightInstanceId(invocation.getArgument(0))
+        .capacity(CAPACITY)
+        .build()));
+  }
+
+  @Test
+  void admitsUpToCapacity() {
+    seatInventory.hold(10L, 3);
+    seatInventory.hold(10L, 2);
+
+    assertThatThrownBy(() -> seatInventory.hold(10L, 1)).isInstanceOf(SeatsUnavailableException.class);
+    assertThat(seatInventory.getAvailability(10L).getAvailable()).isZero();
+  }
+
+  @Test
+  void rolledBackHoldLeavesNoSeatsTaken() {
+    new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+      seatInventory.hold(11L, 4);
+      status.setRollbackOnly();
+    });
+
+    seatInventory.hold(11L, CAPACITY);
+  }
+
+  // la admision commitea sola: otra reserva del vuelo no espera al commit de esta
+  @Test
+  void holdDoesNotKeepTheSeatRowLocked() throws Exception {
+    new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+      seatInventory.hold(14L, 2);
+      CompletableFuture<Void> other = CompletableFuture.runAsync(() -> seatInventory.hold(14L, 3));
+      assertThat(other).succeedsWithin(Duration.ofSeconds(5));
+      assertThatThrownBy(() -> seatInventory.hold(14L, 1)).isInstanceOf(SeatsUnavailableException.class);
+    });
+
+    assertThat(seatInventory.getAvailability(14L).getHeld()).isEqualTo(CAPACITY);
+  }
+
+  @Test
+  void releaseIsAppliedOnlyAfterCommit() {
+    seatInventory.hold(15L, CAPACITY);
+
+    new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+      seatInventory.release(15L, BookingStatus.HELD, 2);
+      assertThat(seatInventory.getAvailability(15L).getAvailable()).isZero();
+      status.setRollbackOnly();
+    });
+    assertThat(seatInventory.getAvailability(15L).getAvailable()).isZero();
+
+    new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+        seatInventory.release(15L, BookingStatus.HELD, 2));
+    assertThat(seatInventory.getAvailability(15L).getAvailable()).isEqualTo(2);
+  }
+
+  @Test
+  void releaseOnAnotherNodeIsSeenByTheNextHold() {
+    // otro nodo: su propia instancia, misma base
+    SeatInventory otherNode = new SeatInventory(bookingRepository, flightClient, jdbcTemplate, transactionManager);
+    seatInventory.hold(12L, CAPACITY);
+
+    otherNode.release(12L, BookingStatus.HELD, 2);
+
+    seatInventory.hold(12L, 2);
+    assertThatThrownBy(() -> otherNode.hold(12L, 1)).isInstanceOf(SeatsUnavailableException.class);
+  }
+
+  @Test
+  void firstHoldCountsExistingBookings() {
+    bookingRepository.save(booking(13L, "SEAT01", BookingStatus.HELD, 2));
+    bookingRepository.save(booking(13L, "SEAT02", BookingStatus.CONFIRMED, 1));
+    bookingRepository.save(booking(13L, "SEAT03", BookingStatus.CANCELLED, 4));
+
+    SeatAvailabilityDto before = seatInventory.getAvailability(13L);
+    assertThat(before.getHeld()).isEqualTo(2);
+    assertThat(before.getConfirmed()).isEqualTo(1);
+
+    seatInventory.hold(13L, 2);
+    assertThatThrownBy(() -> seatInventory.hold(13L, 1)).isInstanceOf(SeatsUnavailableException.class);
+
+    seatInventory.confirm(13L, 2);
+    SeatAvailabilityDto after = seatInventory.getAvailability(13L);
+    assertThat(after.getHeld()).isEqualTo(2);
+    assertThat(after.getConfirmed()).isEqualTo(3);
+  }
+
+  private static Booking booking(Long flightInstanceId, String pnr, BookingStatus status, int passengerCount) {
+    return Booking.builder()
+        .flightInstanceId(flightInstanceId)
+        .pnr(pnr)
+        .status(status)
+        .passengerCount(passengerCount)
+        .build();
+  }
+}
@@ -0,0 +1,55 @@
+package com.sharp.booking_service.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+class ConcurrencyLimitedDataSourceTests {
+
+  @Test
+  void waitersBeyondTheLimitFailImmediately() throws Exception {
+    DataSource target = mock(DataSource.class);
+    when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+    ConcurrencyLimitedDataSource limited = new ConcurrencyLimitedDataSource(target, 1, 1, 5000);
+
+    Connection held = limited.getConnection();
+    CompletableFuture<Connection> waiter = CompletableFuture.supplyAsync(() -> {
+      try {
+        return limited.getConnection();
+      } catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    // el primero ya esta esperando: el segundo no tiene lugar en la cola
+    Thread.sleep(200);
+    assertThatThrownBy(limited::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+    held.close();
+    assertThat(waiter).succeedsWithin(Duration.ofSeconds(5));
+  }
+
+  @Test
+  void permitIsReturnedOnceOnClose() throws Exception {
+    DataSource target = mock(DataSource.class);
+    when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+    ConcurrencyLimitedDataSource limited = new ConcurrencyLimitedDataSource(target, 1, 0, 100);
+
+    Connection first = limited.getConnection();
+    first.close();
+    first.close();
+
+    Connection second = limited.getConnection();
+    assertThatThrownBy(limited::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+    second.close();
+  }
+}
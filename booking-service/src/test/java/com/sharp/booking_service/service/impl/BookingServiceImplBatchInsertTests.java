@@ -0,0 +1,98 @@
+package com.sharp.booking_service.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.sharp.booking_service.component.SeatInventory;
+import com.sharp.booking_service.dto.PassengerDto;
+import com.sharp.booking_service.models.Booking;
+import com.sharp.booking_service.service.IBookingService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:booking_batch;MODE=MySQL;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    // sin proyeccion ni relay en segundo plano: sus SELECT/INSERT ensuciarian las estadisticas
+    "booking.projection.drain-ms=3600000",
+    "booking.outbox.poll-ms=3600000",
+    // con sink el alta escribe tambien su evento
+    "booking.outbox.sink=file"
+})
+class BookingServiceImplBatchInsertTests {
+
+  @Autowired
+  private IBookingService bookingService;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @MockitoBean
+  private SeatInventory seatInventory;
+
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    // calienta el bloque de PNR y los pools de ids
+    bookingService.createBookingWithPassengers(newBooking(1), passengers(1));
+  }
+
+  @Test
+  void groupBookingUsesConstantNumberOfStatements() {
+    long single = statementsFor(1);
+    long group = statementsFor(9);
+
+    assertThat(group).isEqualTo(single);
+    // INSERT booking + INSERT passenger por lotes + INSERT del evento en el outbox
+    assertThat(group).isLessThanOrEqualTo(3);
+  }
+
+  @Test
+  void passengersAreInsertedWithTheBooking() {
+    Booking created = bookingService.createBookingWithPassengers(newBooking(9), passengers(9));
+
+    assertThat(created.getBookingId()).isNotNull();
+    assertThat(created.getPassengers()).hasSize(9)
+        .allSatisfy(p -> assertThat(p.getPassengerId()).isNotNull());
+  }
+
+  private long statementsFor(int passengerCount) {
+    statistics.clear();
+    bookingService.createBookingWithPassengers(newBooking(passengerCount), passengers(passengerCount));
+    return statistics.getPrepareStatementCount();
+  }
+
+  private static Booking newBooking(int passengerCount) {
+    return Booking.builder()
+        .flightInstanceId(1L)
+        .passengerCount(passengerCount)
+        .build();
+  }
+
+  private static List<PassengerDto> passengers(int count) {
+    return IntStream.range(0, count)
+        .mapToObj(i -> PassengerDto.builder()
+            .firstName("Pax" + i)
+            .lastName("Test")
+            .docType("PASSPORT")
+            .docNumber("P" + i)
+            .build())
+        .toList();
+  }
+}
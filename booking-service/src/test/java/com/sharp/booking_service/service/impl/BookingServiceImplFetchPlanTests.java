@@ -0,0 +1,114 @@
+package com.sharp.booking_service.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sharp.booking_service.component.SeatInventory;
+import com.sharp.booking_service.models.Booking;
+import com.sharp.booking_service.models.Passenger;
+import com.sharp.booking_service.repository.IBookingRepository;
+import com.sharp.booking_service.service.IBookingService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:booking_fetch_plan;MODE=MySQL;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.open-in-view=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "booking.projection.drain-ms=3600000",
+    "booking.outbox.poll-ms=3600000"
+})
+class BookingServiceImplFetchPlanTests {
+
+  private static final int BOOKINGS = 1_000;
+
+  @Autowired
+  private IBookingService bookingService;
+
+  @Autowired
+  private IBookingRepository bookingRepository;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @MockitoBean
+  private SeatInventory seatInventory;
+
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    if (bookingRepository.count() > 0) {
+      return;
+    }
+    LocalDateTime holdExpiresAt = LocalDateTime.now().plusMinutes(10);
+    List<Booking> bookings = new ArrayList<>(BOOKINGS);
+    for (int i = 0; i < BOOKINGS; i++) {
+      Booking booking = Booking.builder()
+          .pnr(String.format("F%05d", i))
+          .flightInstanceId(1L)
+          .passengerCount(2)
+          .holdExpiresAt(holdExpiresAt)
+          .build();
+      for (int p = 0; p < 2; p++) {
+        booking.addPassenger(Passenger.builder()
+            .firstName("Pax" + p)
+            .lastName("Fetch" + i)
+            .docType("PASSPORT")
+            .docNumber("F" + i + "-" + p)
+            .build());
+      }
+      bookings.add(booking);
+    }
+    new TransactionTemplate(transactionManager).executeWithoutResult(status -> bookingRepository.saveAll(bookings));
+  }
+
+  @Test
+  void bookingPageLoadsPassengersInConstantStatements() {
+    long small = statementsFor(() -> bookingService.getAllBookings(0, 10), 10);
+    long large = statementsFor(() -> bookingService.getAllBookings(0, BOOKINGS), BOOKINGS);
+
+    assertThat(large).isEqualTo(small);
+    // ids + bookings + pasajeros
+    assertThat(large).isLessThanOrEqualTo(3);
+  }
+
+  @Test
+  void expiringBookingsLoadPassengersInConstantStatements() {
+    LocalDateTime now = LocalDateTime.now();
+    long statements = statementsFor(() -> bookingService.getExpiringBookings(now, now.plusHours(1), 0, BOOKINGS), BOOKINGS);
+
+    assertThat(statements).isLessThanOrEqualTo(3);
+  }
+
+  private long statementsFor(Supplier<List<Booking>> query, int expected) {
+    statistics.clear();
+    List<Booking> bookings = query.get();
+    // fuera de la transaccion, como el mapeo a DTO del controller: no debe disparar mas SELECT
+    assertThat(bookings).hasSize(expected)
+        .allSatisfy(b -> assertThat(b.getPassengers()).hasSize(2));
+    return statistics.getPrepareStatementCount();
+  }
+}
@@ -0,0 +1,271 @@
+package com.sharp.flight_service.component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.sharp.flight_service.dto.AirportSuggestion;
+import com.sharp.flight_service.model.Airport;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Autocompletado de aeropuertos activos por IATA, nombre, ciudad y pais.
+ *
+ * Cada valor se pliega (sin tildes ni mayusculas) y se indexa entero y desde
+ * cada palabra ("san juan", "juan"), en un arreglo ordenado de terminos con el
+ * campo y el aeropuerto en arreglos paralelos. Un prefijo es una busqueda
+ * binaria y un recorrido de los terminos que empiezan con el; cada aeropuerto
+ * se queda con su mejor puntaje y se devuelven los K mejores.
+ *
+ * El indice es inmutable: {@code AirportServiceImpl} reemplaza, al commit,
+ * solo las entradas del aeropuerto que cambio (merge de arreglos ordenados).
+ * Lo escrito por otra replica entra con la reconstruccion desde
+ * {@link ReferenceData} cada {@code rebuild-ms}.
+ */
+@Slf4j
+@Component
+public class AirportAutocomplete {
+
+  // peso por campo: un IATA pesa mas que una ciudad, que pesa mas que un nombre o un pais
+  private static final byte IATA = 0;
+  private static final byte CITY = 1;
+  private static final byte NAME = 2;
+  private static final byte COUNTRY = 3;
+  private static final int[] FIELD_SCORE = {400, 300, 200, 100};
+  private static final int EXACT_BONUS = 50;
+  private static final int FIRST_WORD_BONUS = 20;
+
+  private final ReferenceData referenceData;
+  private final int maxScan;
+
+  private volatile Index index = Index.EMPTY;
+
+  public AirportAutocomplete(ReferenceData referenceData,
+      @Value("${flight.autocomplete.max-scan:20000}") int maxScan) {
+    this.referenceData = referenceData;
+    this.maxScan = maxScan;
+  }
+
+  /**
+   * Hasta {@code limit} aeropuertos cuyo IATA, nombre, ciudad o pais empieza
+   * (en alguna palabra) con {@code query}, mejor puntaje primero.
+   */
+  public List<AirportSuggestion> suggest(String query, int limit) {
+    if (query == null || query.isBlank() || limit <= 0) {
+      return List.of();
+    }
+    String prefix = normalize(query);
+    if (prefix.isEmpty()) {
+      return List.of();
+    }
+    Index current = index;
+
+    Map<AirportSuggestion, Integer> best = new HashMap<>();
+    int start = current.lowerBound(prefix);
+    int end = Math.min(current.terms.length, start + maxScan);
+    for (int i = start; i < end && current.terms[i].startsWith(prefix); i++) {
+      int score = FIELD_SCORE[current.fields[i]];
+      if (current.terms[i].length() == prefix.length()) {
+        score += EXACT_BONUS;
+      }
+      if (current.firstWord[i]) {
+        score += FIRST_WORD_BONUS;
+      }
+      best.merge(current.owners[i], score, Math::max);
+    }
+
+    return best.entrySet().stream()
+        .sorted(Map.Entry.<AirportSuggestion, Integer>comparingByValue().reversed()
+            .thenComparing(e -> e.getKey().getIata()))
+        .limit(limit)
+        .map(Map.Entry::getKey)
+        .toList();
+  }
+
+  /**
+   * Reemplaza las entradas del aeropuerto cuando la transaccion actual haga commit.
+   */
+  public void upsertAfterCommit(Airport airport) {
+    // se copia ahora: la entidad puede cambiar despues
+    AirportSuggestion suggestion = Boolean.TRUE.equals(airport.getIsActive()) ? suggestionOf(airport) : null;
+    Long airportId = airport.getAirportId();
+    afterCommit(() -> apply(airportId, suggestion));
+  }
+
+  public void removeAfterCommit(Long airportId) {
+    afterCommit(() -> apply(airportId, null));
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void build() {
+    try {
+      rebuild();
+    } catch (RuntimeException e) {
+      log.warn("Could not build airport autocomplete: {}", e.getMessage());
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${flight.autocomplete.rebuild-ms:600000}",
+      initialDelayString = "${flight.autocomplete.rebuild-ms:600000}")
+  public synchronized void rebuild() {
+    List<Entry> entries = new ArrayList<>();
+    for (Airport airport : referenceData.snapshot().activeAirports()) {
+      addEntries(suggestionOf(airport), entries);
+    }
+    index = Index.of(entries);
+    log.debug("Airport autocomplete built with {} terms", entries.size());
+  }
+
+  private synchronized void apply(Long airportId, AirportSuggestion suggestion) {
+    List<Entry> added = new ArrayList<>();
+    if (suggestion != null) {
+      addEntries(suggestion, added);
+    }
+    index = index.replace(airportId, added);
+  }
+
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+
+  private static AirportSuggestion suggestionOf(Airport airport) {
+    return AirportSuggestion.builder()
+        .airportId(airport.getAirportId())
+        .iata(airport.getIata())
+        .name(airport.getName())
+        .city(airport.getCity())
+        .country(airport.getCountry())
+        .build();
+  }
+
+  private static void addEntries(AirportSuggestion suggestion, List<Entry> entries) {
+    addEntries(suggestion.getIata(), IATA, suggestion, entries);
+    addEntries(suggestion.getCity(), CITY, suggestion, entries);
+    addEntries(suggestion.getName(), NAME, suggestion, entries);
+    addEntries(suggestion.getCountry(), COUNTRY, suggestion, entries);
+  }
+
+  // el valor entero y el sufijo desde cada palabra: "san juan" -> "san juan", "juan"
+  private static void addEntries(String value, byte field, AirportSuggestion owner, List<Entry> entries) {
+    if (value == null) {
+      return;
+    }
+    String normalized = normalize(value);
+    if (normalized.isEmpty()) {
+      return;
+    }
+    entries.add(new Entry(normalized, field, true, owner));
+    for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+      entries.add(new Entry(normalized.substring(i + 1), field, false, owner));
+    }
+  }
+
+  // plegado como FlightSearchIndex, y todo lo que no es letra o digito como un solo espacio
+  static String normalize(String value) {
+    return FlightSearchIndex.fold(value).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+  }
+
+  private record Entry(String term, byte field, boolean firstWord, AirportSuggestion owner) {
+  }
+
+  /**
+   * Terminos ordenados con su campo, si empiezan en la primera palabra y a
+   * que aeropuerto pertenecen, en arreglos paralelos.
+   */
+  private static final class Index {
+
+    static final Index EMPTY = new Index(new String[0], new byte[0], new boolean[0], new AirportSuggestion[0]);
+
+    private final String[] terms;
+    private final byte[] fields;
+    private final boolean[] firstWord;
+    private final AirportSuggestion[] owners;
+
+    private Index(String[] terms, byte[] fields, boolean[] firstWord, AirportSuggestion[] owners) {
+      this.terms = terms;
+      this.fields = fields;
+      this.firstWord = firstWord;
+      this.owners = owners;
+    }
+
+    static Index of(List<Entry> entries) {
+      Entry[] sorted = entries.toArray(Entry[]::new);
+      Arrays.sort(sorted, (a, b) -> a.term().compareTo(b.term()));
+      return fromSorted(sorted, sorted.length);
+    }
+
+    private static Index fromSorted(Entry[] sorted, int size) {
+      String[] terms = new String[size];
+      byte[] fields = new byte[size];
+      boolean[] firstWord = new boolean[size];
+      AirportSuggestion[] owners = new AirportSuggestion[size];
+      for (int i = 0; i < size; i++) {
+        terms[i] = sorted[i].term();
+        fields[i] = sorted[i].field();
+        firstWord[i] = sorted[i].firstWord();
+        owners[i] = sorted[i].owner();
+      }
+      return new Index(terms, fields, firstWord, owners);
+    }
+
+    /**
+     * Indice nuevo sin las entradas de {@code airportId} y con {@code added}
+     * intercaladas en orden.
+     */
+    Index replace(Long airportId, List<Entry> added) {
+      Entry[] incoming = added.toArray(Entry[]::new);
+      Arrays.sort(incoming, (a, b) -> a.term().compareTo(b.term()));
+      Entry[] merged = new Entry[terms.length + incoming.length];
+      int size = 0;
+      int j = 0;
+      for (int i = 0; i < terms.length; i++) {
+        if (owners[i].getAirportId().equals(airportId)) {
+          continue;
+        }
+        while (j < incoming.length && incoming[j].term().compareTo(terms[i]) < 0) {
+          merged[size++] = incoming[j++];
+        }
+        merged[size++] = new Entry(terms[i], fields[i], firstWord[i], owners[i]);
+      }
+      while (j < incoming.length) {
+        merged[size++] = incoming[j++];
+      }
+      return fromSorted(merged, size);
+    }
+
+    // primera posicion con termino >= prefix
+    int lowerBound(String prefix) {
+      int lo = 0;
+      int hi = terms.length;
+      while (lo < hi) {
+        int mid = (lo + hi) >>> 1;
+        if (terms[mid].compareTo(prefix) < 0) {
+          lo = mid + 1;
+        } else {
+          hi = mid;
+        }
+      }
+      return lo;
+    }
+  }
+}
@@ -0,0 +1,574 @@
+package com.sharp.flight_service.component;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sharp.flight_service.dto.Itinerary;
+import com.sharp.flight_service.model.Airport;
+import com.sharp.flight_service.model.FlightInstance;
+import com.sharp.flight_service.model.FlightStatus;
+import com.sharp.flight_service.model.Route;
+import com.sharp.flight_service.repository.IFlightInstanceRepository;
+import com.sharp.flight_service.repository.IRouteRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Busqueda de itinerarios con escalas sobre un grafo expandido en el tiempo.
+ *
+ * El {@link Timetable} se arma de una vez con las rutas activas y las
+ * instancias que salen dentro de {@code horizon-days}: cada vuelo es un tramo
+ * (aeropuerto, salida UTC) -> (aeropuerto, llegada UTC), con las horas locales
+ * pasadas a UTC segun el {@code timezone} de cada aeropuerto. Por aeropuerto
+ * quedan las salidas ordenadas, asi que "que sale de X entre t1 y t2" es una
+ * busqueda binaria.
+ *
+ * Una consulta calcula primero, con un BFS hacia atras sobre las rutas, a
+ * cuantos tramos del destino esta cada aeropuerto. Despues toma las salidas
+ * del origen de la mas tardia a la mas temprana y desde cada una avanza por
+ * rondas, una por tramo, respetando el tiempo minimo (y maximo) de conexion y
+ * descartando todo vuelo que ya no puede llegar al destino con los tramos que
+ * quedan. Un vuelo ya alcanzado con igual o menos tramos desde una salida
+ * posterior no se vuelve a expandir: lo que sigue desde el ya lo tiene, y
+ * mejor, esa salida. Asi cada vuelo se expande a lo sumo {@code max-legs}
+ * veces por consulta y la busqueda es completa, sin cota de expansiones. Se
+ * devuelven solo los itinerarios que ningun otro supera a la vez en salida,
+ * llegada y cantidad de tramos. Nada va a la base por consulta.
+ *
+ * Las escrituras de instancias marcan el grafo como viejo; se rearma en
+ * {@code refresh-ms} y, de todas formas, cada {@code rebuild-ms} para correr
+ * la ventana y tomar cambios de otras replicas.
+ */
+@Slf4j
+@Component
+public class ConnectionPlanner {
+
+  private static final int MAX_LIMIT = 100;
+
+  private final IFlightInstanceRepository flightInstanceRepository;
+  private final IRouteRepository routeRepository;
+  private final TransactionTemplate readTransaction;
+  private final Duration horizon;
+  private final Duration maxConnection;
+  private final int maxLegs;
+  private final long rebuildMillis;
+
+  private volatile Timetable timetable;
+  private volatile boolean stale;
+
+  public ConnectionPlanner(IFlightInstanceRepository flightInstanceRepository,
+      IRouteRepository routeRepository,
+      PlatformTransactionManager transactionManager,
+      @Value("${flight.connections.horizon-days:45}") long horizonDays,
+      @Value("${flight.connections.max-connection-hours:12}") long maxConnectionHours,
+      @Value("${flight.connections.max-legs:4}") int maxLegs,
+      @Value("${flight.connections.rebuild-ms:600000}") long rebuildMillis) {
+    this.flightInstanceRepository = flightInstanceRepository;
+    this.routeRepository = routeRepository;
+    this.readTransaction = new TransactionTemplate(transactionManager);
+    this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.readTransaction.setReadOnly(true);
+    this.horizon = Duration.ofDays(horizonDays);
+    this.maxConnection = Duration.ofHours(maxConnectionHours);
+    this.maxLegs = maxLegs;
+    this.rebuildMillis = rebuildMillis;
+  }
+
+  /**
+   * Origen y destino como aeropuerto o ciudad; ventana de salida en hora local del origen.
+   */
+  public record Query(Long originAirportId, String originCity, Long destinationAirportId,
+      String destinationCity, LocalDateTime start, LocalDateTime end, int maxLegs,
+      Duration minConnection, int limit) {
+  }
+
+  public List<Itinerary> search(Query query) {
+    if (query.maxLegs() < 1 || query.maxLegs() > maxLegs) {
+      throw new IllegalArgumentException("maxLegs must be between 1 and " + maxLegs);
+    }
+    if (query.minConnection().isNegative() || query.minConnection().compareTo(maxConnection) > 0) {
+      throw new IllegalArgumentException("minConnectionMinutes must be between 0 and " + maxConnection.toMinutes());
+    }
+    if (query.end().isBefore(query.start())) {
+      throw new IllegalArgumentException("end cannot be before start");
+    }
+    if (query.limit() < 1 || query.limit() > MAX_LIMIT) {
+      throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+    }
+
+    Timetable current = current();
+    if (query.end().isAfter(current.builtAt.plus(horizon))) {
+      throw new IllegalArgumentException("Connection search covers departures up to "
+          + horizon.toDays() + " days ahead");
+    }
+
+    int[] origins = current.resolve(query.originAirportId(), query.originCity());
+    int[] destinations = current.resolve(query.destinationAirportId(), query.destinationCity());
+    if (origins.length == 0 || destinations.length == 0) {
+      return List.of();
+    }
+
+    long started = System.nanoTime();
+    Search search = new Search(current, origins, destinations, query.maxLegs(), query.minConnection().toSeconds(),
+        maxConnection.toSeconds());
+    List<Integer> firstLegs = new ArrayList<>();
+    for (int origin : origins) {
+      ZoneId zone = current.zones[origin];
+      long end = query.end().atZone(zone).toEpochSecond();
+      long[] times = current.departures[origin];
+      for (int i = current.lowerBound(origin, query.start().atZone(zone).toEpochSecond());
+          i < times.length && times[i] <= end; i++) {
+        firstLegs.add(current.departureLegs[origin][i]);
+      }
+    }
+    // los tramos estan numerados por salida: de mayor a menor es de la mas tardia a la mas temprana
+    firstLegs.sort(Comparator.reverseOrder());
+    for (int leg : firstLegs) {
+      search.from(leg);
+    }
+    List<int[]> found = current.nonDominated(search.results, query.maxLegs());
+    List<Itinerary> itineraries = found.stream()
+        .sorted(current.bestFirst())
+        .limit(query.limit())
+        .map(current::itinerary)
+        .toList();
+    log.debug("Connection search found {} itineraries ({} flights expanded) in {} us", found.size(),
+        search.expanded, (System.nanoTime() - started) / 1_000);
+    return itineraries;
+  }
+
+  /**
+   * Marca el grafo como viejo cuando la transaccion actual haga commit.
+   */
+  public void markStaleAfterCommit() {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      stale = true;
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        stale = true;
+      }
+    });
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void build() {
+    try {
+      rebuild();
+    } catch (RuntimeException e) {
+      // se arma en la primera consulta
+      log.warn("Could not build connection graph: {}", e.getMessage());
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${flight.connections.refresh-ms:30000}",
+      initialDelayString = "${flight.connections.refresh-ms:30000}")
+  public void refresh() {
+    Timetable current = timetable;
+    boolean expired = current != null
+        && Duration.between(current.builtAt, LocalDateTime.now()).toMillis() >= rebuildMillis;
+    if (stale || expired) {
+      rebuild();
+    }
+  }
+
+  public synchronized void rebuild() {
+    // lo que se escriba desde aca vuelve a marcarlo
+    stale = false;
+    long started = System.nanoTime();
+    LocalDateTime now = LocalDateTime.now();
+    try {
+      Timetable built = readTransaction.execute(status -> Timetable.build(now,
+          routeRepository.findAllActiveWithAirports(),
+          // un dia hacia atras por los husos: "ahora" local puede ser ayer en UTC
+          flightInstanceRepository.findByDepartureBetween(now.minusDays(1), now.plus(horizon).plusDays(1))));
+      timetable = built;
+      log.info("Connection graph built: {} airports, {} flights in {} ms", built.zones.length,
+          built.legs.length, Duration.ofNanos(System.nanoTime() - started).toMillis());
+    } catch (RuntimeException e) {
+      stale = true;
+      throw e;
+    }
+  }
+
+  private Timetable current() {
+    Timetable current = timetable;
+    if (current != null) {
+      return current;
+    }
+    synchronized (this) {
+      if (timetable == null) {
+        rebuild();
+      }
+      return timetable;
+    }
+  }
+
+  /**
+   * Grafo inmutable. Aeropuertos y tramos se identifican por indice en los arreglos.
+   */
+  static final class Timetable {
+
+    private static final long[] NO_DEPARTURES = new long[0];
+    private static final int[] NO_LEGS = new int[0];
+
+    private final LocalDateTime builtAt;
+    private final Map<Long, Integer> airportIndex;
+    private final Map<String, int[]> airportsByCity;
+    private final ZoneId[] zones;
+    // por aeropuerto: aeropuertos con ruta activa hacia el
+    private final int[][] inbound;
+    // tramos, ordenados por salida UTC
+    private final FlightInstance[] legs;
+    private final int[] legFrom;
+    private final int[] legTo;
+    private final long[] legDeparture;
+    private final long[] legArrival;
+    // por aeropuerto: salidas UTC ordenadas y el tramo de cada una
+    private final long[][] departures;
+    private final int[][] departureLegs;
+
+    private Timetable(LocalDateTime builtAt, Map<Long, Integer> airportIndex, Map<String, int[]> airportsByCity,
+        ZoneId[] zones, int[][] inbound, FlightInstance[] legs, int[] legFrom, int[] legTo, long[] legDeparture,
+        long[] legArrival, long[][] departures, int[][] departureLegs) {
+      this.builtAt = builtAt;
+      this.airportIndex = airportIndex;
+      this.airportsByCity = airportsByCity;
+      this.zones = zones;
+      this.inbound = inbound;
+      this.legs = legs;
+      this.legFrom = legFrom;
+      this.legTo = legTo;
+      this.legDeparture = legDeparture;
+      this.legArrival = legArrival;
+      this.departures = departures;
+      this.departureLegs = departureLegs;
+    }
+
+    static Timetable build(LocalDateTime builtAt, List<Route> routes, List<FlightInstance> instances) {
+      Map<Long, Airport> airports = new LinkedHashMap<>();
+      Set<Long> activeRoutes = new HashSet<>();
+      for (Route route : routes) {
+        airports.putIfAbsent(route.getOriginAirport().getAirportId(), route.getOriginAirport());
+        airports.putIfAbsent(route.getDestinationAirport().getAirportId(), route.getDestinationAirport());
+        activeRoutes.add(route.getRouteId());
+      }
+
+      Map<Long, Integer> airportIndex = new HashMap<>();
+      ZoneId[] zones = new ZoneId[airports.size()];
+      Map<String, List<Integer>> byCity = new HashMap<>();
+      for (Airport airport : airports.values()) {
+        int index = airportIndex.size();
+        airportIndex.put(airport.getAirportId(), index);
+        zones[index] = zoneOf(airport);
+        byCity.computeIfAbsent(FlightSearchIndex.fold(airport.getCity()), c -> new ArrayList<>()).add(index);
+      }
+      Map<String, int[]> airportsByCity = new HashMap<>();
+      byCity.forEach((city, list) -> airportsByCity.put(city, list.stream().mapToInt(Integer::intValue).toArray()));
+
+      List<Set<Integer>> inboundSets = new ArrayList<>();
+      for (int i = 0; i < zones.length; i++) {
+        inboundSets.add(new LinkedHashSet<>());
+      }
+      for (Route route : routes) {
+        inboundSets.get(airportIndex.get(route.getDestinationAirport().getAirportId()))
+            .add(airportIndex.get(route.getOriginAirport().getAirportId()));
+      }
+      int[][] inbound = new int[zones.length][];
+      for (int i = 0; i < zones.length; i++) {
+        inbound[i] = inboundSets.get(i).stream().mapToInt(Integer::intValue).toArray();
+      }
+
+      // solo vuelos vendibles sobre rutas activas
+      List<FlightInstance> usable = instances.stream()
+          .filter(fi -> fi.getStatus() != FlightStatus.CANCELLED)
+          .filter(fi -> activeRoutes.contains(fi.getFlightTemplate().getRoute().getRouteId()))
+          .toList();
+      int n = usable.size();
+      FlightInstance[] legs = new FlightInstance[n];
+      int[] legFrom = new int[n];
+      int[] legTo = new int[n];
+      long[] legDeparture = new long[n];
+      long[] legArrival = new long[n];
+      Integer[] order = new Integer[n];
+      long[] rawDeparture = new long[n];
+      for (int i = 0; i < n; i++) {
+        Route route = usable.get(i).getFlightTemplate().getRoute();
+        int from = airportIndex.get(route.getOriginAirport().getAirportId());
+        rawDeparture[i] = usable.get(i).getDepartureAt().atZone(zones[from]).toEpochSecond();
+        order[i] = i;
+      }
+      Arrays.sort(order, Comparator.comparingLong(i -> rawDeparture[i]));
+
+      int[] outgoing = new int[zones.length];
+      for (int i = 0; i < n; i++) {
+        FlightInstance instance = usable.get(order[i]);
+        Route route = instance.getFlightTemplate().getRoute();
+        legs[i] = instance;
+        legFrom[i] = airportIndex.get(route.getOriginAirport().getAirportId());
+        legTo[i] = airportIndex.get(route.getDestinationAirport().getAirportId());
+        legDeparture[i] = rawDeparture[order[i]];
+        legArrival[i] = instance.getArrivalAt().atZone(zones[legTo[i]]).toEpochSecond();
+        outgoing[legFrom[i]]++;
+      }
+
+      long[][] departures = new long[zones.length][];
+      int[][] departureLegs = new int[zones.length][];
+      for (int a = 0; a < zones.length; a++) {
+        departures[a] = outgoing[a] == 0 ? NO_DEPARTURES : new long[outgoing[a]];
+        departureLegs[a] = outgoing[a] == 0 ? NO_LEGS : new int[outgoing[a]];
+      }
+      int[] filled = new int[zones.length];
+      // los tramos ya estan ordenados por salida: cada lista queda ordenada
+      for (int i = 0; i < n; i++) {
+        int a = legFrom[i];
+        departures[a][filled[a]] = legDeparture[i];
+        departureLegs[a][filled[a]] = i;
+        filled[a]++;
+      }
+
+      return new Timetable(builtAt, airportIndex, airportsByCity, zones, inbound, legs, legFrom, legTo,
+          legDeparture, legArrival, departures, departureLegs);
+    }
+
+    int[] resolve(Long airportId, String city) {
+      if (airportId != null) {
+        Integer index = airportIndex.get(airportId);
+        return index == null ? NO_LEGS : new int[] {index};
+      }
+      if (city != null) {
+        return airportsByCity.getOrDefault(FlightSearchIndex.fold(city), NO_LEGS);
+      }
+      throw new IllegalArgumentException("Either an airport id or a city is required");
+    }
+
+    Itinerary itinerary(int[] path) {
+      List<FlightInstance> flights = new ArrayList<>(path.length);
+      for (int leg : path) {
+        flights.add(legs[leg]);
+      }
+      int first = path[0];
+      int last = path[path.length - 1];
+      return Itinerary.builder()
+          .legs(flights)
+          .departureAt(legs[first].getDepartureAt())
+          .arrivalAt(legs[last].getArrivalAt())
+          .durationMinutes((legArrival[last] - legDeparture[first]) / 60)
+          .stops(path.length - 1)
+          .build();
+    }
+
+    // llega antes (en UTC), con menos escalas, y sale mas tarde
+    Comparator<int[]> bestFirst() {
+      Comparator<int[]> byArrival = Comparator.comparingLong(path -> legArrival[path[path.length - 1]]);
+      return byArrival
+          .thenComparingInt(path -> path.length)
+          .thenComparingLong(path -> -legDeparture[path[0]]);
+    }
+
+    // descarta los que otro supera en salida (mas tarde), llegada (antes) y tramos (menos o igual)
+    List<int[]> nonDominated(List<int[]> paths, int maxLegs) {
+      List<int[]> sorted = new ArrayList<>(paths);
+      sorted.sort(Comparator.<int[]>comparingLong(path -> -legDeparture[path[0]])
+          .thenComparingLong(path -> legArrival[path[path.length - 1]])
+          .thenComparingInt(path -> path.length));
+      // llegada mas temprana aceptada con exactamente k tramos, entre las salidas ya vistas
+      long[] bestArrival = new long[maxLegs + 1];
+      Arrays.fill(bestArrival, Long.MAX_VALUE);
+      List<int[]> kept = new ArrayList<>();
+      for (int[] path : sorted) {
+        long arrival = legArrival[path[path.length - 1]];
+        boolean dominated = false;
+        for (int k = 1; k <= path.length && !dominated; k++) {
+          dominated = bestArrival[k] <= arrival;
+        }
+        if (!dominated) {
+          bestArrival[path.length] = arrival;
+          kept.add(path);
+        }
+      }
+      return kept;
+    }
+
+    // primera posicion de departures[airport] con salida >= value
+    int lowerBound(int airport, long value) {
+      long[] times = departures[airport];
+      int lo = 0;
+      int hi = times.length;
+      while (lo < hi) {
+        int mid = (lo + hi) >>> 1;
+        if (times[mid] < value) {
+          lo = mid + 1;
+        } else {
+          hi = mid;
+        }
+      }
+      return lo;
+    }
+
+    private static ZoneId zoneOf(Airport airport) {
+      try {
+        return ZoneId.of(airport.getTimezone());
+      } catch (DateTimeException e) {
+        log.warn("Airport {} has invalid timezone '{}', using UTC", airport.getIata(), airport.getTimezone());
+        return ZoneOffset.UTC;
+      }
+    }
+  }
+
+  /**
+   * Estado de una consulta: distancia en tramos al destino y, por vuelo, con
+   * cuantos tramos se lo alcanzo desde las salidas ya procesadas.
+   */
+  private static final class Search {
+
+    private final Timetable timetable;
+    private final boolean[] origin;
+    private final boolean[] destination;
+    // tramos minimos hasta el destino por rutas, o > maxLegs si no llega
+    private final int[] hops;
+    private final int maxLegs;
+    private final long minConnection;
+    private final long maxConnection;
+    // por vuelo: menos tramos con que se lo alcanzo desde una salida igual o posterior, y desde cual
+    private final int[] reachedWith;
+    private final int[] parent;
+    private final List<int[]> results = new ArrayList<>();
+    private int expanded;
+
+    Search(Timetable timetable, int[] origins, int[] destinations, int maxLegs, long minConnection,
+        long maxConnection) {
+      this.timetable = timetable;
+      this.maxLegs = maxLegs;
+      this.minConnection = minConnection;
+      this.maxConnection = maxConnection;
+      int airports = timetable.zones.length;
+      this.origin = new boolean[airports];
+      this.destination = new boolean[airports];
+      this.hops = new int[airports];
+      this.reachedWith = new int[timetable.legs.length];
+      this.parent = new int[timetable.legs.length];
+      Arrays.fill(hops, Integer.MAX_VALUE);
+      Arrays.fill(reachedWith, Integer.MAX_VALUE);
+      for (int o : origins) {
+        origin[o] = true;
+      }
+
+      int[] queue = new int[airports];
+      int head = 0;
+      int tail = 0;
+      for (int d : destinations) {
+        destination[d] = true;
+        hops[d] = 0;
+        queue[tail++] = d;
+      }
+      while (head < tail) {
+        int airport = queue[head++];
+        if (hops[airport] == maxLegs) {
+          continue;
+        }
+        for (int previous : timetable.inbound[airport]) {
+          if (hops[previous] == Integer.MAX_VALUE) {
+            hops[previous] = hops[airport] + 1;
+            queue[tail++] = previous;
+          }
+        }
+      }
+    }
+
+    // itinerarios que empiezan con first; hay que llamarlo de la salida mas tardia a la mas temprana
+    void from(int first) {
+      int to = timetable.legTo[first];
+      if (destination[timetable.legFrom[first]] || origin[to] || hops[to] > maxLegs - 1) {
+        return;
+      }
+      reachedWith[first] = 1;
+      parent[first] = -1;
+      if (destination[to]) {
+        results.add(new int[] {first});
+        return;
+      }
+
+      int[] frontier = {first};
+      int size = 1;
+      for (int legs = 1; legs < maxLegs && size > 0; legs++) {
+        int[] next = new int[Math.max(4, size)];
+        int nextSize = 0;
+        int remaining = maxLegs - legs - 1;
+        for (int f = 0; f < size; f++) {
+          int leg = frontier[f];
+          int at = timetable.legTo[leg];
+          long arrival = timetable.legArrival[leg];
+          long[] times = timetable.departures[at];
+          int[] departing = timetable.departureLegs[at];
+          expanded++;
+          for (int i = timetable.lowerBound(at, arrival + minConnection);
+              i < times.length && times[i] <= arrival + maxConnection; i++) {
+            int candidate = departing[i];
+            int reaches = timetable.legTo[candidate];
+            if (reachedWith[candidate] <= legs + 1 || hops[reaches] > remaining || origin[reaches]
+                || visits(leg, reaches)) {
+              continue;
+            }
+            reachedWith[candidate] = legs + 1;
+            parent[candidate] = leg;
+            if (destination[reaches]) {
+              results.add(path(candidate, legs + 1));
+            } else {
+              if (nextSize == next.length) {
+                next = Arrays.copyOf(next, nextSize * 2);
+              }
+              next[nextSize++] = candidate;
+            }
+          }
+        }
+        frontier = next;
+        size = nextSize;
+      }
+    }
+
+    // el camino que termina en leg ya paso por airport
+    private boolean visits(int leg, int airport) {
+      for (int l = leg; l >= 0; l = parent[l]) {
+        if (timetable.legFrom[l] == airport) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private int[] path(int last, int legs) {
+      int[] path = new int[legs];
+      for (int i = legs - 1, l = last; i >= 0; i--, l = parent[l]) {
+        path[i] = l;
+      }
+      return path;
+    }
+  }
+}
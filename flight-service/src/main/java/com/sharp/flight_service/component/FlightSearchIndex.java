@@ -0,0 +1,417 @@
+package com.sharp.flight_service.component;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sharp.flight_service.model.Airport;
+import com.sharp.flight_service.model.FlightInstance;
+import com.sharp.flight_service.repository.IFlightInstanceRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Indice en memoria para {@code /flight-instances/search}.
+ *
+ * Por cada par (ciudad origen, ciudad destino) y por cada aeropuerto de origen
+ * guarda un {@link Posting}: las salidas ordenadas como {@code long[]} y, en
+ * paralelo, las instancias ya cargadas con template, ruta, avion y aeropuertos.
+ * Un rango se responde con dos busquedas binarias y una copia del tramo, sin ir
+ * a la base.
+ *
+ * Los postings son inmutables (copy-on-write): las lecturas no toman locks y
+ * las escrituras, que son pocas, se serializan. {@code FlightInstanceServiceImpl}
+ * avisa de cada alta/cambio/baja y se aplica al commit. Los cambios que no pasan
+ * por este nodo (otra replica, rutas o aeropuertos editados) se recogen en la
+ * reconstruccion periodica.
+ *
+ * Solo se indexan salidas desde {@code history-days} antes de la ultima
+ * reconstruccion; una busqueda que empieza antes va a la base.
+ */
+@Slf4j
+@Component
+public class FlightSearchIndex {
+
+  private final IFlightInstanceRepository flightInstanceRepository;
+  private final TransactionTemplate readTransaction;
+  private final boolean enabled;
+  private final Duration history;
+
+  private final Object writeLock = new Object();
+  private volatile State state;
+  // ids tocados mientras corre rebuild(); se recargan sobre el estado nuevo
+  private Set<Long> dirty;
+
+  public FlightSearchIndex(IFlightInstanceRepository flightInstanceRepository,
+      PlatformTransactionManager transactionManager,
+      @Value("${flight.search-index.enabled:true}") boolean enabled,
+      @Value("${flight.search-index.history-days:7}") long historyDays) {
+    this.flightInstanceRepository = flightInstanceRepository;
+    this.readTransaction = new TransactionTemplate(transactionManager);
+    // al commit de otra transaccion: que no se una a ella
+    this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.readTransaction.setReadOnly(true);
+    this.enabled = enabled;
+    this.history = Duration.ofDays(historyDays);
+  }
+
+  /**
+   * Vuelos entre dos ciudades con salida en [start, end], o vacio si el indice
+   * no puede responder.
+   */
+  public Optional<List<FlightInstance>> findByCities(String originCity, String destinationCity,
+      LocalDateTime start, LocalDateTime end) {
+    State current = state;
+    if (!covers(current, start)) {
+      return Optional.empty();
+    }
+    Posting posting = current.byCities.get(new CityPair(fold(originCity), fold(destinationCity)));
+    return Optional.of(posting == null ? List.of() : posting.range(epoch(start), epoch(end)));
+  }
+
+  /**
+   * Vuelos desde un aeropuerto con salida en [start, end], o vacio si el indice
+   * no puede responder.
+   */
+  public Optional<List<FlightInstance>> findByOrigin(Long originAirportId, LocalDateTime start,
+      LocalDateTime end) {
+    State current = state;
+    if (!covers(current, start)) {
+      return Optional.empty();
+    }
+    Posting posting = current.byOrigin.get(originAirportId);
+    return Optional.of(posting == null ? List.of() : posting.range(epoch(start), epoch(end)));
+  }
+
+  /**
+   * Recarga la instancia cuando la transaccion actual haga commit (alta o cambio).
+   */
+  public void refreshAfterCommit(Long flightInstanceId) {
+    afterCommit(() -> refresh(List.of(flightInstanceId)));
+  }
+
+  /**
+   * Recarga todas las instancias de un template (cambio de ruta).
+   */
+  public void refreshTemplateAfterCommit(Long flightTemplateId) {
+    afterCommit(() -> {
+      State current = state;
+      if (current == null) {
+        return;
+      }
+      List<Long> ids = current.instances.values().stream()
+          .filter(fi -> fi.getFlightTemplate().getFlightTemplateId().equals(flightTemplateId))
+          .map(FlightInstance::getFlightInstanceId)
+          .toList();
+      List<FlightInstance> reloaded = readTransaction.execute(status ->
+          flightInstanceRepository.findByFlightTemplateId(flightTemplateId));
+      Set<Long> touched = new HashSet<>(ids);
+      reloaded.forEach(fi -> touched.add(fi.getFlightInstanceId()));
+      refresh(touched);
+    });
+  }
+
+  public void removeAfterCommit(Long flightInstanceId) {
+    afterCommit(() -> {
+      synchronized (writeLock) {
+        markDirty(flightInstanceId);
+        if (state != null) {
+          state.remove(flightInstanceId);
+        }
+      }
+    });
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void build() {
+    try {
+      rebuild();
+    } catch (RuntimeException e) {
+      // hasta el proximo rebuild las busquedas van a la base
+      log.warn("Could not build flight search index: {}", e.getMessage());
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${flight.search-index.rebuild-ms:600000}",
+      initialDelayString = "${flight.search-index.rebuild-ms:600000}")
+  public synchronized void rebuild() {
+    if (!enabled) {
+      return;
+    }
+    synchronized (writeLock) {
+      dirty = new HashSet<>();
+    }
+    State rebuilt;
+    try {
+      LocalDateTime from = LocalDateTime.now().minus(history);
+      long started = System.nanoTime();
+      List<FlightInstance> loaded = readTransaction.execute(status ->
+          flightInstanceRepository.findDepartingFromWithDetails(from));
+      rebuilt = State.of(epoch(from), loaded);
+      log.info("Flight search index built: {} instances, {} city pairs, {} origins in {} ms",
+          loaded.size(), rebuilt.byCities.size(), rebuilt.byOrigin.size(),
+          Duration.ofNanos(System.nanoTime() - started).toMillis());
+    } catch (RuntimeException e) {
+      synchronized (writeLock) {
+        dirty = null;
+      }
+      throw e;
+    }
+    Set<Long> changed;
+    synchronized (writeLock) {
+      changed = dirty;
+      dirty = null;
+      state = rebuilt;
+    }
+    // lo escrito durante la carga puede no estar en el snapshot leido
+    if (!changed.isEmpty()) {
+      refresh(changed);
+    }
+  }
+
+  private void refresh(Collection<Long> flightInstanceIds) {
+    // la carga va dentro del lock: dos refresh del mismo id no se aplican al reves
+    synchronized (writeLock) {
+      flightInstanceIds.forEach(this::markDirty);
+      if (state == null) {
+        return;
+      }
+      for (Long id : flightInstanceIds) {
+        Optional<FlightInstance> loaded = readTransaction.execute(status ->
+            flightInstanceRepository.findByIdWithDetails(id));
+        state.remove(id);
+        loaded.ifPresent(state::add);
+      }
+    }
+  }
+
+  private void markDirty(Long flightInstanceId) {
+    if (dirty != null) {
+      dirty.add(flightInstanceId);
+    }
+  }
+
+  private boolean covers(State current, LocalDateTime start) {
+    return enabled && current != null && epoch(start) >= current.floor;
+  }
+
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        try {
+          action.run();
+        } catch (RuntimeException e) {
+          // la escritura ya esta hecha; el proximo rebuild corrige el indice
+          log.warn("Could not update flight search index: {}", e.getMessage());
+        }
+      }
+    });
+  }
+
+  // departureAt no tiene zona; UTC solo como escala para ordenar
+  static long epoch(LocalDateTime dateTime) {
+    return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+  }
+
+  /**
+   * Misma comparacion que la columna city en MySQL (collation _ai_ci): sin
+   * tildes ni mayusculas.
+   */
+  static String fold(String city) {
+    String decomposed = Normalizer.normalize(city.trim(), Normalizer.Form.NFD);
+    return decomposed.replaceAll("\\p{M}", "").toLowerCase(Locale.ROOT);
+  }
+
+  record CityPair(String origin, String destination) {
+
+    static CityPair of(FlightInstance flightInstance) {
+      Airport origin = flightInstance.getFlightTemplate().getRoute().getOriginAirport();
+      Airport destination = flightInstance.getFlightTemplate().getRoute().getDestinationAirport();
+      return new CityPair(fold(origin.getCity()), fold(destination.getCity()));
+    }
+  }
+
+  private static Long originOf(FlightInstance flightInstance) {
+    return flightInstance.getFlightTemplate().getRoute().getOriginAirport().getAirportId();
+  }
+
+  /**
+   * Estado completo del indice. Los mapas son concurrentes porque los
+   * postings se reemplazan en su lugar; {@code instances} solo se toca con
+   * el lock de escritura.
+   */
+  private static final class State {
+
+    private final long floor;
+    private final Map<CityPair, Posting> byCities;
+    private final Map<Long, Posting> byOrigin;
+    private final Map<Long, FlightInstance> instances;
+
+    private State(long floor, Map<CityPair, Posting> byCities, Map<Long, Posting> byOrigin,
+        Map<Long, FlightInstance> instances) {
+      this.floor = floor;
+      this.byCities = byCities;
+      this.byOrigin = byOrigin;
+      this.instances = instances;
+    }
+
+    static State of(long floor, List<FlightInstance> loaded) {
+      Map<CityPair, Posting> byCities = new ConcurrentHashMap<>();
+      loaded.stream()
+          .collect(Collectors.groupingBy(CityPair::of))
+          .forEach((pair, group) -> byCities.put(pair, Posting.of(group)));
+      Map<Long, Posting> byOrigin = new ConcurrentHashMap<>();
+      loaded.stream()
+          .collect(Collectors.groupingBy(FlightSearchIndex::originOf))
+          .forEach((origin, group) -> byOrigin.put(origin, Posting.of(group)));
+      Map<Long, FlightInstance> instances = loaded.stream()
+          .collect(Collectors.toMap(FlightInstance::getFlightInstanceId, Function.identity(),
+              (a, b) -> a, ConcurrentHashMap::new));
+      return new State(floor, byCities, byOrigin, instances);
+    }
+
+    void add(FlightInstance flightInstance) {
+      long departure = epoch(flightInstance.getDepartureAt());
+      if (departure < floor) {
+        return;
+      }
+      instances.put(flightInstance.getFlightInstanceId(), flightInstance);
+      byCities.merge(CityPair.of(flightInstance), Posting.of(List.of(flightInstance)),
+          (posting, single) -> posting.with(departure, flightInstance));
+      byOrigin.merge(originOf(flightInstance), Posting.of(List.of(flightInstance)),
+          (posting, single) -> posting.with(departure, flightInstance));
+    }
+
+    void remove(Long flightInstanceId) {
+      FlightInstance previous = instances.remove(flightInstanceId);
+      if (previous == null) {
+        return;
+      }
+      long departure = epoch(previous.getDepartureAt());
+      byCities.computeIfPresent(CityPair.of(previous), (pair, posting) -> posting.without(departure, flightInstanceId));
+      byOrigin.computeIfPresent(originOf(previous), (origin, posting) -> posting.without(departure, flightInstanceId));
+    }
+  }
+
+  /**
+   * Salidas ordenadas (epoch ms) y, en la misma posicion, su instancia.
+   * Inmutable; {@link #with} y {@link #without} devuelven una copia.
+   */
+  static final class Posting {
+
+    private static final Comparator<FlightInstance> ORDER = Comparator
+        .comparing(FlightInstance::getDepartureAt)
+        .thenComparing(FlightInstance::getFlightInstanceId);
+
+    private final long[] departures;
+    private final FlightInstance[] instances;
+
+    private Posting(long[] departures, FlightInstance[] instances) {
+      this.departures = departures;
+      this.instances = instances;
+    }
+
+    static Posting of(List<FlightInstance> group) {
+      FlightInstance[] sorted = group.toArray(FlightInstance[]::new);
+      Arrays.sort(sorted, ORDER);
+      long[] departures = new long[sorted.length];
+      for (int i = 0; i < sorted.length; i++) {
+        departures[i] = epoch(sorted[i].getDepartureAt());
+      }
+      return new Posting(departures, sorted);
+    }
+
+    /**
+     * Instancias con salida en [from, to], en orden de salida.
+     */
+    List<FlightInstance> range(long from, long to) {
+      int lo = lowerBound(from);
+      int hi = lowerBound(to == Long.MAX_VALUE ? to : to + 1);
+      if (lo >= hi) {
+        return List.of();
+      }
+      return Arrays.asList(Arrays.copyOfRange(instances, lo, hi));
+    }
+
+    Posting with(long departure, FlightInstance flightInstance) {
+      int at = lowerBound(departure + 1);
+      long[] nextDepartures = new long[departures.length + 1];
+      FlightInstance[] nextInstances = new FlightInstance[instances.length + 1];
+      System.arraycopy(departures, 0, nextDepartures, 0, at);
+      System.arraycopy(instances, 0, nextInstances, 0, at);
+      nextDepartures[at] = departure;
+      nextInstances[at] = flightInstance;
+      System.arraycopy(departures, at, nextDepartures, at + 1, departures.length - at);
+      System.arraycopy(instances, at, nextInstances, at + 1, instances.length - at);
+      return new Posting(nextDepartures, nextInstances);
+    }
+
+    /**
+     * Sin la instancia; {@code null} si queda vacio, para que el mapa suelte la clave.
+     */
+    Posting without(long departure, Long flightInstanceId) {
+      int at = lowerBound(departure);
+      while (at < departures.length && departures[at] == departure
+          && !instances[at].getFlightInstanceId().equals(flightInstanceId)) {
+        at++;
+      }
+      if (at == departures.length || departures[at] != departure) {
+        return this;
+      }
+      if (departures.length == 1) {
+        return null;
+      }
+      long[] nextDepartures = new long[departures.length - 1];
+      FlightInstance[] nextInstances = new FlightInstance[instances.length - 1];
+      System.arraycopy(departures, 0, nextDepartures, 0, at);
+      System.arraycopy(instances, 0, nextInstances, 0, at);
+      System.arraycopy(departures, at + 1, nextDepartures, at, departures.length - at - 1);
+      System.arraycopy(instances, at + 1, nextInstances, at, instances.length - at - 1);
+      return new Posting(nextDepartures, nextInstances);
+    }
+
+    // primera posicion con salida >= value
+    private int lowerBound(long value) {
+      int lo = 0;
+      int hi = departures.length;
+      while (lo < hi) {
+        int mid = (lo + hi) >>> 1;
+        if (departures[mid] < value) {
+          lo = mid + 1;
+        } else {
+          hi = mid;
+        }
+      }
+      return lo;
+    }
+  }
+}
@@ -0,0 +1,297 @@
+package com.sharp.flight_service.component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sharp.flight_service.model.Aircraft;
+import com.sharp.flight_service.model.Airport;
+import com.sharp.flight_service.model.Route;
+import com.sharp.flight_service.repository.IAircraftRepository;
+import com.sharp.flight_service.repository.IAirportRepository;
+import com.sharp.flight_service.repository.IRouteRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Aeropuertos, aviones y rutas en memoria para los servicios de lectura.
+ *
+ * Cada {@link Snapshot} es inmutable y se reemplaza entero (con una version
+ * nueva) despues de cada escritura sobre estas tablas, y cada
+ * {@code refresh-ms} por lo que cambie otra replica. Son pocas filas, asi que
+ * se recarga todo en vez de aplicar cambios.
+ *
+ * Las consultas no van a la base ni crean objetos: los {@code Optional} y las
+ * listas se arman al construir el snapshot, y el IATA se empaqueta en un int
+ * que es directamente la posicion en un arreglo.
+ */
+@Slf4j
+@Component
+public class ReferenceData {
+
+  // 3 letras de 5 bits
+  private static final int IATA_SLOTS = 1 << 15;
+
+  private final IAirportRepository airportRepository;
+  private final IAircraftRepository aircraftRepository;
+  private final IRouteRepository routeRepository;
+  private final TransactionTemplate readTransaction;
+
+  private volatile Snapshot snapshot;
+
+  public ReferenceData(IAirportRepository airportRepository,
+      IAircraftRepository aircraftRepository,
+      IRouteRepository routeRepository,
+      PlatformTransactionManager transactionManager) {
+    this.airportRepository = airportRepository;
+    this.aircraftRepository = aircraftRepository;
+    this.routeRepository = routeRepository;
+    this.readTransaction = new TransactionTemplate(transactionManager);
+    this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.readTransaction.setReadOnly(true);
+  }
+
+  public Snapshot snapshot() {
+    Snapshot current = snapshot;
+    if (current != null) {
+      return current;
+    }
+    synchronized (this) {
+      if (snapshot == null) {
+        reload();
+      }
+      return snapshot;
+    }
+  }
+
+  /**
+   * Recarga cuando la transaccion actual haga commit.
+   */
+  public void reloadAfterCommit() {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      reload();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        try {
+          reload();
+        } catch (RuntimeException e) {
+          // queda el snapshot anterior hasta el proximo refresh
+          log.warn("Could not reload reference data: {}", e.getMessage());
+        }
+      }
+    });
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void build() {
+    try {
+      reload();
+    } catch (RuntimeException e) {
+      log.warn("Could not load reference data: {}", e.getMessage());
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${flight.reference.refresh-ms:60000}",
+      initialDelayString = "${flight.reference.refresh-ms:60000}")
+  public void refresh() {
+    reload();
+  }
+
+  public synchronized void reload() {
+    long started = System.nanoTime();
+    Snapshot previous = snapshot;
+    long version = previous == null ? 1 : previous.version + 1;
+    Snapshot loaded = readTransaction.execute(status -> new Snapshot(version,
+        airportRepository.findAll(), aircraftRepository.findAll(), routeRepository.findAllWithAirports()));
+    snapshot = loaded;
+    log.debug("Reference data v{} loaded: {} airports, {} aircraft, {} routes in {} ms", version,
+        loaded.airports.size(), loaded.aircraft.size(), loaded.routes.size(),
+        Duration.ofNanos(System.nanoTime() - started).toMillis());
+  }
+
+  /**
+   * Codigo IATA de 3 letras (sin distinguir mayusculas) como int en [0, 2^15),
+   * o -1 si no es un codigo valido.
+   */
+  public static int packIata(String iata) {
+    if (iata == null || iata.length() != 3) {
+      return -1;
+    }
+    int packed = 0;
+    for (int i = 0; i < 3; i++) {
+      int letter = (iata.charAt(i) | 0x20) - 'a';
+      if (letter < 0 || letter >= 26) {
+        return -1;
+      }
+      packed = (packed << 5) | letter;
+    }
+    return packed;
+  }
+
+  /**
+   * Vista inmutable de las tres tablas. Las entidades quedan desacopladas de
+   * la sesion con sus relaciones ya cargadas; no se deben modificar.
+   */
+  public static final class Snapshot {
+
+    private final long version;
+
+    private final List<Airport> airports;
+    private final List<Airport> activeAirports;
+    private final Map<Long, Optional<Airport>> airportsById;
+    private final Optional<Airport>[] airportsByIata;
+
+    private final List<Aircraft> aircraft;
+    private final List<Aircraft> activeAircraft;
+    private final Map<Long, Optional<Aircraft>> aircraftById;
+    // la columna code compara sin mayusculas en MySQL
+    private final Map<String, Optional<Aircraft>> aircraftByCode;
+
+    private final List<Route> routes;
+    private final List<Route> activeRoutes;
+    private final Map<Long, Optional<Route>> routesById;
+    // solo activas, como las consultas de IRouteRepository
+    private final Map<Long, Map<Long, Optional<Route>>> activeRoutesByPair;
+    private final Map<Long, List<Route>> activeRoutesByOrigin;
+    private final Map<Long, List<Route>> activeRoutesByDestination;
+
+    @SuppressWarnings("unchecked")
+    Snapshot(long version, List<Airport> airports, List<Aircraft> aircraft, List<Route> routes) {
+      this.version = version;
+
+      this.airports = sorted(airports, Comparator.comparing(Airport::getAirportId));
+      this.activeAirports = this.airports.stream().filter(Airport::getIsActive).toList();
+      this.airportsById = new HashMap<>();
+      this.airportsByIata = new Optional[IATA_SLOTS];
+      for (Airport airport : this.airports) {
+        Optional<Airport> value = Optional.of(airport);
+        airportsById.put(airport.getAirportId(), value);
+        int slot = packIata(airport.getIata());
+        if (slot >= 0) {
+          airportsByIata[slot] = value;
+        }
+      }
+
+      this.aircraft = sorted(aircraft, Comparator.comparing(Aircraft::getAircraftId));
+      this.activeAircraft = this.aircraft.stream().filter(Aircraft::getIsActive).toList();
+      this.aircraftById = new HashMap<>();
+      this.aircraftByCode = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+      for (Aircraft a : this.aircraft) {
+        Optional<Aircraft> value = Optional.of(a);
+        aircraftById.put(a.getAircraftId(), value);
+        aircraftByCode.put(a.getCode(), value);
+      }
+
+      this.routes = sorted(routes, Comparator.comparing(Route::getRouteId));
+      this.activeRoutes = this.routes.stream().filter(Route::getIsActive).toList();
+      this.routesById = new HashMap<>();
+      this.activeRoutesByPair = new HashMap<>();
+      Map<Long, List<Route>> byOrigin = new HashMap<>();
+      Map<Long, List<Route>> byDestination = new HashMap<>();
+      for (Route route : this.routes) {
+        Optional<Route> value = Optional.of(route);
+        routesById.put(route.getRouteId(), value);
+        if (!route.getIsActive()) {
+          continue;
+        }
+        Long origin = route.getOriginAirport().getAirportId();
+        Long destination = route.getDestinationAirport().getAirportId();
+        activeRoutesByPair.computeIfAbsent(origin, k -> new HashMap<>()).put(destination, value);
+        byOrigin.computeIfAbsent(origin, k -> new ArrayList<>()).add(route);
+        byDestination.computeIfAbsent(destination, k -> new ArrayList<>()).add(route);
+      }
+      this.activeRoutesByOrigin = new HashMap<>();
+      byOrigin.forEach((id, list) -> activeRoutesByOrigin.put(id, List.copyOf(list)));
+      this.activeRoutesByDestination = new HashMap<>();
+      byDestination.forEach((id, list) -> activeRoutesByDestination.put(id, List.copyOf(list)));
+    }
+
+    public long version() {
+      return version;
+    }
+
+    public List<Airport> airports() {
+      return airports;
+    }
+
+    public List<Airport> activeAirports() {
+      return activeAirports;
+    }
+
+    public Optional<Airport> airport(Long id) {
+      return airportsById.getOrDefault(id, Optional.empty());
+    }
+
+    public Optional<Airport> airportByIata(String iata) {
+      int slot = packIata(iata);
+      Optional<Airport> airport = slot < 0 ? null : airportsByIata[slot];
+      return airport == null ? Optional.empty() : airport;
+    }
+
+    public List<Aircraft> aircraft() {
+      return aircraft;
+    }
+
+    public List<Aircraft> activeAircraft() {
+      return activeAircraft;
+    }
+
+    public Optional<Aircraft> aircraft(Long id) {
+      return aircraftById.getOrDefault(id, Optional.empty());
+    }
+
+    public Optional<Aircraft> aircraftByCode(String code) {
+      return code == null ? Optional.empty() : aircraftByCode.getOrDefault(code, Optional.empty());
+    }
+
+    public List<Route> routes() {
+      return routes;
+    }
+
+    public List<Route> activeRoutes() {
+      return activeRoutes;
+    }
+
+    public Optional<Route> route(Long id) {
+      return routesById.getOrDefault(id, Optional.empty());
+    }
+
+    public Optional<Route> activeRoute(Long originAirportId, Long destinationAirportId) {
+      Map<Long, Optional<Route>> byDestination = activeRoutesByPair.get(originAirportId);
+      return byDestination == null ? Optional.empty() : byDestination.getOrDefault(destinationAirportId, Optional.empty());
+    }
+
+    public List<Route> activeRoutesFrom(Long originAirportId) {
+      return activeRoutesByOrigin.getOrDefault(originAirportId, List.of());
+    }
+
+    public List<Route> activeRoutesTo(Long destinationAirportId) {
+      return activeRoutesByDestination.getOrDefault(destinationAirportId, List.of());
+    }
+
+    private static <T> List<T> sorted(List<T> items, Comparator<T> order) {
+      List<T> copy = new ArrayList<>(items);
+      copy.sort(order);
+      return Collections.unmodifiableList(copy);
+    }
+  }
+}
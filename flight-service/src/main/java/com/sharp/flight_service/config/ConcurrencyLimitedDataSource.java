@@ -0,0 +1,98 @@
+package com.sharp.flight_service.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Limita cuantas conexiones JDBC se piden a la vez y cuantos hilos pueden
+ * esperar una. Con virtual threads no hay un pool de hilos que frene la
+ * concurrencia: sin tope, miles de requests harian cola en Hikari y terminarian
+ * todos en timeout juntos. Aca, pasado {@code maxWaiting}, el request falla en
+ * el acto y el resto de la cola sigue avanzando. El permiso se devuelve al
+ * cerrar la conexion.
+ */
+public class ConcurrencyLimitedDataSource extends DelegatingDataSource {
+
+  private final Semaphore permits;
+  private final AtomicInteger waiting = new AtomicInteger();
+  private final int maxWaiting;
+  private final long acquireTimeoutMillis;
+
+  public ConcurrencyLimitedDataSource(DataSource target, int maxConcurrency, int maxWaiting,
+      long acquireTimeoutMillis) {
+    super(target);
+    this.permits = new Semaphore(maxConcurrency, true);
+    this.maxWaiting = maxWaiting;
+    this.acquireTimeoutMillis = acquireTimeoutMillis;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    acquire();
+    try {
+      return releasingOnClose(super.getConnection());
+    } catch (SQLException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    acquire();
+    try {
+      return releasingOnClose(super.getConnection(username, password));
+    } catch (SQLException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  private void acquire() throws SQLException {
+    if (permits.tryAcquire()) {
+      return;
+    }
+    if (waiting.incrementAndGet() > maxWaiting) {
+      waiting.decrementAndGet();
+      throw new SQLTransientConnectionException(maxWaiting + " requests already waiting for a JDBC connection");
+    }
+    try {
+      if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+        throw new SQLTransientConnectionException(
+            "Timed out after " + acquireTimeoutMillis + "ms waiting for a JDBC connection permit");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLTransientConnectionException("Interrupted waiting for a JDBC connection permit", e);
+    } finally {
+      waiting.decrementAndGet();
+    }
+  }
+
+  private Connection releasingOnClose(Connection connection) {
+    AtomicBoolean released = new AtomicBoolean();
+    return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+        (proxy, method, args) -> {
+          try {
+            return method.invoke(connection, args);
+          } catch (InvocationTargetException e) {
+            throw e.getCause();
+          } finally {
+            if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+              permits.release();
+            }
+          }
+        });
+  }
+}
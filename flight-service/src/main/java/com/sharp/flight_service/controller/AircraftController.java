@@ -22,14 +22,16 @@ public class AircraftController {
 
   @PostMapping
   public ResponseEntity<Aircraft> createAircraft(@RequestBody Aircraft aircraft) {
-    log.info("POST /api/v1/aircraft - Creating aircraft: {}", aircraft.getCode());
+    log.atInfo().addKeyValue("code", aircraft.getCode())
+        .log("POST /api/v1/aircraft - Creating aircraft");
     Aircraft created = aircraftService.createAircraft(aircraft);
     return ResponseEntity.status(HttpStatus.CREATED).body(created);
   }
 
   @GetMapping("/{id}")
   public ResponseEntity<Aircraft> getAircraftById(@PathVariable Long id) {
-    log.info("GET /api/v1/aircraft/{} - Fetching aircraft", id);
+    log.atInfo().addKeyValue("id", id)
+        .log("GET /api/v1/aircraft/{id} - Fetching aircraft");
     return aircraftService.getAircraftById(id)
         .map(ResponseEntity::ok)
         .orElse(ResponseEntity.notFound().build());
@@ -37,7 +39,8 @@ public class AircraftController {
 
   @GetMapping("/code/{code}")
   public ResponseEntity<Aircraft> getAircraftByCode(@PathVariable String code) {
-    log.info("GET /api/v1/aircraft/code/{} - Fetching aircraft by code", code);
+    log.atInfo().addKeyValue("code", code)
+        .log("GET /api/v1/aircraft/code/{code} - Fetching aircraft by code");
     return aircraftService.getAircraftByCode(code)
         .map(ResponseEntity::ok)
         .orElse(ResponseEntity.notFound().build());
@@ -46,7 +49,8 @@ public class AircraftController {
   @GetMapping
   public ResponseEntity<List<Aircraft>> getAllAircraft(
       @RequestParam(required = false) Boolean activeOnly) {
-    log.info("GET /api/v1/aircraft - Fetching all aircraft, activeOnly: {}", activeOnly);
+    log.atInfo().addKeyValue("activeOnly", activeOnly)
+        .log("GET /api/v1/aircraft - Fetching all aircraft");
     List<Aircraft> aircraft = Boolean.TRUE.equals(activeOnly)
         ? aircraftService.getActiveAircraft()
         : aircraftService.getAllAircraft();
@@ -55,7 +59,8 @@ public class AircraftController {
 
   @PutMapping("/{id}")
   public ResponseEntity<Aircraft> updateAircraft(@PathVariable Long id, @RequestBody Aircraft aircraft) {
-    log.info("PUT /api/v1/aircraft/{} - Updating aircraft", id);
+    log.atInfo().addKeyValue("id", id)
+        .log("PUT /api/v1/aircraft/{id} - Updating aircraft");
     try {
       Aircraft updated = aircraftService.updateAircraft(id, aircraft);
       return ResponseEntity.ok(updated);
@@ -67,7 +72,8 @@ public class AircraftController {
 
   @DeleteMapping("/{id}")
   public ResponseEntity<Void> deleteAircraft(@PathVariable Long id) {
-    log.info("DELETE /api/v1/aircraft/{} - Deleting aircraft", id);
+    log.atInfo().addKeyValue("id", id)
+        .log("DELETE /api/v1/aircraft/{id} - Deleting aircraft");
     boolean deleted = aircraftService.deleteAircraft(id);
     return deleted
         ? ResponseEntity.noContent().build()
@@ -76,7 +82,8 @@ public class AircraftController {
 
   @GetMapping("/exists/code/{code}")
   public ResponseEntity<Boolean> existsByCode(@PathVariable String code) {
-    log.info("GET /api/v1/aircraft/exists/code/{} - Checking existence", code);
+    log.atInfo().addKeyValue("code", code)
+        .log("GET /api/v1/aircraft/exists/code/{code} - Checking existence");
     return ResponseEntity.ok(aircraftService.existsByCode(code));
   }
 }
@@ -6,6 +6,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.sharp.flight_service.dto.AirportSuggestion;
 import com.sharp.flight_service.model.Airport;
 import com.sharp.flight_service.service.IAirportService;
 
@@ -22,14 +23,16 @@ public class AirportController {
 
   @PostMapping
   public ResponseEntity<Airport> createAirport(@RequestBody Airport airport) {
-    log.info("POST /api/v1/airports - Creating airport: {}", airport.getIata());
+    log.atInfo().addKeyValue("iata", airport.getIata())
+        .log("POST /api/v1/airports - Creating airport");
     Airport created = airportService.createAirport(airport);
     return ResponseEntity.status(HttpStatus.CREATED).body(created);
   }
 
   @GetMapping("/{id}")
   public ResponseEntity<Airport> getAirportById(@PathVariable Long id) {
-    log.info("GET /api/v1/airports/{} - Fetching airport", id);
+    log.atInfo().addKeyValue("id", id)
+        .log("GET /api/v1/airports/{id} - Fetching airport");
     return airportService.getAirportById(id)
         .map(ResponseEntity::ok)
         .orElse(ResponseEntity.notFound().build());
@@ -37,16 +40,30 @@ public class AirportController {
 
   @GetMapping("/iata/{iata}")
   public ResponseEntity<Airport> getAirportByIata(@PathVariable String iata) {
-    log.info("GET /api/v1/airports/iata/{} - Fetching airport by IATA", iata);
+    log.atInfo().addKeyValue("iata", iata)
+        .log("GET /api/v1/airports/iata/{iata} - Fetching airport by IATA");
     return airportService.getAirportByIata(iata)
         .map(ResponseEntity::ok)
         .orElse(ResponseEntity.notFound().build());
   }
 
+  @GetMapping("/autocomplete")
+  public ResponseEntity<List<AirportSuggestion>> autocomplete(
+      @RequestParam String q,
+      @RequestParam(defaultValue = "10") int limit) {
+    log.atInfo().addKeyValue("q", q)
+        .log("GET /api/v1/airports/autocomplete - Autocompleting airports");
+    if (limit < 1 || limit > 50) {
+      return ResponseEntity.badRequest().build();
+    }
+    return ResponseEntity.ok(airportService.autocomplete(q, limit));
+  }
+
   @GetMapping
   public ResponseEntity<List<Airport>> getAllAirports(
       @RequestParam(required = false) Boolean activeOnly) {
-    log.info("GET /api/v1/airports - Fetching all airports, activeOnly: {}", activeOnly);
+    log.atInfo().addKeyValue("activeOnly", activeOnly)
+        .log("GET /api/v1/airports - Fetching all airports");
     List<Airport> airports = Boolean.TRUE.equals(activeOnly)
         ? airportService.getActiveAirports()
         : airportService.getAllAirports();
@@ -55,7 +72,8 @@ public class AirportController {
 
   @PutMapping("/{id}")
   public ResponseEntity<Airport> updateAirport(@PathVariable Long id, @RequestBody Airport airport) {
-    log.info("PUT /api/v1/airports/{} - Updating airport", id);
+    log.atInfo().addKeyValue("id", id)
+        .log("PUT /api/v1/airports/{id} - Updating airport");
     try {
       Airport updated = airportService.updateAirport(id, airport);
       return ResponseEntity.ok(updated);
@@ -67,7 +85,8 @@ public class AirportController {
 
   @DeleteMapping("/{id}")
   public ResponseEntity<Void> deleteAirport(@PathVariable Long id) {
-    log.info("DELETE /api/v1/airports/{} - Deleting airport", id);
+    log.atInfo().addKeyValue("id", id)
+        .log("DELETE /api/v1/airports/{id} - Deleting airport");
     boolean deleted = airportService.deleteAirport(id);
     return deleted
         ? ResponseEntity.noContent().build()
@@ -76,7 +95,8 @@ public class AirportController {
 
   @GetMapping("/exists/iata/{iata}")
   public ResponseEntity<Boolean> existsByIata(@PathVariable String iata) {
-    log.info("GET /api/v1/airports/exists/iata/{} - Checking existence", iata);
+    log.atInfo().addKeyValue("iata", iata)
+        .log("GET /api/v1/airports/exists/iata/{iata} - Checking existence");
     return ResponseEntity.ok(airportService.existsByIata(iata));
   }
 }
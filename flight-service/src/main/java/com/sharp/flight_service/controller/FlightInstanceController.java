@@ -9,6 +9,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.sharp.flight_service.dto.Itinerary;
 import com.sharp.flight_service.model.FlightInstance;
 import com.sharp.flight_service.model.FlightStatus;
 import com.sharp.flight_service.service.IFlightInstanceService;
@@ -26,7 +27,8 @@ public class FlightInstanceController {
 
   @PostMapping
   public ResponseEntity<FlightInstance> createFlightInstance(@RequestBody FlightInstance flightInstance) {
-    log.info("POST /api/v1/flight-instances - Creating flight instance");
+    log.atInfo()
+        .log("POST /api/v1/flight-instances - Creating flight instance");
     try {
       FlightInstance created = flightInstanceService.createFlightInstance(flightInstance);
       return ResponseEntity.status(HttpStatus.CREATED).body(created);
@@ -38,7 +40,8 @@ public class FlightInstanceController {
 
   @GetMapping("/{id}")
   public ResponseEntity<FlightInstance> getFlightInstanceById(@PathVariable Long id) {
-    log.info("GET /api/v1/flight-instances/{} - Fetching flight instance", id);
+    log.atInfo().addKeyValue("id", id)
+        .log("GET /api/v1/flight-instances/{id} - Fetching flight instance");
     return flightInstanceService.getFlightInstanceById(id)
         .map(ResponseEntity::ok)
         .orElse(ResponseEntity.notFound().build());
@@ -46,13 +49,15 @@ public class FlightInstanceController {
 
   @GetMapping
   public ResponseEntity<List<FlightInstance>> getAllFlightInstances() {
-    log.info("GET /api/v1/flight-instances - Fetching all flight instances");
+    log.atInfo()
+        .log("GET /api/v1/flight-instances - Fetching all flight instances");
     return ResponseEntity.ok(flightInstanceService.getAllFlightInstances());
   }
 
   @GetMapping("/status/{status}")
   public ResponseEntity<List<FlightInstance>> getFlightInstancesByStatus(@PathVariable FlightStatus status) {
-    log.info("GET /api/v1/flight-instances/status/{} - Fetching flight instances by status", status);
+    log.atInfo().addKeyValue("status", status)
+        .log("GET /api/v1/flight-instances/status/{status} - Fetching flight instances by status");
     return ResponseEntity.ok(flightInstanceService.getFlightInstancesByStatus(status));
   }
 
@@ -60,13 +65,17 @@ public class FlightInstanceController {
   public ResponseEntity<List<FlightInstance>> getFlightInstancesByDateRange(
       @RequestParam @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime start,
       @RequestParam @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime end) {
-    log.info("GET /api/v1/flight-instances/by-date-range - Fetching flights between {} and {}", start, end);
+    log.atInfo()
+        .addKeyValue("start", start)
+        .addKeyValue("end", end)
+        .log("GET /api/v1/flight-instances/by-date-range - Fetching flights by departure range");
     return ResponseEntity.ok(flightInstanceService.getFlightInstancesByDateRange(start, end));
   }
 
   @GetMapping("/by-template/{templateId}")
   public ResponseEntity<List<FlightInstance>> getFlightInstancesByTemplate(@PathVariable Long templateId) {
-    log.info("GET /api/v1/flight-instances/by-template/{} - Fetching flight instances by template", templateId);
+    log.atInfo().addKeyValue("templateId", templateId)
+        .log("GET /api/v1/flight-instances/by-template/{templateId} - Fetching flight instances by template");
     return ResponseEntity.ok(flightInstanceService.getFlightInstancesByTemplate(templateId));
   }
 
@@ -77,7 +86,11 @@ public class FlightInstanceController {
       @RequestParam(required = false) String destinationCity,
       @RequestParam @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime start,
       @RequestParam @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime end) {
-    log.info("GET /api/v1/flight-instances/search - Searching flights");
+    log.atInfo()
+        .addKeyValue("originAirportId", originAirportId)
+        .addKeyValue("originCity", originCity)
+        .addKeyValue("destinationCity", destinationCity)
+        .log("GET /api/v1/flight-instances/search - Searching flights");
 
     if (originAirportId != null) {
       return ResponseEntity.ok(flightInstanceService.getFlightInstancesByOriginAndDateRange(
@@ -92,9 +105,43 @@ public class FlightInstanceController {
     return ResponseEntity.badRequest().build();
   }
 
+  @GetMapping("/connections")
+  public ResponseEntity<List<Itinerary>> searchConnections(
+      @RequestParam(required = false) Long originAirportId,
+      @RequestParam(required = false) String originCity,
+      @RequestParam(required = false) Long destinationAirportId,
+      @RequestParam(required = false) String destinationCity,
+      @RequestParam @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime start,
+      @RequestParam @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime end,
+      @RequestParam(defaultValue = "3") int maxLegs,
+      @RequestParam(defaultValue = "${flight.connections.min-connection-minutes:60}") int minConnectionMinutes,
+      @RequestParam(defaultValue = "20") int limit) {
+    log.atInfo()
+        .addKeyValue("originAirportId", originAirportId)
+        .addKeyValue("originCity", originCity)
+        .addKeyValue("destinationAirportId", destinationAirportId)
+        .addKeyValue("destinationCity", destinationCity)
+        .addKeyValue("maxLegs", maxLegs)
+        .log("GET /api/v1/flight-instances/connections - Searching connections");
+
+    if ((originAirportId == null && originCity == null)
+        || (destinationAirportId == null && destinationCity == null)) {
+      return ResponseEntity.badRequest().build();
+    }
+
+    try {
+      return ResponseEntity.ok(flightInstanceService.searchConnections(originAirportId, originCity,
+          destinationAirportId, destinationCity, start, end, maxLegs, minConnectionMinutes, limit));
+    } catch (IllegalArgumentException e) {
+      log.error("Error searching connections: {}", e.getMessage());
+      return ResponseEntity.badRequest().build();
+    }
+  }
+
   @GetMapping("/upcoming")
   public ResponseEntity<List<FlightInstance>> getUpcomingFlights() {
-    log.info("GET /api/v1/flight-instances/upcoming - Fetching upcoming flights");
+    log.atInfo()
+        .log("GET /api/v1/flight-instances/upcoming - Fetching upcoming flights");
     return ResponseEntity.ok(flightInstanceService.getUpcomingFlights());
   }
 
@@ -102,7 +149,8 @@ public class FlightInstanceController {
   public ResponseEntity<FlightInstance> updateFlightInstance(
       @PathVariable Long id,
       @RequestBody FlightInstance flightInstance) {
-    log.info("PUT /api/v1/flight-instances/{} - Updating flight instance", id);
+    log.atInfo().addKeyValue("id", id)
+        .log("PUT /api/v1/flight-instances/{id} - Updating flight instance");
     try {
       FlightInstance updated = flightInstanceService.updateFlightInstance(id, flightInstance);
       return ResponseEntity.ok(updated);
@@ -116,7 +164,8 @@ public class FlightInstanceController {
   public ResponseEntity<FlightInstance> updateStatus(
       @PathVariable Long id,
       @RequestParam FlightStatus status) {
-    log.info("PATCH /api/v1/flight-instances/{}/status - Updating status to: {}", id, status);
+    log.atInfo().addKeyValue("id", id).addKeyValue("status", status)
+        .log("PATCH /api/v1/flight-instances/{id}/status - Updating status");
     try {
       FlightInstance updated = flightInstanceService.updateStatus(id, status);
       return ResponseEntity.ok(updated);
@@ -128,7 +177,8 @@ public class FlightInstanceController {
 
   @DeleteMapping("/{id}")
   public ResponseEntity<Void> deleteFlightInstance(@PathVariable Long id) {
-    log.info("DELETE /api/v1/flight-instances/{} - Deleting flight instance", id);
+    log.atInfo().addKeyValue("id", id)
+        .log("DELETE /api/v1/flight-instances/{id} - Deleting flight instance");
     boolean deleted = flightInstanceService.deleteFlightInstance(id);
     return deleted
         ? ResponseEntity.noContent().build()
@@ -6,8 +6,11 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.sharp.flight_service.dto.ScheduleRolloutRequest;
+import com.sharp.flight_service.dto.ScheduleRolloutResult;
 import com.sharp.flight_service.model.FlightTemplate;
 import com.sharp.flight_service.service.IFlightTemplateService;
+import com.sharp.flight_service.service.IScheduleRolloutService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,10 +22,13 @@ import lombok.extern.slf4j.Slf4j;
 public class FlightTemplateController {
 
   private final IFlightTemplateService flightTemplateService;
+  private final IScheduleRolloutService scheduleRolloutService;
 
   @PostMapping
   public ResponseEntity<FlightTemplate> createFlightTemplate(@RequestBody FlightTemplate flightTemplate) {
-    log.info("POST /api/v1/flight-templates - Creating flight template: {}", flightTemplate.getFlightNumber());
+    log.atInfo()
+        .addKeyValue("flightNumber", flightTemplate.getFlightNumber())
+        .log("POST /api/v1/flight-templates - Creating flight template");
     try {
       FlightTemplate created = flightTemplateService.createFlightTemplate(flightTemplate);
       return ResponseEntity.status(HttpStatus.CREATED).body(created);
@@ -32,9 +38,24 @@ public class FlightTemplateController {
     }
   }
 
+  @PostMapping("/roll-out")
+  public ResponseEntity<ScheduleRolloutResult> rollOutSchedule(@RequestBody ScheduleRolloutRequest request) {
+    log.atInfo()
+        .addKeyValue("startDate", request.getStartDate())
+        .addKeyValue("endDate", request.getEndDate())
+        .log("POST /api/v1/flight-templates/roll-out - Generating flight instances for active templates");
+    try {
+      return ResponseEntity.status(HttpStatus.CREATED).body(scheduleRolloutService.rollOut(request));
+    } catch (IllegalArgumentException e) {
+      log.error("Error rolling out schedule: {}", e.getMessage());
+      return ResponseEntity.badRequest().build();
+    }
+  }
+
   @GetMapping("/{id}")
   public ResponseEntity<FlightTemplate> getFlightTemplateById(@PathVariable Long id) {
-    log.info("GET /api/v1/flight-templates/{} - Fetching flight template", id);
+    log.atInfo().addKeyValue("id", id)
+        .log("GET /api/v1/flight-templates/{id} - Fetching flight template");
     return flightTemplateService.getFlightTemplateById(id)
         .map(ResponseEntity::ok)
         .orElse(ResponseEntity.notFound().build());
@@ -42,7 +63,8 @@ public class FlightTemplateController {
 
   @GetMapping("/number/{flightNumber}")
   public ResponseEntity<FlightTemplate> getFlightTemplateByNumber(@PathVariable String flightNumber) {
-    log.info("GET /api/v1/flight-templates/number/{} - Fetching flight template by number", flightNumber);
+    log.atInfo().addKeyValue("flightNumber", flightNumber)
+        .log("GET /api/v1/flight-templates/number/{flightNumber} - Fetching flight template by number");
     return flightTemplateService.getFlightTemplateByNumber(flightNumber)
         .map(ResponseEntity::ok)
         .orElse(ResponseEntity.notFound().build());
@@ -51,7 +73,8 @@ public class FlightTemplateController {
   @GetMapping
   public ResponseEntity<List<FlightTemplate>> getAllFlightTemplates(
       @RequestParam(required = false) Boolean activeOnly) {
-    log.info("GET /api/v1/flight-templates - Fetching all flight templates, activeOnly: {}", activeOnly);
+    log.atInfo().addKeyValue("activeOnly", activeOnly)
+        .log("GET /api/v1/flight-templates - Fetching all flight templates");
     List<FlightTemplate> templates = Boolean.TRUE.equals(activeOnly)
         ? flightTemplateService.getActiveFlightTemplates()
         : flightTemplateService.getAllFlightTemplates();
@@ -60,13 +83,15 @@ public class FlightTemplateController {
 
   @GetMapping("/by-route/{routeId}")
   public ResponseEntity<List<FlightTemplate>> getFlightTemplatesByRoute(@PathVariable Long routeId) {
-    log.info("GET /api/v1/flight-templates/by-route/{} - Fetching flight templates by route", routeId);
+    log.atInfo().addKeyValue("routeId", routeId)
+        .log("GET /api/v1/flight-templates/by-route/{routeId} - Fetching flight templates by route");
     return ResponseEntity.ok(flightTemplateService.getFlightTemplatesByRoute(routeId));
   }
 
   @GetMapping("/by-aircraft/{aircraftId}")
   public ResponseEntity<List<FlightTemplate>> getFlightTemplatesByAircraft(@PathVariable Long aircraftId) {
-    log.info("GET /api/v1/flight-templates/by-aircraft/{} - Fetching flight templates by aircraft", aircraftId);
+    log.atInfo().addKeyValue("aircraftId", aircraftId)
+        .log("GET /api/v1/flight-templates/by-aircraft/{aircraftId} - Fetching flight templates by aircraft");
     return ResponseEntity.ok(flightTemplateService.getFlightTemplatesByAircraft(aircraftId));
   }
 
@@ -74,7 +99,8 @@ public class FlightTemplateController {
   public ResponseEntity<FlightTemplate> updateFlightTemplate(
       @PathVariable Long id,
       @RequestBody FlightTemplate flightTemplate) {
-    log.info("PUT /api/v1/flight-templates/{} - Updating flight template", id);
+    log.atInfo().addKeyValue("id", id)
+        .log("PUT /api/v1/flight-templates/{id} - Updating flight template");
     try {
       FlightTemplate updated = flightTemplateService.updateFlightTemplate(id, flightTemplate);
       return ResponseEntity.ok(updated);
@@ -86,7 +112,8 @@ public class FlightTemplateController {
 
   @DeleteMapping("/{id}")
   public ResponseEntity<Void> deleteFlightTemplate(@PathVariable Long id) {
-    log.info("DELETE /api/v1/flight-templates/{} - Deleting flight template", id);
+    log.atInfo().addKeyValue("id", id)
+        .log("DELETE /api/v1/flight-templates/{id} - Deleting flight template");
     boolean deleted = flightTemplateService.deleteFlightTemplate(id);
     return deleted
         ? ResponseEntity.noContent().build()
@@ -95,7 +122,8 @@ public class FlightTemplateController {
 
   @GetMapping("/exists/number/{flightNumber}")
   public ResponseEntity<Boolean> existsByFlightNumber(@PathVariable String flightNumber) {
-    log.info("GET /api/v1/flight-templates/exists/number/{} - Checking existence", flightNumber);
+    log.atInfo().addKeyValue("flightNumber", flightNumber)
+        .log("GET /api/v1/flight-templates/exists/number/{flightNumber} - Checking existence");
     return ResponseEntity.ok(flightTemplateService.existsByFlightNumber(flightNumber));
   }
 }
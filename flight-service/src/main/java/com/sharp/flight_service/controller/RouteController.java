@@ -34,7 +34,7 @@ public class RouteController {
 
   @GetMapping("/{id}")
   public ResponseEntity<Route> getRouteById(@PathVariable Long id) {
-    log.info("GET /api/v1/routes/{} - Fetching route", id);
+    log.atInfo().addKeyValue("id", id).log("GET /api/v1/routes/{id} - Fetching route");
     return routeService.getRouteById(id)
         .map(ResponseEntity::ok)
         .orElse(ResponseEntity.notFound().build());
@@ -44,7 +44,10 @@ public class RouteController {
   public ResponseEntity<Route> getRouteByOriginAndDestination(
       @RequestParam Long originId,
       @RequestParam Long destinationId) {
-    log.info("GET /api/v1/routes/by-airports - origin: {}, destination: {}", originId, destinationId);
+    log.atInfo()
+        .addKeyValue("originId", originId)
+        .addKeyValue("destinationId", destinationId)
+        .log("GET /api/v1/routes/by-airports - Fetching route by airports");
     return routeService.getRouteByOriginAndDestination(originId, destinationId)
         .map(ResponseEntity::ok)
         .orElse(ResponseEntity.notFound().build());
@@ -53,7 +56,8 @@ public class RouteController {
   @GetMapping
   public ResponseEntity<List<Route>> getAllRoutes(
       @RequestParam(required = false) Boolean activeOnly) {
-    log.info("GET /api/v1/routes - Fetching all routes, activeOnly: {}", activeOnly);
+    log.atInfo().addKeyValue("activeOnly", activeOnly)
+        .log("GET /api/v1/routes - Fetching all routes");
     List<Route> routes = Boolean.TRUE.equals(activeOnly)
         ? routeService.getActiveRoutes()
         : routeService.getAllRoutes();
@@ -62,19 +66,21 @@ public class RouteController {
 
   @GetMapping("/by-origin/{originId}")
   public ResponseEntity<List<Route>> getRoutesByOrigin(@PathVariable Long originId) {
-    log.info("GET /api/v1/routes/by-origin/{} - Fetching routes by origin", originId);
+    log.atInfo().addKeyValue("originId", originId)
+        .log("GET /api/v1/routes/by-origin/{originId} - Fetching routes by origin");
     return ResponseEntity.ok(routeService.getRoutesByOriginAirport(originId));
   }
 
   @GetMapping("/by-destination/{destId}")
   public ResponseEntity<List<Route>> getRoutesByDestination(@PathVariable Long destId) {
-    log.info("GET /api/v1/routes/by-destination/{} - Fetching routes by destination", destId);
+    log.atInfo().addKeyValue("destinationId", destId)
+        .log("GET /api/v1/routes/by-destination/{destId} - Fetching routes by destination");
     return ResponseEntity.ok(routeService.getRoutesByDestinationAirport(destId));
   }
 
   @PutMapping("/{id}")
   public ResponseEntity<Route> updateRoute(@PathVariable Long id, @RequestBody Route route) {
-    log.info("PUT /api/v1/routes/{} - Updating route", id);
+    log.atInfo().addKeyValue("id", id).log("PUT /api/v1/routes/{id} - Updating route");
     try {
       Route updated = routeService.updateRoute(id, route);
       return ResponseEntity.ok(updated);
@@ -86,7 +92,7 @@ public class RouteController {
 
   @DeleteMapping("/{id}")
   public ResponseEntity<Void> deleteRoute(@PathVariable Long id) {
-    log.info("DELETE /api/v1/routes/{} - Deleting route", id);
+    log.atInfo().addKeyValue("id", id).log("DELETE /api/v1/routes/{id} - Deleting route");
     boolean deleted = routeService.deleteRoute(id);
     return deleted
         ? ResponseEntity.noContent().build()
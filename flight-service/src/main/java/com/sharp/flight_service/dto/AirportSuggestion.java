@@ -0,0 +1,14 @@
+package com.sharp.flight_service.dto;
+
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class AirportSuggestion {
+  private Long airportId;
+  private String iata;
+  private String name;
+  private String city;
+  private String country;
+}
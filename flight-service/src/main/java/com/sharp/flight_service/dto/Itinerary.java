@@ -0,0 +1,19 @@
+package com.sharp.flight_service.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.sharp.flight_service.model.FlightInstance;
+
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class Itinerary {
+  private List<FlightInstance> legs;
+  private LocalDateTime departureAt;   // hora local del aeropuerto de origen
+  private LocalDateTime arrivalAt;     // hora local del aeropuerto de destino
+  private long durationMinutes;        // real, con los cambios de huso
+  private int stops;
+}
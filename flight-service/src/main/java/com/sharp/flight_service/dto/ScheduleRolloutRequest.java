@@ -0,0 +1,21 @@
+package com.sharp.flight_service.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ScheduleRolloutRequest {
+  private LocalDate startDate;                                       // inclusive
+  private LocalDate endDate;                                         // inclusive
+  private List<LocalTime> departureTimes;                            // hora local del origen, para todos los templates
+  private Map<String, List<LocalTime>> departureTimesByFlightNumber; // opcional: pisa departureTimes
+  private Set<DayOfWeek> daysOfWeek;                                 // opcional: todos si viene vacio
+}
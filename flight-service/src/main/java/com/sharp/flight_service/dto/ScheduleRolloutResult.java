@@ -0,0 +1,15 @@
+package com.sharp.flight_service.dto;
+
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ScheduleRolloutResult {
+  private int templates;          // templates activos con horario
+  private int skippedTemplates;   // activos sin horario en el request
+  private int candidates;         // instancias calculadas para la ventana
+  private int existing;           // ya estaban creadas (template, salida)
+  private int created;
+  private long durationMs;
+}
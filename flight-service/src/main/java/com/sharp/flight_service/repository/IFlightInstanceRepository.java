@@ -1,6 +1,7 @@
 package com.sharp.flight_service.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,6 +39,13 @@ public interface IFlightInstanceRepository extends JpaRepository<FlightInstance,
 	@Query("SELECT fi FROM FlightInstance fi JOIN FETCH fi.flightTemplate ft JOIN FETCH ft.route r JOIN FETCH ft.aircraft a JOIN FETCH r.originAirport JOIN FETCH r.destinationAirport WHERE fi.departureAt > :now ORDER BY fi.departureAt")
 	List<FlightInstance> findUpcomingFlights(@Param("now") LocalDateTime now);
 
+	@Query("SELECT fi FROM FlightInstance fi JOIN FETCH fi.flightTemplate ft JOIN FETCH ft.route r JOIN FETCH ft.aircraft a JOIN FETCH r.originAirport JOIN FETCH r.destinationAirport WHERE fi.departureAt >= :from")
+	List<FlightInstance> findDepartingFromWithDetails(@Param("from") LocalDateTime from);
+
+	@Query("SELECT fi.flightTemplate.flightTemplateId, fi.departureAt FROM FlightInstance fi WHERE fi.flightTemplate.flightTemplateId IN :templateIds AND fi.departureAt BETWEEN :start AND :end")
+	List<Object[]> findTemplateDepartures(@Param("templateIds") Collection<Long> templateIds,
+			@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
 	boolean existsByFlightTemplateFlightTemplateIdAndDepartureAt(Long flightTemplateId, LocalDateTime departureAt);
 
 }
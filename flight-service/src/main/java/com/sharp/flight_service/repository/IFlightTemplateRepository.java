@@ -20,6 +20,9 @@ public interface IFlightTemplateRepository extends JpaRepository<FlightTemplate,
   @Query("SELECT ft FROM FlightTemplate ft JOIN FETCH ft.route r JOIN FETCH ft.aircraft a WHERE ft.isActive = true")
   List<FlightTemplate> findAllActive();
 
+  @Query("SELECT ft FROM FlightTemplate ft JOIN FETCH ft.route r JOIN FETCH ft.aircraft a JOIN FETCH r.originAirport JOIN FETCH r.destinationAirport WHERE ft.isActive = true")
+  List<FlightTemplate> findAllActiveWithAirports();
+
   @Query("SELECT ft FROM FlightTemplate ft JOIN FETCH ft.route r JOIN FETCH ft.aircraft a WHERE ft.route.routeId = :routeId AND ft.isActive = true")
   List<FlightTemplate> findByRouteId(@Param("routeId") Long routeId);
 
@@ -24,4 +24,7 @@ public interface IRouteRepository extends JpaRepository<Route, Long> {
 
   @Query("SELECT r FROM Route r JOIN FETCH r.originAirport JOIN FETCH r.destinationAirport WHERE r.isActive = true")
   List<Route> findAllActiveWithAirports();
+
+  @Query("SELECT r FROM Route r JOIN FETCH r.originAirport JOIN FETCH r.destinationAirport")
+  List<Route> findAllWithAirports();
 }
@@ -3,6 +3,7 @@ package com.sharp.flight_service.service;
 import java.util.List;
 import java.util.Optional;
 
+import com.sharp.flight_service.dto.AirportSuggestion;
 import com.sharp.flight_service.model.Airport;
 
 public interface IAirportService {
@@ -21,5 +22,7 @@ public interface IAirportService {
 
   boolean deleteAirport(Long id);
 
+  List<AirportSuggestion> autocomplete(String query, int limit);
+
   boolean existsByIata(String iata);
 }
@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import com.sharp.flight_service.dto.Itinerary;
 import com.sharp.flight_service.model.FlightInstance;
 import com.sharp.flight_service.model.FlightStatus;
 
@@ -25,6 +26,10 @@ public interface IFlightInstanceService {
 
   List<FlightInstance> getFlightInstancesByCitiesAndDateRange(String originCity, String destCity, LocalDateTime start, LocalDateTime end);
 
+  List<Itinerary> searchConnections(Long originAirportId, String originCity, Long destinationAirportId,
+      String destinationCity, LocalDateTime start, LocalDateTime end, int maxLegs, int minConnectionMinutes,
+      int limit);
+
   List<FlightInstance> getUpcomingFlights();
 
   FlightInstance updateFlightInstance(Long id, FlightInstance flightInstance);
@@ -0,0 +1,9 @@
+package com.sharp.flight_service.service;
+
+import com.sharp.flight_service.dto.ScheduleRolloutRequest;
+import com.sharp.flight_service.dto.ScheduleRolloutResult;
+
+public interface IScheduleRolloutService {
+
+  ScheduleRolloutResult rollOut(ScheduleRolloutRequest request);
+}
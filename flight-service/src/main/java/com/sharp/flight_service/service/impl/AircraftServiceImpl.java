@@ -6,6 +6,7 @@ import java.util.Optional;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.sharp.flight_service.component.ReferenceData;
 import com.sharp.flight_service.model.Aircraft;
 import com.sharp.flight_service.repository.IAircraftRepository;
 import com.sharp.flight_service.service.IAircraftService;
@@ -16,49 +17,48 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 @Service
 @RequiredArgsConstructor
-@Transactional
 public class AircraftServiceImpl implements IAircraftService {
 
   private final IAircraftRepository aircraftRepository;
+  private final ReferenceData referenceData;
 
   @Override
+  @Transactional
   public Aircraft createAircraft(Aircraft aircraft) {
     log.info("Creating aircraft with code: {}", aircraft.getCode());
     if (aircraftRepository.existsByCode(aircraft.getCode())) {
       throw new IllegalArgumentException("Aircraft with code " + aircraft.getCode() + " already exists");
     }
+    referenceData.reloadAfterCommit();
     return aircraftRepository.save(aircraft);
   }
 
   @Override
-  @Transactional(readOnly = true)
   public Optional<Aircraft> getAircraftById(Long id) {
-    log.info("Fetching aircraft by id: {}", id);
-    return aircraftRepository.findById(id);
+    log.debug("Fetching aircraft by id: {}", id);
+    return referenceData.snapshot().aircraft(id);
   }
 
   @Override
-  @Transactional(readOnly = true)
   public Optional<Aircraft> getAircraftByCode(String code) {
-    log.info("Fetching aircraft by code: {}", code);
-    return aircraftRepository.findByCode(code);
+    log.debug("Fetching aircraft by code: {}", code);
+    return referenceData.snapshot().aircraftByCode(code);
   }
 
   @Override
-  @Transactional(readOnly = true)
   public List<Aircraft> getAllAircraft() {
-    log.info("Fetching all aircraft");
-    return aircraftRepository.findAll();
+    log.debug("Fetching all aircraft");
+    return referenceData.snapshot().aircraft();
   }
 
   @Override
-  @Transactional(readOnly = true)
   public List<Aircraft> getActiveAircraft() {
-    log.info("Fetching active aircraft");
-    return aircraftRepository.findByIsActiveTrue();
+    log.debug("Fetching active aircraft");
+    return referenceData.snapshot().activeAircraft();
   }
 
   @Override
+  @Transactional
   public Aircraft updateAircraft(Long id, Aircraft aircraft) {
     log.info("Updating aircraft with id: {}", id);
     Aircraft existingAircraft = aircraftRepository.findById(id)
@@ -74,22 +74,24 @@ public class AircraftServiceImpl implements IAircraftService {
     existingAircraft.setSeatCapacity(aircraft.getSeatCapacity());
     existingAircraft.setIsActive(aircraft.getIsActive());
 
+    referenceData.reloadAfterCommit();
     return aircraftRepository.save(existingAircraft);
   }
 
   @Override
+  @Transactional
   public boolean deleteAircraft(Long id) {
     log.info("Deleting aircraft with id: {}", id);
     if (!aircraftRepository.existsById(id)) {
       return false;
     }
     aircraftRepository.deleteById(id);
+    referenceData.reloadAfterCommit();
     return true;
   }
 
   @Override
-  @Transactional(readOnly = true)
   public boolean existsByCode(String code) {
-    return aircraftRepository.existsByCode(code);
+    return referenceData.snapshot().aircraftByCode(code).isPresent();
   }
 }
@@ -6,6 +6,10 @@ import java.util.Optional;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.sharp.flight_service.component.AirportAutocomplete;
+import com.sharp.flight_service.component.ConnectionPlanner;
+import com.sharp.flight_service.component.ReferenceData;
+import com.sharp.flight_service.dto.AirportSuggestion;
 import com.sharp.flight_service.model.Airport;
 import com.sharp.flight_service.repository.IAirportRepository;
 import com.sharp.flight_service.service.IAirportService;
@@ -16,51 +20,52 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 @Service
 @RequiredArgsConstructor
-@Transactional
 public class AirportServiceImpl implements IAirportService {
 
   private final IAirportRepository airportRepository;
+  private final ReferenceData referenceData;
+  private final ConnectionPlanner connectionPlanner;
+  private final AirportAutocomplete airportAutocomplete;
 
   @Override
+  @Transactional
   public Airport createAirport(Airport airport) {
     log.info("Creating airport with IATA code: {}", airport.getIata());
     if (airportRepository.existsByIata(airport.getIata())) {
       throw new IllegalArgumentException("Airport with IATA code " + airport.getIata() + " already exists");
     }
-    return airportRepository.save(airport);
+    Airport saved = airportRepository.save(airport);
+    referenceData.reloadAfterCommit();
+    airportAutocomplete.upsertAfterCommit(saved);
+    return saved;
   }
 
   @Override
-  @Transactional(readOnly = true)
   public Optional<Airport> getAirportById(Long id) {
-    log.info("Fetching airport by id: {}", id);
-    return airportRepository.findById(id);
+    log.debug("Fetching airport by id: {}", id);
+    return referenceData.snapshot().airport(id);
   }
 
   @Override
-  @Transactional(readOnly = true)
   public Optional<Airport> getAirportByIata(String iata) {
-    log.info("Fetching airport by IATA code: {}", iata);
-    return airportRepository.findByIata(iata);
+    log.debug("Fetching airport by IATA code: {}", iata);
+    return referenceData.snapshot().airportByIata(iata);
   }
 
   @Override
-  @Transactional(readOnly = true)
   public List<Airport> getAllAirports() {
-    log.info("Fetching all airports");
-    return airportRepository.findAll();
+    log.debug("Fetching all airports");
+    return referenceData.snapshot().airports();
   }
 
   @Override
-  @Transactional(readOnly = true)
   public List<Airport> getActiveAirports() {
-    log.info("Fetching active airports");
-    return airportRepository.findAll().stream()
-        .filter(Airport::getIsActive)
-        .toList();
+    log.debug("Fetching active airports");
+    return referenceData.snapshot().activeAirports();
   }
 
   @Override
+  @Transactional
   public Airport updateAirport(Long id, Airport airport) {
     log.info("Updating airport with id: {}", id);
     Airport existingAirport = airportRepository.findById(id)
@@ -78,22 +83,34 @@ public class AirportServiceImpl implements IAirportService {
     existingAirport.setTimezone(airport.getTimezone());
     existingAirport.setIsActive(airport.getIsActive());
 
+    referenceData.reloadAfterCommit();
+    // ciudad y huso horario entran en el grafo de conexiones
+    connectionPlanner.markStaleAfterCommit();
+    airportAutocomplete.upsertAfterCommit(existingAirport);
     return airportRepository.save(existingAirport);
   }
 
   @Override
+  @Transactional
   public boolean deleteAirport(Long id) {
     log.info("Deleting airport with id: {}", id);
     if (!airportRepository.existsById(id)) {
       return false;
     }
     airportRepository.deleteById(id);
+    referenceData.reloadAfterCommit();
+    airportAutocomplete.removeAfterCommit(id);
     return true;
   }
 
   @Override
-  @Transactional(readOnly = true)
+  public List<AirportSuggestion> autocomplete(String query, int limit) {
+    log.debug("Autocompleting airports for: {}", query);
+    return airportAutocomplete.suggest(query, limit);
+  }
+
+  @Override
   public boolean existsByIata(String iata) {
-    return airportRepository.existsByIata(iata);
+    return referenceData.snapshot().airportByIata(iata).isPresent();
   }
 }
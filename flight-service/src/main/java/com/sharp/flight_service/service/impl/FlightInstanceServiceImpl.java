@@ -1,5 +1,6 @@
 package com.sharp.flight_service.service.impl;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -7,6 +8,9 @@ import java.util.Optional;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.sharp.flight_service.component.ConnectionPlanner;
+import com.sharp.flight_service.component.FlightSearchIndex;
+import com.sharp.flight_service.dto.Itinerary;
 import com.sharp.flight_service.model.FlightInstance;
 import com.sharp.flight_service.model.FlightStatus;
 import com.sharp.flight_service.repository.IFlightInstanceRepository;
@@ -24,6 +28,8 @@ public class FlightInstanceServiceImpl implements IFlightInstanceService {
 
   private final IFlightInstanceRepository flightInstanceRepository;
   private final IFlightTemplateRepository flightTemplateRepository;
+  private final FlightSearchIndex flightSearchIndex;
+  private final ConnectionPlanner connectionPlanner;
 
   @Override
   public FlightInstance createFlightInstance(FlightInstance flightInstance) {
@@ -46,41 +52,44 @@ public class FlightInstanceServiceImpl implements IFlightInstanceService {
       throw new IllegalArgumentException("Arrival time cannot be before departure time");
     }
 
-    return flightInstanceRepository.save(flightInstance);
+    FlightInstance saved = flightInstanceRepository.save(flightInstance);
+    flightSearchIndex.refreshAfterCommit(saved.getFlightInstanceId());
+    connectionPlanner.markStaleAfterCommit();
+    return saved;
   }
 
   @Override
   @Transactional(readOnly = true)
   public Optional<FlightInstance> getFlightInstanceById(Long id) {
-    log.info("Fetching flight instance by id: {}", id);
+    log.debug("Fetching flight instance by id: {}", id);
     return flightInstanceRepository.findByIdWithDetails(id);
   }
 
   @Override
   @Transactional(readOnly = true)
   public List<FlightInstance> getAllFlightInstances() {
-    log.info("Fetching all flight instances");
+    log.debug("Fetching all flight instances");
     return flightInstanceRepository.findAll();
   }
 
   @Override
   @Transactional(readOnly = true)
   public List<FlightInstance> getFlightInstancesByStatus(FlightStatus status) {
-    log.info("Fetching flight instances by status: {}", status);
+    log.debug("Fetching flight instances by status: {}", status);
     return flightInstanceRepository.findByStatus(status);
   }
 
   @Override
   @Transactional(readOnly = true)
   public List<FlightInstance> getFlightInstancesByDateRange(LocalDateTime start, LocalDateTime end) {
-    log.info("Fetching flight instances between {} and {}", start, end);
+    log.debug("Fetching flight instances between {} and {}", start, end);
     return flightInstanceRepository.findByDepartureBetween(start, end);
   }
 
   @Override
   @Transactional(readOnly = true)
   public List<FlightInstance> getFlightInstancesByTemplate(Long flightTemplateId) {
-    log.info("Fetching flight instances by template: {}", flightTemplateId);
+    log.debug("Fetching flight instances by template: {}", flightTemplateId);
     return flightInstanceRepository.findByFlightTemplateId(flightTemplateId);
   }
 
@@ -88,24 +97,39 @@ public class FlightInstanceServiceImpl implements IFlightInstanceService {
   @Transactional(readOnly = true)
   public List<FlightInstance> getFlightInstancesByOriginAndDateRange(Long originAirportId,
       LocalDateTime start, LocalDateTime end) {
-    log.info("Fetching flight instances from origin {} between {} and {}",
+    log.debug("Fetching flight instances from origin {} between {} and {}",
         originAirportId, start, end);
-    return flightInstanceRepository.findByOriginAndDateRange(originAirportId, start, end);
+    return flightSearchIndex.findByOrigin(originAirportId, start, end)
+        .orElseGet(() -> flightInstanceRepository.findByOriginAndDateRange(originAirportId, start, end));
   }
 
   @Override
   @Transactional(readOnly = true)
   public List<FlightInstance> getFlightInstancesByCitiesAndDateRange(String originCity,
       String destCity, LocalDateTime start, LocalDateTime end) {
-    log.info("Fetching flight instances from {} to {} between {} and {}",
+    log.debug("Fetching flight instances from {} to {} between {} and {}",
         originCity, destCity, start, end);
-    return flightInstanceRepository.findByCitiesAndDateRange(originCity, destCity, start, end);
+    return flightSearchIndex.findByCities(originCity, destCity, start, end)
+        .orElseGet(() -> flightInstanceRepository.findByCitiesAndDateRange(originCity, destCity, start, end));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<Itinerary> searchConnections(Long originAirportId, String originCity,
+      Long destinationAirportId, String destinationCity, LocalDateTime start, LocalDateTime end,
+      int maxLegs, int minConnectionMinutes, int limit) {
+    log.debug("Searching connections from {} to {} between {} and {}",
+        originAirportId != null ? originAirportId : originCity,
+        destinationAirportId != null ? destinationAirportId : destinationCity, start, end);
+    return connectionPlanner.search(new ConnectionPlanner.Query(originAirportId, originCity,
+        destinationAirportId, destinationCity, start, end, maxLegs,
+        Duration.ofMinutes(minConnectionMinutes), limit));
   }
 
   @Override
   @Transactional(readOnly = true)
   public List<FlightInstance> getUpcomingFlights() {
-    log.info("Fetching upcoming flights");
+    log.debug("Fetching upcoming flights");
     return flightInstanceRepository.findUpcomingFlights(LocalDateTime.now());
   }
 
@@ -139,6 +163,8 @@ public class FlightInstanceServiceImpl implements IFlightInstanceService {
     existingInstance.setStatus(flightInstance.getStatus());
     existingInstance.setCapacity(flightInstance.getCapacity());
 
+    flightSearchIndex.refreshAfterCommit(id);
+    connectionPlanner.markStaleAfterCommit();
     return flightInstanceRepository.save(existingInstance);
   }
 
@@ -149,6 +175,8 @@ public class FlightInstanceServiceImpl implements IFlightInstanceService {
         .orElseThrow(() -> new IllegalArgumentException("Flight instance not found with id: " + id));
 
     existingInstance.setStatus(status);
+    flightSearchIndex.refreshAfterCommit(id);
+    connectionPlanner.markStaleAfterCommit();
     return flightInstanceRepository.save(existingInstance);
   }
 
@@ -159,6 +187,8 @@ public class FlightInstanceServiceImpl implements IFlightInstanceService {
       return false;
     }
     flightInstanceRepository.deleteById(id);
+    flightSearchIndex.removeAfterCommit(id);
+    connectionPlanner.markStaleAfterCommit();
     return true;
   }
 
@@ -6,6 +6,8 @@ import java.util.Optional;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.sharp.flight_service.component.ConnectionPlanner;
+import com.sharp.flight_service.component.FlightSearchIndex;
 import com.sharp.flight_service.model.FlightTemplate;
 import com.sharp.flight_service.repository.IAircraftRepository;
 import com.sharp.flight_service.repository.IFlightTemplateRepository;
@@ -24,6 +26,8 @@ public class FlightTemplateServiceImpl implements IFlightTemplateService {
   private final IFlightTemplateRepository flightTemplateRepository;
   private final IRouteRepository routeRepository;
   private final IAircraftRepository aircraftRepository;
+  private final FlightSearchIndex flightSearchIndex;
+  private final ConnectionPlanner connectionPlanner;
 
   @Override
   public FlightTemplate createFlightTemplate(FlightTemplate flightTemplate) {
@@ -51,42 +55,42 @@ public class FlightTemplateServiceImpl implements IFlightTemplateService {
   @Override
   @Transactional(readOnly = true)
   public Optional<FlightTemplate> getFlightTemplateById(Long id) {
-    log.info("Fetching flight template by id: {}", id);
+    log.debug("Fetching flight template by id: {}", id);
     return flightTemplateRepository.findById(id);
   }
 
   @Override
   @Transactional(readOnly = true)
   public Optional<FlightTemplate> getFlightTemplateByNumber(String flightNumber) {
-    log.info("Fetching flight template by number: {}", flightNumber);
+    log.debug("Fetching flight template by number: {}", flightNumber);
     return flightTemplateRepository.findByFlightNumber(flightNumber);
   }
 
   @Override
   @Transactional(readOnly = true)
   public List<FlightTemplate> getAllFlightTemplates() {
-    log.info("Fetching all flight templates");
+    log.debug("Fetching all flight templates");
     return flightTemplateRepository.findAll();
   }
 
   @Override
   @Transactional(readOnly = true)
   public List<FlightTemplate> getActiveFlightTemplates() {
-    log.info("Fetching active flight templates");
+    log.debug("Fetching active flight templates");
     return flightTemplateRepository.findAllActive();
   }
 
   @Override
   @Transactional(readOnly = true)
   public List<FlightTemplate> getFlightTemplatesByRoute(Long routeId) {
-    log.info("Fetching flight templates by route: {}", routeId);
+    log.debug("Fetching flight templates by route: {}", routeId);
     return flightTemplateRepository.findByRouteId(routeId);
   }
 
   @Override
   @Transactional(readOnly = true)
   public List<FlightTemplate> getFlightTemplatesByAircraft(Long aircraftId) {
-    log.info("Fetching flight templates by aircraft: {}", aircraftId);
+    log.debug("Fetching flight templates by aircraft: {}", aircraftId);
     return flightTemplateRepository.findByAircraftId(aircraftId);
   }
 
@@ -119,6 +123,9 @@ public class FlightTemplateServiceImpl implements IFlightTemplateService {
     existingTemplate.setDefaultDurationMinutes(flightTemplate.getDefaultDurationMinutes());
     existingTemplate.setIsActive(flightTemplate.getIsActive());
 
+    // las instancias indexadas cuelgan de la ruta del template
+    flightSearchIndex.refreshTemplateAfterCommit(id);
+    connectionPlanner.markStaleAfterCommit();
     return flightTemplateRepository.save(existingTemplate);
   }
 
@@ -6,6 +6,8 @@ import java.util.Optional;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.sharp.flight_service.component.ConnectionPlanner;
+import com.sharp.flight_service.component.ReferenceData;
 import com.sharp.flight_service.model.Route;
 import com.sharp.flight_service.repository.IAirportRepository;
 import com.sharp.flight_service.repository.IRouteRepository;
@@ -17,13 +19,15 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 @Service
 @RequiredArgsConstructor
-@Transactional
 public class RouteServiceImpl implements IRouteService {
 
   private final IRouteRepository routeRepository;
   private final IAirportRepository airportRepository;
+  private final ReferenceData referenceData;
+  private final ConnectionPlanner connectionPlanner;
 
   @Override
+  @Transactional
   public Route createRoute(Route route) {
     log.info("Creating route from origin {} to destination {}",
         route.getOriginAirport().getAirportId(),
@@ -41,52 +45,49 @@ public class RouteServiceImpl implements IRouteService {
       throw new IllegalArgumentException("Route already exists between these airports");
     }
 
+    referenceData.reloadAfterCommit();
+    connectionPlanner.markStaleAfterCommit();
     return routeRepository.save(route);
   }
 
   @Override
-  @Transactional(readOnly = true)
   public Optional<Route> getRouteById(Long id) {
-    log.info("Fetching route by id: {}", id);
-    return routeRepository.findById(id);
+    log.debug("Fetching route by id: {}", id);
+    return referenceData.snapshot().route(id);
   }
 
   @Override
-  @Transactional(readOnly = true)
   public Optional<Route> getRouteByOriginAndDestination(Long originAirportId, Long destinationAirportId) {
-    log.info("Fetching route from origin {} to destination {}", originAirportId, destinationAirportId);
-    return routeRepository.findByOriginAndDestination(originAirportId, destinationAirportId);
+    log.debug("Fetching route from origin {} to destination {}", originAirportId, destinationAirportId);
+    return referenceData.snapshot().activeRoute(originAirportId, destinationAirportId);
   }
 
   @Override
-  @Transactional(readOnly = true)
   public List<Route> getAllRoutes() {
-    log.info("Fetching all routes");
-    return routeRepository.findAll();
+    log.debug("Fetching all routes");
+    return referenceData.snapshot().routes();
   }
 
   @Override
-  @Transactional(readOnly = true)
   public List<Route> getActiveRoutes() {
-    log.info("Fetching active routes");
-    return routeRepository.findAllActiveWithAirports();
+    log.debug("Fetching active routes");
+    return referenceData.snapshot().activeRoutes();
   }
 
   @Override
-  @Transactional(readOnly = true)
   public List<Route> getRoutesByOriginAirport(Long originAirportId) {
-    log.info("Fetching routes by origin airport: {}", originAirportId);
-    return routeRepository.findByOriginAirportId(originAirportId);
+    log.debug("Fetching routes by origin airport: {}", originAirportId);
+    return referenceData.snapshot().activeRoutesFrom(originAirportId);
   }
 
   @Override
-  @Transactional(readOnly = true)
   public List<Route> getRoutesByDestinationAirport(Long destinationAirportId) {
-    log.info("Fetching routes by destination airport: {}", destinationAirportId);
-    return routeRepository.findByDestinationAirportId(destinationAirportId);
+    log.debug("Fetching routes by destination airport: {}", destinationAirportId);
+    return referenceData.snapshot().activeRoutesTo(destinationAirportId);
   }
 
   @Override
+  @Transactional
   public Route updateRoute(Long id, Route route) {
     log.info("Updating route with id: {}", id);
     Route existingRoute = routeRepository.findById(id)
@@ -103,22 +104,26 @@ public class RouteServiceImpl implements IRouteService {
     existingRoute.setDestinationAirport(route.getDestinationAirport());
     existingRoute.setIsActive(route.getIsActive());
 
+    referenceData.reloadAfterCommit();
+    connectionPlanner.markStaleAfterCommit();
     return routeRepository.save(existingRoute);
   }
 
   @Override
+  @Transactional
   public boolean deleteRoute(Long id) {
     log.info("Deleting route with id: {}", id);
     if (!routeRepository.existsById(id)) {
       return false;
     }
     routeRepository.deleteById(id);
+    referenceData.reloadAfterCommit();
+    connectionPlanner.markStaleAfterCommit();
     return true;
   }
 
   @Override
-  @Transactional(readOnly = true)
   public boolean existsRoute(Long originAirportId, Long destinationAirportId) {
-    return routeRepository.findByOriginAndDestination(originAirportId, destinationAirportId).isPresent();
+    return referenceData.snapshot().activeRoute(originAirportId, destinationAirportId).isPresent();
   }
 }
@@ -0,0 +1,243 @@
+package com.sharp.flight_service.service.impl;
+
+import java.sql.Timestamp;
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sharp.flight_service.component.ConnectionPlanner;
+import com.sharp.flight_service.component.FlightSearchIndex;
+import com.sharp.flight_service.dto.ScheduleRolloutRequest;
+import com.sharp.flight_service.dto.ScheduleRolloutResult;
+import com.sharp.flight_service.model.Airport;
+import com.sharp.flight_service.model.FlightStatus;
+import com.sharp.flight_service.model.FlightTemplate;
+import com.sharp.flight_service.repository.IFlightInstanceRepository;
+import com.sharp.flight_service.repository.IFlightTemplateRepository;
+import com.sharp.flight_service.service.IScheduleRolloutService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Genera las instancias de una temporada a partir de los templates activos.
+ *
+ * Calcula todas las salidas de la ventana en memoria, descarta las que ya
+ * existen con una sola consulta por (template, salida) y escribe el resto con
+ * INSERT por lotes via JDBC (con ids IDENTITY, Hibernate no agrupa los
+ * inserts), un chunk por transaccion. La llegada es salida + duracion del
+ * template, en la hora local del destino; la capacidad, la del avion.
+ */
+@Slf4j
+@Service
+public class ScheduleRolloutServiceImpl implements IScheduleRolloutService {
+
+  private static final String INSERT_INSTANCE = "INSERT INTO flight_instance"
+      + " (flight_template_id, departure_at, arrival_at, status, capacity, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+  private final IFlightTemplateRepository flightTemplateRepository;
+  private final IFlightInstanceRepository flightInstanceRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final FlightSearchIndex flightSearchIndex;
+  private final ConnectionPlanner connectionPlanner;
+  private final TransactionTemplate transactionTemplate;
+  private final int chunkSize;
+  private final int maxDays;
+
+  public ScheduleRolloutServiceImpl(IFlightTemplateRepository flightTemplateRepository,
+      IFlightInstanceRepository flightInstanceRepository,
+      JdbcTemplate jdbcTemplate,
+      FlightSearchIndex flightSearchIndex,
+      ConnectionPlanner connectionPlanner,
+      PlatformTransactionManager transactionManager,
+      @Value("${flight.schedule.chunk-size:1000}") int chunkSize,
+      @Value("${flight.schedule.max-days:400}") int maxDays) {
+    this.flightTemplateRepository = flightTemplateRepository;
+    this.flightInstanceRepository = flightInstanceRepository;
+    this.jdbcTemplate = jdbcTemplate;
+    this.flightSearchIndex = flightSearchIndex;
+    this.connectionPlanner = connectionPlanner;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.chunkSize = chunkSize;
+    this.maxDays = maxDays;
+  }
+
+  private record TemplateDeparture(Long flightTemplateId, LocalDateTime departureAt) {
+  }
+
+  private record Planned(TemplateDeparture key, LocalDateTime arrivalAt, int capacity) {
+  }
+
+  @Override
+  public ScheduleRolloutResult rollOut(ScheduleRolloutRequest request) {
+    validate(request);
+    long started = System.nanoTime();
+    log.info("Rolling out schedule from {} to {}", request.getStartDate(), request.getEndDate());
+
+    List<FlightTemplate> templates = flightTemplateRepository.findAllActiveWithAirports();
+    Set<DayOfWeek> days = request.getDaysOfWeek() == null || request.getDaysOfWeek().isEmpty()
+        ? EnumSet.allOf(DayOfWeek.class)
+        : EnumSet.copyOf(request.getDaysOfWeek());
+    Map<String, List<LocalTime>> overrides = request.getDepartureTimesByFlightNumber() == null
+        ? Map.of()
+        : request.getDepartureTimesByFlightNumber();
+
+    List<Planned> planned = new ArrayList<>();
+    Set<Long> scheduledTemplates = new HashSet<>();
+    int skipped = 0;
+    for (FlightTemplate template : templates) {
+      List<LocalTime> times = overrides.getOrDefault(template.getFlightNumber(), request.getDepartureTimes());
+      if (times == null || times.isEmpty()) {
+        skipped++;
+        continue;
+      }
+      scheduledTemplates.add(template.getFlightTemplateId());
+      plan(template, request.getStartDate(), request.getEndDate(), days, times, planned);
+    }
+
+    // una sola consulta por lo ya creado en la ventana
+    Set<TemplateDeparture> existing = existing(scheduledTemplates,
+        request.getStartDate().atStartOfDay(), request.getEndDate().atTime(LocalTime.MAX));
+    List<Planned> missing = planned.stream()
+        .filter(p -> !existing.contains(p.key()))
+        .toList();
+
+    int created = 0;
+    for (int from = 0; from < missing.size(); from += chunkSize) {
+      created += insertChunk(missing.subList(from, Math.min(missing.size(), from + chunkSize)));
+    }
+
+    if (created > 0) {
+      connectionPlanner.markStaleAfterCommit();
+      try {
+        // demasiadas instancias para refrescarlas de a una
+        flightSearchIndex.rebuild();
+      } catch (RuntimeException e) {
+        log.warn("Could not rebuild flight search index after roll-out: {}", e.getMessage());
+      }
+    }
+
+    ScheduleRolloutResult result = ScheduleRolloutResult.builder()
+        .templates(scheduledTemplates.size())
+        .skippedTemplates(skipped)
+        .candidates(planned.size())
+        .existing(planned.size() - missing.size())
+        .created(created)
+        .durationMs(Duration.ofNanos(System.nanoTime() - started).toMillis())
+        .build();
+    log.info("Schedule roll-out created {} of {} instances for {} templates in {} ms", result.getCreated(),
+        result.getCandidates(), result.getTemplates(), result.getDurationMs());
+    return result;
+  }
+
+  private void validate(ScheduleRolloutRequest request) {
+    if (request.getStartDate() == null || request.getEndDate() == null) {
+      throw new IllegalArgumentException("startDate and endDate are required");
+    }
+    if (request.getEndDate().isBefore(request.getStartDate())) {
+      throw new IllegalArgumentException("endDate cannot be before startDate");
+    }
+    if (ChronoUnit.DAYS.between(request.getStartDate(), request.getEndDate()) >= maxDays) {
+      throw new IllegalArgumentException("Schedule window cannot exceed " + maxDays + " days");
+    }
+    boolean anyTimes = (request.getDepartureTimes() != null && !request.getDepartureTimes().isEmpty())
+        || (request.getDepartureTimesByFlightNumber() != null && !request.getDepartureTimesByFlightNumber().isEmpty());
+    if (!anyTimes) {
+      throw new IllegalArgumentException("departureTimes or departureTimesByFlightNumber is required");
+    }
+  }
+
+  private static void plan(FlightTemplate template, LocalDate startDate, LocalDate endDate, Set<DayOfWeek> days,
+      List<LocalTime> times, List<Planned> planned) {
+    ZoneId originZone = zoneOf(template.getRoute().getOriginAirport());
+    ZoneId destinationZone = zoneOf(template.getRoute().getDestinationAirport());
+    Duration duration = Duration.ofMinutes(template.getDefaultDurationMinutes());
+    int capacity = template.getAircraft().getSeatCapacity();
+    Set<LocalTime> distinctTimes = new HashSet<>(times);
+
+    for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+      if (!days.contains(date.getDayOfWeek())) {
+        continue;
+      }
+      for (LocalTime time : distinctTimes) {
+        LocalDateTime departureAt = date.atTime(time);
+        LocalDateTime arrivalAt = departureAt.atZone(originZone)
+            .plus(duration)
+            .withZoneSameInstant(destinationZone)
+            .toLocalDateTime();
+        planned.add(new Planned(new TemplateDeparture(template.getFlightTemplateId(), departureAt), arrivalAt,
+            capacity));
+      }
+    }
+  }
+
+  private Set<TemplateDeparture> existing(Set<Long> templateIds, LocalDateTime start, LocalDateTime end) {
+    if (templateIds.isEmpty()) {
+      return Set.of();
+    }
+    Set<TemplateDeparture> existing = new HashSet<>();
+    for (Object[] row : flightInstanceRepository.findTemplateDepartures(templateIds, start, end)) {
+      existing.add(new TemplateDeparture((Long) row[0], (LocalDateTime) row[1]));
+    }
+    return existing;
+  }
+
+  private int insertChunk(List<Planned> chunk) {
+    try {
+      return insert(chunk);
+    } catch (DuplicateKeyException e) {
+      // otra carga (o un POST) creo alguna salida despues de la consulta: se vuelve a filtrar el chunk
+      log.warn("Duplicate departures while rolling out a chunk of {}, retrying without them", chunk.size());
+      Set<Long> templateIds = new HashSet<>();
+      LocalDateTime start = LocalDateTime.MAX;
+      LocalDateTime end = LocalDateTime.MIN;
+      for (Planned p : chunk) {
+        templateIds.add(p.key().flightTemplateId());
+        start = p.key().departureAt().isBefore(start) ? p.key().departureAt() : start;
+        end = p.key().departureAt().isAfter(end) ? p.key().departureAt() : end;
+      }
+      Set<TemplateDeparture> existing = existing(templateIds, start, end);
+      return insert(chunk.stream().filter(p -> !existing.contains(p.key())).toList());
+    }
+  }
+
+  private int insert(List<Planned> chunk) {
+    if (chunk.isEmpty()) {
+      return 0;
+    }
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    List<Object[]> rows = new ArrayList<>(chunk.size());
+    for (Planned p : chunk) {
+      rows.add(new Object[] {p.key().flightTemplateId(), Timestamp.valueOf(p.key().departureAt()),
+          Timestamp.valueOf(p.arrivalAt()), FlightStatus.SCHEDULED.name(), p.capacity(), now});
+    }
+    transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_INSTANCE, rows));
+    return chunk.size();
+  }
+
+  private static ZoneId zoneOf(Airport airport) {
+    try {
+      return ZoneId.of(airport.getTimezone());
+    } catch (DateTimeException e) {
+      throw new IllegalArgumentException("Airport " + airport.getIata() + " has an invalid timezone: "
+          + airport.getTimezone());
+    }
+  }
+}
@@ -0,0 +1,145 @@
+package com.sharp.flight_service.component;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.sharp.flight_service.dto.Itinerary;
+import com.sharp.flight_service.model.Airport;
+import com.sharp.flight_service.model.FlightInstance;
+import com.sharp.flight_service.model.FlightTemplate;
+import com.sharp.flight_service.model.Route;
+import com.sharp.flight_service.repository.IFlightInstanceRepository;
+import com.sharp.flight_service.repository.IRouteRepository;
+
+class ConnectionPlannerTests {
+
+  private static final LocalDateTime BASE = LocalDateTime.now().plusDays(1).withHour(0).withMinute(0)
+      .withSecond(0).withNano(0);
+
+  private IFlightInstanceRepository instanceRepository;
+  private IRouteRepository routeRepository;
+  private ConnectionPlanner planner;
+
+  @BeforeEach
+  void setUp() {
+    instanceRepository = mock(IFlightInstanceRepository.class);
+    routeRepository = mock(IRouteRepository.class);
+    // sin base: TransactionTemplate corre el callback con el mock del manager
+    planner = new ConnectionPlanner(instanceRepository, routeRepository, mock(PlatformTransactionManager.class),
+        45, 12, 4, 600000);
+  }
+
+  @Test
+  void returnsOnlyNonDominatedItinerariesRespectingTheConnectionTime() {
+    Airport lima = airport(1L, "Lima");
+    Airport cusco = airport(2L, "Cusco");
+    Airport arequipa = airport(3L, "Arequipa");
+    FlightTemplate limAqp = template(10L, lima, arequipa);
+    FlightTemplate limCuz = template(11L, lima, cusco);
+    FlightTemplate cuzAqp = template(12L, cusco, arequipa);
+    List<FlightInstance> flights = List.of(
+        instance(1L, limAqp, BASE.plusHours(8), BASE.plusHours(12)),
+        instance(2L, limCuz, BASE.plusHours(6), BASE.plusHours(7)),
+        instance(3L, cuzAqp, BASE.plusHours(8), BASE.plusHours(10)),
+        // a 30 minutos del vuelo 5: solo sirve sin tiempo minimo de conexion
+        instance(4L, cuzAqp, BASE.plusHours(6).plusMinutes(30), BASE.plusHours(8).plusMinutes(30)),
+        // con el 3 llega igual que 2+3 saliendo antes
+        instance(5L, limCuz, BASE.plusHours(5), BASE.plusHours(6)));
+    load(List.of(limAqp.getRoute(), limCuz.getRoute(), cuzAqp.getRoute()), flights);
+
+    assertThat(legIds(planner.search(query(1L, 3L, BASE.plusDays(1), 3, Duration.ofHours(1)))))
+        .containsExactlyInAnyOrder(List.of(1L), List.of(2L, 3L));
+    assertThat(legIds(planner.search(query(1L, 3L, BASE.plusDays(1), 3, Duration.ZERO))))
+        .containsExactlyInAnyOrder(List.of(1L), List.of(2L, 3L), List.of(5L, 4L));
+    assertThat(legIds(planner.search(query(1L, 3L, BASE.plusDays(1), 1, Duration.ZERO))))
+        .containsExactly(List.of(1L));
+  }
+
+  @Test
+  void twoStopSearchOverAMonthStaysUnderFiftyMillis() {
+    int airports = 40;
+    List<Airport> airportList = new ArrayList<>();
+    for (int a = 0; a < airports; a++) {
+      airportList.add(airport((long) a + 1, "City" + a));
+    }
+    List<Route> routes = new ArrayList<>();
+    List<FlightInstance> flights = new ArrayList<>();
+    long id = 1;
+    for (int a = 0; a < airports; a++) {
+      for (int k = 1; k <= 8; k++) {
+        FlightTemplate template = template((long) routes.size() + 1, airportList.get(a),
+            airportList.get((a + k * 5) % airports));
+        routes.add(template.getRoute());
+        for (int day = 0; day < 30; day++) {
+          for (int slot = 0; slot < 4; slot++) {
+            LocalDateTime departure = BASE.plusDays(day).plusHours(6 + slot * 4L).plusMinutes((a * 7 + k * 11) % 60);
+            flights.add(instance(id++, template, departure, departure.plusHours(2).plusMinutes(k * 5L)));
+          }
+        }
+      }
+    }
+    load(routes, flights);
+    ConnectionPlanner.Query query = query(1L, 21L, BASE.plusDays(30), 3, Duration.ofHours(1));
+
+    List<Itinerary> found = planner.search(query);
+    for (int i = 0; i < 20; i++) {
+      planner.search(query);
+    }
+    long best = Long.MAX_VALUE;
+    for (int i = 0; i < 5; i++) {
+      long started = System.nanoTime();
+      planner.search(query);
+      best = Math.min(best, System.nanoTime() - started);
+    }
+
+    assertThat(found).isNotEmpty().allSatisfy(itinerary -> assertThat(itinerary.getStops()).isLessThanOrEqualTo(2));
+    assertThat(Duration.ofNanos(best)).isLessThan(Duration.ofMillis(50));
+  }
+
+  private void load(List<Route> routes, List<FlightInstance> flights) {
+    when(routeRepository.findAllActiveWithAirports()).thenReturn(routes);
+    when(instanceRepository.findByDepartureBetween(any(), any())).thenReturn(flights);
+    planner.rebuild();
+  }
+
+  private static ConnectionPlanner.Query query(Long origin, Long destination, LocalDateTime end, int maxLegs,
+      Duration minConnection) {
+    return new ConnectionPlanner.Query(origin, null, destination, null, BASE, end, maxLegs, minConnection, 100);
+  }
+
+  private static List<List<Long>> legIds(List<Itinerary> itineraries) {
+    return itineraries.stream()
+        .map(itinerary -> itinerary.getLegs().stream().map(FlightInstance::getFlightInstanceId).toList())
+        .toList();
+  }
+
+  private static Airport airport(Long id, String city) {
+    return Airport.builder().airportId(id).iata("A" + id).city(city).timezone("UTC").build();
+  }
+
+  private static FlightTemplate template(Long id, Airport origin, Airport destination) {
+    Route route = Route.builder().routeId(id).originAirport(origin).destinationAirport(destination).build();
+    return FlightTemplate.builder().flightTemplateId(id).route(route).build();
+  }
+
+  private static FlightInstance instance(Long id, FlightTemplate template, LocalDateTime departureAt,
+      LocalDateTime arrivalAt) {
+    return FlightInstance.builder()
+        .flightInstanceId(id)
+        .flightTemplate(template)
+        .departureAt(departureAt)
+        .arrivalAt(arrivalAt)
+        .build();
+  }
+}
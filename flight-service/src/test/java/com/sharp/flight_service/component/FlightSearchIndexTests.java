@@ -0,0 +1,142 @@
+package com.sharp.flight_service.component;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.sharp.flight_service.model.Airport;
+import com.sharp.flight_service.model.FlightInstance;
+import com.sharp.flight_service.model.FlightTemplate;
+import com.sharp.flight_service.model.Route;
+import com.sharp.flight_service.repository.IFlightInstanceRepository;
+
+class FlightSearchIndexTests {
+
+  private static final LocalDateTime BASE = LocalDateTime.now().plusDays(1).withNano(0);
+
+  private final Airport lima = airport(1L, "Lima");
+  private final Airport cusco = airport(2L, "Cusco");
+  private final FlightTemplate limCuz = template(10L, lima, cusco);
+
+  private IFlightInstanceRepository repository;
+  private FlightSearchIndex index;
+
+  @BeforeEach
+  void setUp() {
+    repository = mock(IFlightInstanceRepository.class);
+    // sin base: TransactionTemplate corre el callback con el mock del manager
+    index = new FlightSearchIndex(repository, mock(PlatformTransactionManager.class), true, 7);
+  }
+
+  @Test
+  void postingRangeIsInclusiveAndOrdered() {
+    FlightInstance first = instance(1L, limCuz, BASE);
+    FlightInstance second = instance(2L, limCuz, BASE.plusHours(2));
+    FlightInstance third = instance(3L, limCuz, BASE.plusHours(4));
+    FlightSearchIndex.Posting posting = FlightSearchIndex.Posting.of(List.of(third, first, second));
+
+    assertThat(posting.range(epoch(BASE), epoch(BASE.plusHours(2))))
+        .containsExactly(first, second);
+    assertThat(posting.range(epoch(BASE.plusMinutes(1)), Long.MAX_VALUE))
+        .containsExactly(second, third);
+    assertThat(posting.range(epoch(BASE.plusHours(5)), Long.MAX_VALUE)).isEmpty();
+  }
+
+  @Test
+  void postingWithAndWithoutReturnCopies() {
+    FlightInstance first = instance(1L, limCuz, BASE);
+    FlightInstance sameTime = instance(2L, limCuz, BASE);
+    FlightInstance later = instance(3L, limCuz, BASE.plusHours(1));
+    FlightSearchIndex.Posting posting = FlightSearchIndex.Posting.of(List.of(first, later));
+
+    FlightSearchIndex.Posting added = posting.with(epoch(BASE), sameTime);
+
+    assertThat(added.range(Long.MIN_VALUE, Long.MAX_VALUE)).containsExactly(first, sameTime, later);
+    assertThat(posting.range(Long.MIN_VALUE, Long.MAX_VALUE)).containsExactly(first, later);
+
+    FlightSearchIndex.Posting removed = added.without(epoch(BASE), 2L);
+
+    assertThat(removed.range(Long.MIN_VALUE, Long.MAX_VALUE)).containsExactly(first, later);
+    assertThat(removed.without(epoch(BASE), 99L)).isSameAs(removed);
+    assertThat(FlightSearchIndex.Posting.of(List.of(first)).without(epoch(BASE), 1L)).isNull();
+  }
+
+  @Test
+  void searchesFoldCitiesAndFallBackBeforeFloor() {
+    FlightInstance flight = instance(1L, limCuz, BASE);
+    when(repository.findDepartingFromWithDetails(any())).thenReturn(List.of(flight));
+
+    assertThat(index.findByCities("Lima", "Cusco", BASE, BASE)).isEmpty();
+
+    index.rebuild();
+
+    assertThat(index.findByCities(" LIMA ", "cusco", BASE.minusHours(1), BASE.plusHours(1)))
+        .hasValue(List.of(flight));
+    assertThat(index.findByOrigin(2L, BASE.minusHours(1), BASE.plusHours(1))).hasValue(List.of());
+    assertThat(index.findByOrigin(1L, BASE.minusDays(30), BASE)).isEmpty();
+  }
+
+  @Test
+  void writesDuringRebuildAreReappliedOnTheNewState() {
+    FlightInstance kept = instance(1L, limCuz, BASE);
+    FlightInstance created = instance(2L, limCuz, BASE.plusHours(1));
+    FlightInstance deleted = instance(3L, limCuz, BASE.plusHours(2));
+    when(repository.findDepartingFromWithDetails(any())).thenAnswer(invocation -> {
+      // commits de otras transacciones mientras se lee el snapshot
+      index.refreshAfterCommit(2L);
+      index.removeAfterCommit(3L);
+      return List.of(kept, deleted);
+    });
+    when(repository.findByIdWithDetails(2L)).thenReturn(Optional.of(created));
+    when(repository.findByIdWithDetails(3L)).thenReturn(Optional.empty());
+
+    index.rebuild();
+
+    assertThat(index.findByOrigin(1L, BASE, BASE.plusHours(3))).hasValue(List.of(kept, created));
+  }
+
+  @Test
+  void refreshMovesInstanceBetweenPostings() {
+    FlightInstance flight = instance(1L, limCuz, BASE);
+    when(repository.findDepartingFromWithDetails(any())).thenReturn(List.of(flight));
+    index.rebuild();
+
+    FlightInstance moved = instance(1L, template(11L, cusco, lima), BASE.plusHours(3));
+    when(repository.findByIdWithDetails(1L)).thenReturn(Optional.of(moved));
+    index.refreshAfterCommit(1L);
+
+    assertThat(index.findByCities("Lima", "Cusco", BASE, BASE.plusDays(1))).hasValue(List.of());
+    assertThat(index.findByCities("Cusco", "Lima", BASE, BASE.plusDays(1))).hasValue(List.of(moved));
+    assertThat(index.findByOrigin(1L, BASE, BASE.plusDays(1))).hasValue(List.of());
+  }
+
+  private static long epoch(LocalDateTime dateTime) {
+    return FlightSearchIndex.epoch(dateTime);
+  }
+
+  private static Airport airport(Long id, String city) {
+    return Airport.builder().airportId(id).city(city).build();
+  }
+
+  private static FlightTemplate template(Long id, Airport origin, Airport destination) {
+    Route route = Route.builder().routeId(id).originAirport(origin).destinationAirport(destination).build();
+    return FlightTemplate.builder().flightTemplateId(id).route(route).build();
+  }
+
+  private static FlightInstance instance(Long id, FlightTemplate template, LocalDateTime departureAt) {
+    return FlightInstance.builder()
+        .flightInstanceId(id)
+        .flightTemplate(template)
+        .departureAt(departureAt)
+        .build();
+  }
+}
@@ -26,6 +26,14 @@ if [ ! -f .env ]; then
     echo -e "${YELLOW}⚠️  Por favor revisa el archivo .env y ajusta las variables según necesites${NC}"
 fi
 
+# Clave de PNR de booking-service (secreto, no se versiona)
+if [ ! -f secrets/pnr_key ]; then
+    echo -e "${YELLOW}Generando secrets/pnr_key...${NC}"
+    mkdir -p secrets
+    od -An -N8 -td8 /dev/urandom | tr -d ' ' > secrets/pnr_key
+    chmod 600 secrets/pnr_key
+fi
+
 # Construir y levantar solo los microservicios y la base de datos
 echo -e "${GREEN}Construyendo e iniciando microservicios...${NC}"
 docker-compose up -d db auth-service flight-service booking-service
@@ -23,6 +23,14 @@ if [ ! -f .env ]; then
     echo -e "${YELLOW}⚠️  Por favor revisa el archivo .env y ajusta las variables según necesites${NC}"
 fi
 
+# Clave de PNR de booking-service (secreto, no se versiona)
+if [ ! -f secrets/pnr_key ]; then
+    echo -e "${YELLOW}Generando secrets/pnr_key...${NC}"
+    mkdir -p secrets
+    od -An -N8 -td8 /dev/urandom | tr -d ' ' > secrets/pnr_key
+    chmod 600 secrets/pnr_key
+fi
+
 # Construir y levantar todos los servicios
 echo -e "${GREEN}Construyendo e iniciando servicios...${NC}"
 docker-compose up --build -d
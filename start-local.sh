@@ -25,6 +25,14 @@ if [ ! -f .env ]; then
     echo -e "${YELLOW}⚠️  Por favor revisa el archivo .env y ajusta las variables según necesites${NC}"
 fi
 
+# Clave de PNR de booking-service (secreto, no se versiona)
+if [ ! -f secrets/pnr_key ]; then
+    echo -e "${YELLOW}Generando secrets/pnr_key...${NC}"
+    mkdir -p secrets
+    od -An -N8 -td8 /dev/urandom | tr -d ' ' > secrets/pnr_key
+    chmod 600 secrets/pnr_key
+fi
+
 # Iniciar solo la base de datos en Docker
 echo -e "\n${GREEN}1. Iniciando base de datos MySQL en Docker...${NC}"
 docker-compose up -d db
@@ -79,6 +87,9 @@ start_service() {
 # Crear directorio de logs si no existe
 mkdir -p logs
 
+# booking-service lee sus secretos (pnr_key) de este directorio
+export BOOKING_SECRETS_DIR="$(pwd)/secrets"
+
 # Iniciar servicios
 start_service "auth-service" "auth-service" "8990"
 start_service "flight-service" "flight-service" "8082"